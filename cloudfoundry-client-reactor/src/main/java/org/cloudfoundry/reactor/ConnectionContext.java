@@ -20,11 +20,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClient;
 
+import java.util.Optional;
+
 /**
  * Common, reusable, connection context
  */
 public interface ConnectionContext {
 
+    /**
+     * The (optional) {@link ConnectionLimiter} that limits the connections made to each host.  The default implementation returns no limit.
+     */
+    default Optional<ConnectionLimiter> getConnectionLimiter() {
+        return Optional.empty();
+    }
+
     /**
      * The {@link HttpClient} to use
      */
@@ -35,6 +44,20 @@ public interface ConnectionContext {
      */
     ObjectMapper getObjectMapper();
 
+    /**
+     * The (optional) {@link RequestInstrumentation} to notify of every request.  The default implementation returns no instrumentation.
+     */
+    default Optional<RequestInstrumentation> getRequestInstrumentation() {
+        return Optional.empty();
+    }
+
+    /**
+     * The (optional) {@link ResponseCache} to use for {@code GET} requests.  The default implementation returns no cache.
+     */
+    default Optional<ResponseCache> getResponseCache() {
+        return Optional.empty();
+    }
+
     /**
      * The normalized API root
      */
@@ -47,4 +70,11 @@ public interface ConnectionContext {
      */
     Mono<String> getRoot(String key);
 
+    /**
+     * Whether to request compressed ({@code gzip} or {@code deflate}) responses.  Compressed responses are decompressed as they arrive.  The default implementation returns {@code false}.
+     */
+    default boolean isCompressionEnabled() {
+        return false;
+    }
+
 }
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * A limit on the number of concurrent connections made to each host
+ */
+public interface ConnectionLimiter {
+
+    /**
+     * Acquires a connection to a host for the duration of an exchange.  The exchange is not subscribed to until a connection is available, and the connection is released once the exchange
+     * terminates or is cancelled.
+     *
+     * @param host     the host to connect to
+     * @param exchange the exchange to make with the host
+     * @param <T>      the type of the exchange's result
+     * @return the result of the exchange
+     */
+    <T> Mono<T> acquire(String host, Mono<T> exchange);
+
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+/**
+ * A receiver of timing events for the requests made by the client
+ */
+public interface RequestInstrumentation {
+
+    /**
+     * Records a completed request.  Called once per attempt, when the attempt has succeeded or failed, on the thread that completed it.  Implementations must be thread-safe and should not
+     * block.
+     *
+     * @param event the event describing the request
+     */
+    void record(RequestEvent event);
+
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers describing the requests made to a single endpoint.  See {@link DefaultRequestInstrumentation}.
+ */
+public final class RequestStatistics {
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final LongAdder decodeTime = new LongAdder();
+
+    private final LongAdder decodedPayloadSize = new LongAdder();
+
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private final AtomicLong maximumTime = new AtomicLong();
+
+    private final LongAdder payloadSize = new LongAdder();
+
+    private final AtomicLong retryCount = new AtomicLong();
+
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+
+    private final LongAdder timeToFirstByte = new LongAdder();
+
+    private final LongAdder totalTime = new LongAdder();
+
+    RequestStatistics() {
+    }
+
+    /**
+     * Returns the number of requests
+     *
+     * @return the number of requests
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Returns the total time spent decoding response bodies
+     *
+     * @return the total decode time
+     */
+    public Duration getDecodeTime() {
+        return Duration.ofNanos(this.decodeTime.sum());
+    }
+
+    /**
+     * Returns the total number of response body bytes read, once decompressed
+     *
+     * @return the total decoded payload size
+     */
+    public long getDecodedPayloadSize() {
+        return this.decodedPayloadSize.sum();
+    }
+
+    /**
+     * Returns the number of requests that failed
+     *
+     * @return the number of failed requests
+     */
+    public long getErrorCount() {
+        return this.errorCount.get();
+    }
+
+    /**
+     * Returns the longest time taken by a request, from being started to its response body being received
+     *
+     * @return the maximum request time
+     */
+    public Duration getMaximumTime() {
+        return Duration.ofNanos(this.maximumTime.get());
+    }
+
+    /**
+     * Returns the mean time taken by a request, from being started to its response body being received
+     *
+     * @return the mean request time
+     */
+    public Duration getMeanTime() {
+        long count = getCount();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(this.totalTime.sum() / count);
+    }
+
+    /**
+     * Returns the total number of response body bytes read, as received on the wire
+     *
+     * @return the total payload size
+     */
+    public long getPayloadSize() {
+        return this.payloadSize.sum();
+    }
+
+    /**
+     * Returns the number of requests that were retries of an earlier attempt
+     *
+     * @return the number of retries
+     */
+    public long getRetryCount() {
+        return this.retryCount.get();
+    }
+
+    /**
+     * Returns the number of responses with each status code
+     *
+     * @return the number of responses, keyed by status code
+     */
+    public Map<Integer, Long> getStatusCodes() {
+        Map<Integer, Long> statusCodes = new ConcurrentHashMap<>();
+        this.statusCodes.forEach((statusCode, count) -> statusCodes.put(statusCode, count.sum()));
+        return statusCodes;
+    }
+
+    /**
+     * Returns the total time between requests being started and their response headers being received
+     *
+     * @return the total time to first byte
+     */
+    public Duration getTimeToFirstByte() {
+        return Duration.ofNanos(this.timeToFirstByte.sum());
+    }
+
+    /**
+     * Returns the total time taken by requests, from being started to their response bodies being received
+     *
+     * @return the total request time
+     */
+    public Duration getTotalTime() {
+        return Duration.ofNanos(this.totalTime.sum());
+    }
+
+    void record(RequestEvent event) {
+        long time = nanos(event.getTimeToFirstByte()) + nanos(event.getBodyTransfer());
+
+        this.count.incrementAndGet();
+        this.decodeTime.add(nanos(event.getDecode()));
+        this.decodedPayloadSize.add(event.getDecodedPayloadSize());
+        this.maximumTime.accumulateAndGet(time, Math::max);
+        this.payloadSize.add(event.getPayloadSize());
+        this.timeToFirstByte.add(nanos(event.getTimeToFirstByte()));
+        this.totalTime.add(time);
+
+        if (event.getError() != null) {
+            this.errorCount.incrementAndGet();
+        }
+
+        if (event.getRetries() > 0) {
+            this.retryCount.incrementAndGet();
+        }
+
+        if (event.getStatusCode() != null) {
+            this.statusCodes.computeIfAbsent(event.getStatusCode(), k -> new LongAdder()).increment();
+        }
+    }
+
+    private static long nanos(Duration duration) {
+        return duration == null ? 0 : duration.toNanos();
+    }
+
+}
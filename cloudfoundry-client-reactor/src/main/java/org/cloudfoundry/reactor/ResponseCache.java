@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import java.util.Optional;
+
+/**
+ * A cache of decoded responses to {@code GET} requests, keyed by request URI and by the {@link TokenProvider} that authorized the request.  Responses are never shared between token providers, as
+ * the same URI may return different resources to different users.
+ */
+public interface ResponseCache {
+
+    /**
+     * Returns the cached response for a URI.  The response may have expired, in which case it can still be revalidated using its entity tag.
+     *
+     * @param tokenProvider the token provider that authorizes the request
+     * @param uri           the URI of the request
+     * @return the cached response, if one exists
+     */
+    Optional<CachedResponse> get(TokenProvider tokenProvider, String uri);
+
+    /**
+     * Invalidates all cached responses, for every token provider, that could have been affected by a mutating request to a URI
+     *
+     * @param uri the URI of the mutating request
+     */
+    void invalidate(String uri);
+
+    /**
+     * Caches the response to a request.  Implementations may choose not to cache responses for some URIs.
+     *
+     * @param tokenProvider the token provider that authorized the request
+     * @param uri           the URI of the request
+     * @param response      the decoded response
+     * @param entityTag     the entity tag of the response, or {@code null} if the response did not include one
+     */
+    void put(TokenProvider tokenProvider, String uri, Object response, String entityTag);
+
+}
@@ -31,4 +31,24 @@ public interface TokenProvider {
      */
     Mono<String> getToken(ConnectionContext connectionContext);
 
+    /**
+     * Invalidates the token provided for a {@link ConnectionContext}, for example because it has been rejected by a server.  The next call to {@link #getToken(ConnectionContext)} provides a new
+     * token.  The default implementation does nothing.
+     *
+     * @param connectionContext the {@link ConnectionContext} whose token should be invalidated
+     */
+    default void invalidate(ConnectionContext connectionContext) {
+    }
+
+    /**
+     * Invalidates a token provided for a {@link ConnectionContext} because it has been rejected by a server.  If the token has already been replaced, for example because a concurrent request
+     * that was rejected with the same token has already invalidated it, this does nothing.  The default implementation calls {@link #invalidate(ConnectionContext)}.
+     *
+     * @param connectionContext the {@link ConnectionContext} whose token should be invalidated
+     * @param token             the token that was rejected
+     */
+    default void invalidate(ConnectionContext connectionContext, String token) {
+        invalidate(connectionContext);
+    }
+
 }
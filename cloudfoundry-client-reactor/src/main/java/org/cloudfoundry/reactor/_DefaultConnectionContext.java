@@ -20,6 +20,10 @@ import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.deser.DeserializationProblemHandler;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import org.cloudfoundry.reactor.util.DefaultSslCertificateTruster;
 import org.cloudfoundry.reactor.util.JsonCodec;
 import org.cloudfoundry.reactor.util.NetworkLogging;
@@ -59,6 +63,13 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
 
     private static final int UNDEFINED_PORT = -1;
 
+    /**
+     * Shuts down the event loop created for {@code threadPoolSize}.  Does nothing if the context uses the {@link HttpClient}'s shared event loop.
+     */
+    public void dispose() {
+        getEventLoopGroup().ifPresent(EventLoopGroup::shutdownGracefully);
+    }
+
     @Override
     @Value.Default
     public HttpClient getHttpClient() {
@@ -70,8 +81,9 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         getKeepAlive().ifPresent(options::keepAlive);
         getProxyConfiguration().ifPresent(c -> options.proxy(ClientOptions.Proxy.HTTP, c.getHost(), c.getPort().orElse(null), c.getUsername().orElse(null), u -> c.getPassword().orElse(null)));
         getSocketTimeout().ifPresent(options::timeout);
-        getSslCertificateTruster().ifPresent(trustManager -> options.ssl().trustManager(new StaticTrustManagerFactory(trustManager)));
+        configureSsl(options.ssl());
         getSslHandshakeTimeout().ifPresent(options::sslHandshakeTimeout);
+        getEventLoopGroup().ifPresent(options::eventLoopGroup);
 
         return HttpClient.create(options);
     }
@@ -118,6 +130,15 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
             .cache();
     }
 
+    /**
+     * Whether to request compressed ({@code gzip} or {@code deflate}) responses.  Defaults to {@code false}.
+     */
+    @Override
+    @Value.Default
+    public boolean isCompressionEnabled() {
+        return false;
+    }
+
     @Value.Check
     void checkForValidApiHost() {
         Matcher matcher = HOSTNAME_PATTERN.matcher(getApiHost());
@@ -127,11 +148,29 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
         }
     }
 
+    void configureSsl(SslContextBuilder ssl) {
+        getSslCertificateTruster().ifPresent(trustManager -> ssl.trustManager(new StaticTrustManagerFactory(trustManager)));
+        getSslSessionCacheSize().ifPresent(ssl::sessionCacheSize);
+        getSslSessionTimeout().ifPresent(timeout -> ssl.sessionTimeout(timeout.getSeconds()));
+    }
+
     /**
      * The hostname of the API root.  Typically something like {@code api.run.pivotal.io}.
      */
     abstract String getApiHost();
 
+    /**
+     * The (optional) connection limiter.  Typically a {@link DefaultConnectionLimiter}.
+     */
+    @Override
+    public abstract Optional<ConnectionLimiter> getConnectionLimiter();
+
+    @Value.Derived
+    Optional<EventLoopGroup> getEventLoopGroup() {
+        return getThreadPoolSize()
+            .map(threads -> new NioEventLoopGroup(threads, new DefaultThreadFactory("cloudfoundry-client", true)));
+    }
+
     @SuppressWarnings("unchecked")
     @Value.Derived
     Mono<Map<String, String>> getInfo() {
@@ -162,6 +201,18 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<ProxyConfiguration> getProxyConfiguration();
 
+    /**
+     * The (optional) request instrumentation.  Typically a {@link DefaultRequestInstrumentation}.
+     */
+    @Override
+    public abstract Optional<RequestInstrumentation> getRequestInstrumentation();
+
+    /**
+     * The (optional) response cache.  Typically a {@link DefaultResponseCache}.
+     */
+    @Override
+    public abstract Optional<ResponseCache> getResponseCache();
+
     /**
      * Whether to skip SSL certificate validation for all hosts reachable from the API host.  Defaults to {@code false}.
      */
@@ -186,6 +237,23 @@ abstract class _DefaultConnectionContext implements ConnectionContext {
      */
     abstract Optional<Duration> getSslHandshakeTimeout();
 
+    /**
+     * The size of the client's SSL session cache.  Whether a cached session is actually resumed depends on the server, and on the SSL handler being created for the peer's host and port, so no
+     * reduction in handshake cost is guaranteed.
+     */
+    abstract Optional<Integer> getSslSessionCacheSize();
+
+    /**
+     * How long a cached SSL session may be resumed for
+     */
+    abstract Optional<Duration> getSslSessionTimeout();
+
+    /**
+     * The number of event loop threads used for network I/O.  Defaults to the {@link HttpClient}'s shared event loop.  A context with its own event loop should be disposed of with
+     * {@link #dispose()} when it is no longer needed.
+     */
+    abstract Optional<Integer> getThreadPoolSize();
+
     private static UriComponents normalize(UriComponentsBuilder builder) {
         UriComponents components = builder.build();
 
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default implementation of the {@link ConnectionLimiter} interface.  At most {@code maximumConnections} exchanges are made with each host at a time, and once that many are in progress further
+ * exchanges wait, in the order they were made, for one to finish.  Once {@code maximumPendingAcquires} exchanges are waiting for a host, further exchanges fail immediately.
+ */
+@Value.Immutable
+abstract class _DefaultConnectionLimiter implements ConnectionLimiter {
+
+    private final Map<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejections = new AtomicLong();
+
+    private final AtomicLong waits = new AtomicLong();
+
+    @Override
+    public final <T> Mono<T> acquire(String host, Mono<T> exchange) {
+        HostLimiter hostLimiter = this.hosts.computeIfAbsent(host, HostLimiter::new);
+
+        return Mono.<Permit>create(hostLimiter::acquire)
+            .then(permit -> exchange
+                .doOnCancel(permit::release)
+                .doAfterTerminate((value, error) -> permit.release()));
+    }
+
+    /**
+     * The number of connections currently in use, across all hosts
+     */
+    public final int getActiveConnections() {
+        return this.hosts.values().stream()
+            .mapToInt(HostLimiter::getActive)
+            .sum();
+    }
+
+    /**
+     * The number of connections currently in use to a host
+     *
+     * @param host the host
+     */
+    public final int getActiveConnections(String host) {
+        HostLimiter hostLimiter = this.hosts.get(host);
+        return hostLimiter == null ? 0 : hostLimiter.getActive();
+    }
+
+    /**
+     * The maximum number of connections to make to each host at a time.  Defaults to {@code 64}.
+     */
+    @Value.Default
+    public int getMaximumConnections() {
+        return 64;
+    }
+
+    /**
+     * The maximum number of exchanges that may wait for a connection to each host.  Defaults to {@code 1000}.
+     */
+    @Value.Default
+    public int getMaximumPendingAcquires() {
+        return 1_000;
+    }
+
+    /**
+     * The number of exchanges currently waiting for a connection, across all hosts
+     */
+    public final int getPendingAcquires() {
+        return this.hosts.values().stream()
+            .mapToInt(HostLimiter::getPending)
+            .sum();
+    }
+
+    /**
+     * The number of exchanges currently waiting for a connection to a host
+     *
+     * @param host the host
+     */
+    public final int getPendingAcquires(String host) {
+        HostLimiter hostLimiter = this.hosts.get(host);
+        return hostLimiter == null ? 0 : hostLimiter.getPending();
+    }
+
+    /**
+     * The number of exchanges that failed because too many exchanges were already waiting for a connection
+     */
+    public final long getRejectedAcquireCount() {
+        return this.rejections.get();
+    }
+
+    /**
+     * The number of exchanges that had to wait for a connection
+     */
+    public final long getWaitedAcquireCount() {
+        return this.waits.get();
+    }
+
+    @Value.Check
+    void check() {
+        if (getMaximumConnections() < 1) {
+            throw new IllegalStateException("Cannot build DefaultConnectionLimiter, maximumConnections must be at least 1");
+        }
+
+        if (getMaximumPendingAcquires() < 0) {
+            throw new IllegalStateException("Cannot build DefaultConnectionLimiter, maximumPendingAcquires must not be negative");
+        }
+    }
+
+    private final class HostLimiter {
+
+        private final String host;
+
+        private final Object monitor = new Object();
+
+        private final Queue<Waiter> pending = new ArrayDeque<>();
+
+        private int active;
+
+        private HostLimiter(String host) {
+            this.host = host;
+        }
+
+        private void acquire(MonoSink<Permit> sink) {
+            synchronized (this.monitor) {
+                if (this.active < getMaximumConnections()) {
+                    this.active++;
+                } else if (this.pending.size() < getMaximumPendingAcquires()) {
+                    Waiter waiter = new Waiter(sink);
+                    this.pending.offer(waiter);
+                    _DefaultConnectionLimiter.this.waits.incrementAndGet();
+
+                    sink.setCancellation(() -> cancel(waiter));
+                    return;
+                } else {
+                    _DefaultConnectionLimiter.this.rejections.incrementAndGet();
+
+                    sink.error(new IllegalStateException(String.format("Cannot acquire connection to %s, %d exchanges are already waiting", this.host, this.pending.size())));
+                    return;
+                }
+            }
+
+            sink.success(new Permit(this));
+        }
+
+        private void cancel(Waiter waiter) {
+            if (waiter.claimed.compareAndSet(false, true)) {
+                synchronized (this.monitor) {
+                    this.pending.remove(waiter);
+                }
+            }
+        }
+
+        private int getActive() {
+            synchronized (this.monitor) {
+                return this.active;
+            }
+        }
+
+        private int getPending() {
+            synchronized (this.monitor) {
+                return this.pending.size();
+            }
+        }
+
+        private void release() {
+            Waiter next;
+
+            synchronized (this.monitor) {
+                do {
+                    next = this.pending.poll();
+                } while (next != null && !next.claimed.compareAndSet(false, true));
+
+                if (next == null) {
+                    this.active--;
+                }
+            }
+
+            if (next != null) {
+                next.sink.success(new Permit(this));
+            }
+        }
+
+    }
+
+    private static final class Permit {
+
+        private final HostLimiter hostLimiter;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostLimiter hostLimiter) {
+            this.hostLimiter = hostLimiter;
+        }
+
+        private void release() {
+            if (this.released.compareAndSet(false, true)) {
+                this.hostLimiter.release();
+            }
+        }
+
+    }
+
+    private static final class Waiter {
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        private final MonoSink<Permit> sink;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+
+    }
+
+}
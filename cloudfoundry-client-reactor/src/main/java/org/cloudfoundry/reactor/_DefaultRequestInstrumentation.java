@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.immutables.value.Value;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The default implementation of the {@link RequestInstrumentation} interface.  Requests are aggregated into {@link RequestStatistics} per endpoint, keyed by method and URI template (e.g. {@code GET
+ * /v2/apps/{id}}), in the style of a tagged timer in a metrics registry.  The statistics can be read at any time, for example to be exported to a monitoring system.
+ */
+@Value.Immutable
+abstract class _DefaultRequestInstrumentation implements RequestInstrumentation {
+
+    private final Map<String, RequestStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * The statistics of each endpoint, keyed by method and URI template
+     */
+    public final Map<String, RequestStatistics> getStatistics() {
+        return Collections.unmodifiableMap(this.statistics);
+    }
+
+    @Override
+    public final void record(RequestEvent event) {
+        this.statistics.computeIfAbsent(String.format("%s %s", event.getMethod(), event.getUriTemplate()), k -> new RequestStatistics())
+            .record(event);
+    }
+
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.util.FluentMap;
+import org.immutables.value.Value;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The default implementation of the {@link ResponseCache} interface.  Responses are cached for a time-to-live configured per resource path prefix (e.g. {@code /v2/stacks}), separately for each
+ * {@link TokenProvider}, and the least recently used responses are evicted once the maximum number of entries is reached.  A mutating request invalidates every cached response under the same
+ * path prefix.
+ */
+@Value.Immutable
+abstract class _DefaultResponseCache implements ResponseCache {
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+
+    private static final Map<String, Duration> DEFAULT_TTLS = FluentMap.<String, Duration>builder()
+        .entry("/v2/buildpacks", DEFAULT_TTL)
+        .entry("/v2/config/feature_flags", DEFAULT_TTL)
+        .entry("/v2/info", DEFAULT_TTL)
+        .entry("/v2/service_plans", DEFAULT_TTL)
+        .entry("/v2/shared_domains", DEFAULT_TTL)
+        .entry("/v2/stacks", DEFAULT_TTL)
+        .build();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final Object monitor = new Object();
+
+    private final Map<Key, CachedResponse> responses = new LinkedHashMap<Key, CachedResponse>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = -3442839174624395702L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CachedResponse> eldest) {
+            boolean evict = size() > getMaximumEntries();
+
+            if (evict) {
+                _DefaultResponseCache.this.evictions.incrementAndGet();
+            }
+
+            return evict;
+        }
+
+    };
+
+    @Override
+    public final Optional<CachedResponse> get(TokenProvider tokenProvider, String uri) {
+        if (!getTtl(uri).isPresent()) {
+            return Optional.empty();
+        }
+
+        Optional<CachedResponse> response;
+        synchronized (this.monitor) {
+            response = Optional.ofNullable(this.responses.get(new Key(tokenProvider, uri)));
+        }
+
+        if (response.filter(r -> !r.isExpired()).isPresent()) {
+            this.hits.incrementAndGet();
+        } else {
+            this.misses.incrementAndGet();
+        }
+
+        return response;
+    }
+
+    /**
+     * The number of responses evicted because the cache was full
+     */
+    public final long getEvictionCount() {
+        return this.evictions.get();
+    }
+
+    /**
+     * The number of lookups that found an unexpired response
+     */
+    public final long getHitCount() {
+        return this.hits.get();
+    }
+
+    /**
+     * The number of responses invalidated by mutating requests
+     */
+    public final long getInvalidationCount() {
+        return this.invalidations.get();
+    }
+
+    /**
+     * The maximum number of responses to cache.  Defaults to {@code 1000}.
+     */
+    @Value.Default
+    public int getMaximumEntries() {
+        return 1_000;
+    }
+
+    /**
+     * The number of lookups that did not find an unexpired response
+     */
+    public final long getMissCount() {
+        return this.misses.get();
+    }
+
+    /**
+     * The time-to-live of cached responses, keyed by resource path prefix (e.g. {@code /v2/stacks}).  The longest prefix matching a request path applies, and responses for paths without a
+     * matching prefix are not cached.  Defaults to five minutes for buildpacks, feature flags, info, service plans, shared domains and stacks.
+     */
+    public abstract Map<String, Duration> getTtls();
+
+    @Override
+    public final void invalidate(String uri) {
+        Optional<String> prefix = getPrefix(uri);
+        if (!prefix.isPresent()) {
+            return;
+        }
+
+        synchronized (this.monitor) {
+            this.responses.keySet().removeIf(key -> {
+                boolean invalidate = prefix.equals(getPrefix(key.uri));
+
+                if (invalidate) {
+                    this.invalidations.incrementAndGet();
+                }
+
+                return invalidate;
+            });
+        }
+    }
+
+    @Override
+    public final void put(TokenProvider tokenProvider, String uri, Object response, String entityTag) {
+        getTtl(uri).ifPresent(ttl -> {
+            CachedResponse cachedResponse = CachedResponse.builder()
+                .entityTag(Optional.ofNullable(entityTag))
+                .expiration(Instant.now().plus(ttl))
+                .response(response)
+                .build();
+
+            synchronized (this.monitor) {
+                this.responses.put(new Key(tokenProvider, uri), cachedResponse);
+            }
+        });
+    }
+
+    private static boolean isPrefix(String prefix, String path) {
+        return path.equals(prefix) || path.startsWith(prefix.endsWith("/") ? prefix : prefix + "/");
+    }
+
+    private Optional<String> getPrefix(String uri) {
+        String path = Optional.ofNullable(UriComponentsBuilder.fromUriString(uri).build().getPath()).orElse("/");
+
+        return getEffectiveTtls().keySet().stream()
+            .filter(prefix -> isPrefix(prefix, path))
+            .max(Comparator.comparingInt(String::length));
+    }
+
+    private Map<String, Duration> getEffectiveTtls() {
+        return getTtls().isEmpty() ? DEFAULT_TTLS : getTtls();
+    }
+
+    private Optional<Duration> getTtl(String uri) {
+        return getPrefix(uri).map(getEffectiveTtls()::get);
+    }
+
+    private static final class Key {
+
+        private final TokenProvider tokenProvider;
+
+        private final String uri;
+
+        private Key(TokenProvider tokenProvider, String uri) {
+            this.tokenProvider = tokenProvider;
+            this.uri = uri;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return Objects.equals(this.tokenProvider, key.tokenProvider) && Objects.equals(this.uri, key.uri);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.tokenProvider, this.uri);
+        }
+
+    }
+
+}
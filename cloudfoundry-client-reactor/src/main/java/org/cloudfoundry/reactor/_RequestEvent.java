@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * The timings of a single request attempt.  See {@link RequestInstrumentation}.
+ */
+@Value.Immutable
+abstract class _RequestEvent {
+
+    /**
+     * The time between the response headers being received and the last byte of the body being received, or {@code null} if the body was not read by the client
+     */
+    @Nullable
+    abstract Duration getBodyTransfer();
+
+    /**
+     * The time spent decoding the body, or {@code null} if the body was not decoded by the client
+     */
+    @Nullable
+    abstract Duration getDecode();
+
+    /**
+     * The number of bytes in the response body once decompressed.  Equal to the payload size if the response was not compressed.
+     */
+    abstract Long getDecodedPayloadSize();
+
+    /**
+     * The error that the request failed with, or {@code null} if it succeeded
+     */
+    @Nullable
+    abstract Throwable getError();
+
+    /**
+     * The HTTP method of the request
+     */
+    abstract String getMethod();
+
+    /**
+     * The number of bytes in the response body that were read by the client, as received on the wire
+     */
+    abstract Long getPayloadSize();
+
+    /**
+     * The number of times the request had already been attempted
+     */
+    abstract Integer getRetries();
+
+    /**
+     * The status code of the response, or {@code null} if no response was received
+     */
+    @Nullable
+    abstract Integer getStatusCode();
+
+    /**
+     * The time between the request being started and the response headers being received.  This includes resolving the host and establishing (and securing) the connection, if a pooled
+     * connection was not available.  {@code null} if no response was received.
+     */
+    @Nullable
+    abstract Duration getTimeToFirstByte();
+
+    /**
+     * The URI of the request with its query removed and identifiers in its path replaced by {@code {id}} (e.g. {@code /v2/apps/{id}/routes})
+     */
+    abstract String getUriTemplate();
+
+}
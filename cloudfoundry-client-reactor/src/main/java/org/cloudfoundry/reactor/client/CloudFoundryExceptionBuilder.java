@@ -17,7 +17,9 @@
 package org.cloudfoundry.reactor.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.cloudfoundry.client.v2.CloudFoundryException;
+import org.cloudfoundry.reactor.util.ContentEncoding;
 import reactor.core.Exceptions;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpException;
@@ -41,7 +43,9 @@ public final class CloudFoundryExceptionBuilder {
      */
     @SuppressWarnings("unchecked")
     public static <T> Mono<T> build(HttpException cause) {
-        return cause.getChannel().receive().aggregate().toInputStream()
+        return cause.getChannel().receive()
+            .compose(ContentEncoding.decode(cause.getChannel().responseHeaders().get(HttpHeaderNames.CONTENT_ENCODING)))
+            .aggregate().toInputStream()
             .then(in -> {
                 try {
                     Map<String, ?> response = OBJECT_MAPPER.readValue(in, Map.class);
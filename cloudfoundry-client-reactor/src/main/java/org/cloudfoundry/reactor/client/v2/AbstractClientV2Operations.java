@@ -23,6 +23,7 @@ import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 import reactor.ipc.netty.http.HttpClientResponse;
@@ -45,7 +46,7 @@ public abstract class AbstractClientV2Operations extends AbstractReactorOperatio
     }
 
     protected final <T> Mono<T> get(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
-        return doGet(responseType, getUriAugmenter(request, uriTransformer), outbound -> outbound)
+        return doGetCached(responseType, getUriAugmenter(request, uriTransformer), outbound -> outbound)
             .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build);
     }
 
@@ -60,6 +61,12 @@ public abstract class AbstractClientV2Operations extends AbstractReactorOperatio
             .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build);
     }
 
+    protected final <T> Flux<T> getPaginated(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
+        return doGetPaginated(getUriAugmenter(request, uriTransformer), outbound -> outbound)
+            .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build)
+            .flatMap(paginatedResponse(responseType));
+    }
+
     protected final <T> Mono<T> post(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
         return doPost(request, responseType, getUriAugmenter(request, uriTransformer), outbound -> outbound)
             .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build);
@@ -137,6 +137,11 @@ public final class ReactorApplicationsV2 extends AbstractClientV2Operations impl
         return get(request, ListApplicationServiceBindingsResponse.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "service_bindings"));
     }
 
+    @Override
+    public Flux<ListApplicationsResponse> listStreaming(ListApplicationsRequest request) {
+        return getPaginated(request, ListApplicationsResponse.class, builder -> builder.pathSegment("v2", "apps"));
+    }
+
     @Override
     public Mono<Void> removeRoute(RemoveApplicationRouteRequest request) {
         return delete(request, Void.class, builder -> builder.pathSegment("v2", "apps", request.getApplicationId(), "routes", request.getRouteId()));
@@ -37,6 +37,7 @@ import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v2.AbstractClientV2Operations;
 import org.cloudfoundry.util.ExceptionUtils;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
@@ -101,6 +102,11 @@ public final class ReactorRoutes extends AbstractClientV2Operations implements R
         return get(request, ListRouteApplicationsResponse.class, builder -> builder.pathSegment("v2", "routes", request.getRouteId(), "apps"));
     }
 
+    @Override
+    public Flux<ListRoutesResponse> listStreaming(ListRoutesRequest request) {
+        return getPaginated(request, ListRoutesResponse.class, builder -> builder.pathSegment("v2", "routes"));
+    }
+
     @Override
     public Mono<Void> removeApplication(RemoveRouteApplicationRequest request) {
         return delete(request, Void.class, builder -> builder.pathSegment("v2", "routes", request.getRouteId(), "apps", request.getApplicationId()));
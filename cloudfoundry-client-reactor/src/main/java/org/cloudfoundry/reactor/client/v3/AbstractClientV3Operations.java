@@ -23,6 +23,7 @@ import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.cloudfoundry.reactor.util.MultipartHttpClientRequest;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientResponse;
 import reactor.ipc.netty.http.HttpException;
@@ -53,6 +54,12 @@ public abstract class AbstractClientV3Operations extends AbstractReactorOperatio
             .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build);
     }
 
+    protected final <T> Flux<T> getPaginated(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
+        return doGetPaginated(getUriAugmenter(request, uriTransformer), outbound -> outbound)
+            .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build)
+            .flatMap(paginatedResponse(responseType));
+    }
+
     protected final <T> Mono<T> patch(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
         return doPatch(request, responseType, getUriAugmenter(request, uriTransformer), outbound -> outbound)
             .otherwise(HttpException.class, CloudFoundryExceptionBuilder::build);
@@ -56,6 +56,7 @@ import org.cloudfoundry.client.v3.applications.UpdateApplicationResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.v3.AbstractClientV3Operations;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -139,6 +140,11 @@ public final class ReactorApplicationsV3 extends AbstractClientV3Operations impl
         return get(request, ListApplicationProcessesResponse.class, builder -> builder.pathSegment("v3", "apps", request.getApplicationId(), "processes"));
     }
 
+    @Override
+    public Flux<ListApplicationsResponse> listStreaming(ListApplicationsRequest request) {
+        return getPaginated(request, ListApplicationsResponse.class, builder -> builder.pathSegment("v3", "apps"));
+    }
+
     @Override
     public Mono<ListApplicationTasksResponse> listTasks(ListApplicationTasksRequest request) {
         return get(request, ListApplicationTasksResponse.class, builder -> builder.pathSegment("v3", "apps", request.getApplicationId(), "tasks"));
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+
+/**
+ * Records the status code of the close frame that ends a WebSocket connection, which is otherwise not surfaced once the connection has completed
+ */
+final class CloseStatusHandler extends ChannelInboundHandlerAdapter {
+
+    static final int UNKNOWN = -1;
+
+    private static final String NAME = "cloudfoundry-close-status";
+
+    private static final String WEBSOCKET_DECODER = "ws-decoder";
+
+    private volatile int status = UNKNOWN;
+
+    private CloseStatusHandler() {
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof CloseWebSocketFrame) {
+            this.status = ((CloseWebSocketFrame) msg).statusCode();
+        }
+
+        super.channelRead(ctx, msg);
+    }
+
+    static CloseStatusHandler install(Channel channel) {
+        CloseStatusHandler handler = new CloseStatusHandler();
+
+        ChannelPipeline pipeline = channel.pipeline();
+        if (pipeline.get(WEBSOCKET_DECODER) != null && pipeline.get(NAME) == null) {
+            pipeline.addAfter(WEBSOCKET_DECODER, NAME, handler);
+        }
+
+        return handler;
+    }
+
+    int getStatus() {
+        return this.status;
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A batch of firehose events, holding both the raw protobuf encoding of each event and, on request, its decoded {@link Envelope}.  Sinks that forward events can write the raw frames without
+ * re-encoding them.  Batches are pooled: once a batch has been forwarded, call {@link #release()} so that its storage can be reused for a later batch.  A batch must not be used after it has been
+ * released.
+ */
+public final class EnvelopeBatch {
+
+    private final ByteBuf content = Unpooled.buffer();
+
+    private final Consumer<EnvelopeBatch> recycler;
+
+    private final EnvelopeView view = new EnvelopeView();
+
+    private int count;
+
+    private int[] lengths = new int[16];
+
+    EnvelopeBatch(Consumer<EnvelopeBatch> recycler) {
+        this.recycler = recycler;
+    }
+
+    /**
+     * Returns the number of events in the batch
+     *
+     * @return the number of events
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the total size of the raw frames in the batch
+     *
+     * @return the size, in bytes, of the raw frames
+     */
+    public int getEncodedSize() {
+        return this.content.readableBytes();
+    }
+
+    /**
+     * Decodes the events in the batch.  The events are decoded each time this method is called.
+     *
+     * @return the decoded events
+     */
+    public List<Envelope> getEnvelopes() {
+        List<Envelope> envelopes = new ArrayList<>(this.count);
+        getFrames().forEach(frame -> envelopes.add(this.view.wrap(frame).toEnvelope()));
+        return envelopes;
+    }
+
+    /**
+     * Returns the raw protobuf encoding of each event in the batch.  The frames share the batch's storage and are only valid until the batch is released.
+     *
+     * @return the raw frames
+     */
+    public List<ByteBuf> getFrames() {
+        List<ByteBuf> frames = new ArrayList<>(this.count);
+
+        int offset = this.content.readerIndex();
+        for (int i = 0; i < this.count; i++) {
+            frames.add(this.content.slice(offset, this.lengths[i]));
+            offset += this.lengths[i];
+        }
+
+        return frames;
+    }
+
+    /**
+     * Returns the batch to its pool so that its storage can be reused
+     */
+    public void release() {
+        this.content.clear();
+        this.count = 0;
+        this.recycler.accept(this);
+    }
+
+    void add(ByteBuf frame) {
+        if (this.count == this.lengths.length) {
+            this.lengths = Arrays.copyOf(this.lengths, this.lengths.length * 2);
+        }
+
+        this.lengths[this.count++] = frame.readableBytes();
+        this.content.writeBytes(frame, frame.readerIndex(), frame.readableBytes());
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Cancellation;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.TimedScheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Groups raw firehose frames into {@link EnvelopeBatch}es.  A batch is closed when it reaches the maximum count or size, or when its first frame has waited for the maximum linger, and closed
+ * batches are emitted as downstream demand allows.  Frames are only requested from upstream while downstream wants a batch that has not yet been closed, and only as many as the open batch has
+ * room for, so at most one batch's worth of frames beyond downstream demand is ever held.  Released batches are kept in a small pool and reused.
+ * The open batch is guarded by the batcher's monitor, and signals to downstream are serialized through a single drain loop.
+ */
+final class EnvelopeBatcher implements Subscriber<ByteBuf>, Subscription {
+
+    private static final int POOL_SIZE = 16;
+
+    private final Subscriber<? super EnvelopeBatch> actual;
+
+    private final long linger;
+
+    private final int maximumBytes;
+
+    private final int maximumCount;
+
+    private final Queue<EnvelopeBatch> pool = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    private final Queue<EnvelopeBatch> ready = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final TimedScheduler.TimedWorker worker = Schedulers.timer().createWorker();
+
+    private volatile boolean cancelled;
+
+    private EnvelopeBatch current;
+
+    private volatile boolean done;
+
+    private Throwable error;
+
+    private long outstanding;
+
+    private Cancellation timer;
+
+    private Subscription upstream;
+
+    EnvelopeBatcher(Subscriber<? super EnvelopeBatch> actual, BatchPolicy policy) {
+        this.actual = actual;
+        this.linger = policy.getMaximumLinger().toMillis();
+        this.maximumBytes = policy.getMaximumBytes();
+        this.maximumCount = policy.getMaximumCount();
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        this.upstream.cancel();
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        close(this.current);
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close(this.current);
+        this.error = t;
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onNext(ByteBuf frame) {
+        synchronized (this) {
+            this.outstanding--;
+
+            if (this.current != null && this.current.getEncodedSize() + frame.readableBytes() > this.maximumBytes) {
+                close(this.current);
+            }
+
+            if (this.current == null) {
+                EnvelopeBatch batch = acquire();
+                this.current = batch;
+                this.timer = this.worker.schedule(() -> {
+                    close(batch);
+                    replenish();
+                    drain();
+                }, this.linger, TimeUnit.MILLISECONDS);
+            }
+
+            this.current.add(frame);
+
+            if (this.current.getCount() >= this.maximumCount || this.current.getEncodedSize() >= this.maximumBytes) {
+                close(this.current);
+            }
+        }
+
+        replenish();
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.upstream = s;
+        this.actual.onSubscribe(this);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            this.actual.onError(new IllegalArgumentException(String.format("Request must be positive: %d", n)));
+            return;
+        }
+
+        for (; ; ) {
+            long current = this.requested.get();
+            long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+
+            if (this.requested.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        replenish();
+        drain();
+    }
+
+    private EnvelopeBatch acquire() {
+        EnvelopeBatch batch = this.pool.poll();
+
+        if (batch == null) {
+            return new EnvelopeBatch(this::recycle);
+        }
+
+        this.pooled.decrementAndGet();
+        return batch;
+    }
+
+    private synchronized void close(EnvelopeBatch batch) {
+        if (batch == null || batch != this.current) {
+            return;
+        }
+
+        this.current = null;
+        this.timer.dispose();
+        this.ready.offer(batch);
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            if (this.cancelled) {
+                this.worker.shutdown();
+                this.ready.clear();
+                return;
+            }
+
+            long r = this.requested.get();
+            long e = 0;
+
+            while (e != r) {
+                if (this.cancelled) {
+                    this.worker.shutdown();
+                    this.ready.clear();
+                    return;
+                }
+
+                boolean d = this.done;
+                EnvelopeBatch batch = this.ready.poll();
+
+                if (batch == null) {
+                    if (d) {
+                        terminate();
+                        return;
+                    }
+
+                    break;
+                }
+
+                this.actual.onNext(batch);
+                e++;
+            }
+
+            if (e == r && this.done && this.ready.isEmpty()) {
+                terminate();
+                return;
+            }
+
+            if (e != 0 && r != Long.MAX_VALUE) {
+                this.requested.addAndGet(-e);
+            }
+
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void recycle(EnvelopeBatch batch) {
+        if (this.pooled.incrementAndGet() <= POOL_SIZE) {
+            this.pool.offer(batch);
+        } else {
+            this.pooled.decrementAndGet();
+        }
+    }
+
+    private void replenish() {
+        long n;
+
+        synchronized (this) {
+            if (this.cancelled || this.done || this.outstanding > 0 || this.requested.get() <= this.ready.size()) {
+                return;
+            }
+
+            n = this.maximumCount - (this.current == null ? 0 : this.current.getCount());
+            this.outstanding = n;
+        }
+
+        this.upstream.request(n);
+    }
+
+    private void terminate() {
+        this.worker.shutdown();
+
+        if (this.error != null) {
+            this.actual.onError(this.error);
+        } else {
+            this.actual.onComplete();
+        }
+    }
+
+}
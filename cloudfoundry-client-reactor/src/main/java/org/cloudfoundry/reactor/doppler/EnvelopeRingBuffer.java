@@ -0,0 +1,409 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, off-heap ring buffer of encoded envelopes.  Frames are requested from upstream without limit and copied into a direct buffer as length-prefixed records, so that the connection is
+ * always read as fast as frames arrive.  Records are only decoded into {@link Envelope}s when downstream requests them.  When a frame does not fit, the {@link OverflowPolicy} decides whether the
+ * oldest records are discarded, the frame is discarded, or the frame and all that follow it are appended to a spill file until the ring has drained.  Ring and spill file are guarded by the buffer's
+ * monitor, and signals to downstream are serialized through a single drain loop that runs on a worker of its own, so that a slow or blocking consumer never runs on, and stalls, the connection's
+ * event loop, even when it requests without limit.
+ */
+final class EnvelopeRingBuffer implements Subscriber<ByteBuf>, Subscription {
+
+    private static final int LENGTH_BYTES = 4;
+
+    private final Subscriber<? super Envelope> actual;
+
+    private final int capacity;
+
+    private final RingBufferMetrics metrics;
+
+    private final RingBufferPolicy policy;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final ByteBuf ring;
+
+    private final EnvelopeView view = new EnvelopeView();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final Scheduler.Worker worker = Schedulers.elastic().createWorker();
+
+    private volatile boolean cancelled;
+
+    private volatile boolean done;
+
+    private Throwable error;
+
+    private long head;
+
+    private Spill spill;
+
+    private long tail;
+
+    private Subscription upstream;
+
+    EnvelopeRingBuffer(Subscriber<? super Envelope> actual, RingBufferPolicy policy, RingBufferMetrics metrics) {
+        this.actual = actual;
+        this.capacity = policy.getCapacity();
+        this.metrics = metrics;
+        this.policy = policy;
+        this.ring = Unpooled.directBuffer(this.capacity, this.capacity);
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        this.upstream.cancel();
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        this.error = t;
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onNext(ByteBuf frame) {
+        try {
+            offer(frame);
+        } catch (IOException e) {
+            this.upstream.cancel();
+            onError(e);
+            return;
+        }
+
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.upstream = s;
+        this.actual.onSubscribe(this);
+        s.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            this.actual.onError(new IllegalArgumentException(String.format("Request must be positive: %d", n)));
+            return;
+        }
+
+        for (; ; ) {
+            long current = this.requested.get();
+            long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+
+            if (this.requested.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        drain();
+    }
+
+    private synchronized void clear() {
+        this.metrics.buffered(-(this.tail - this.head));
+        this.head = this.tail;
+
+        if (this.ring.refCnt() > 0) {
+            this.ring.release();
+        }
+
+        if (this.spill != null) {
+            this.spill.close();
+            this.spill = null;
+        }
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() == 0) {
+            this.worker.schedule(this::drainLoop);
+        }
+    }
+
+    private void drainLoop() {
+        int missed = 1;
+        do {
+            if (this.cancelled) {
+                clear();
+                this.worker.shutdown();
+                return;
+            }
+
+            long r = this.requested.get();
+            long e = 0;
+
+            while (e != r) {
+                if (this.cancelled) {
+                    clear();
+                    this.worker.shutdown();
+                    return;
+                }
+
+                boolean d = this.done;
+
+                ByteBuf record;
+                try {
+                    record = poll();
+                } catch (IOException ex) {
+                    this.upstream.cancel();
+                    clear();
+                    this.worker.shutdown();
+                    this.actual.onError(ex);
+                    return;
+                }
+
+                if (record == null) {
+                    if (d) {
+                        terminate();
+                        return;
+                    }
+
+                    break;
+                }
+
+                this.actual.onNext(this.view.wrap(record).toEnvelope());
+                e++;
+            }
+
+            if (e == r && this.done && isEmpty()) {
+                terminate();
+                return;
+            }
+
+            if (e != 0 && r != Long.MAX_VALUE) {
+                this.requested.addAndGet(-e);
+            }
+
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private synchronized boolean isEmpty() {
+        return this.head == this.tail && (this.spill == null || this.spill.isEmpty());
+    }
+
+    private synchronized void offer(ByteBuf frame) throws IOException {
+        if (this.cancelled) {
+            return;
+        }
+
+        int length = frame.readableBytes();
+        int size = LENGTH_BYTES + length;
+
+        if (this.spill != null && !this.spill.isEmpty()) {
+            this.metrics.spilled(this.spill.append(frame));
+            return;
+        }
+
+        if (size > this.capacity && this.policy.getOverflowPolicy() != OverflowPolicy.SPILL) {
+            this.metrics.dropped();
+            return;
+        }
+
+        while (this.capacity - (this.tail - this.head) < size) {
+            switch (this.policy.getOverflowPolicy()) {
+                case DROP_NEWEST:
+                    this.metrics.dropped();
+                    return;
+                case DROP_OLDEST:
+                    int dropped = LENGTH_BYTES + getLength(this.head);
+                    this.head += dropped;
+                    this.metrics.buffered(-dropped);
+                    this.metrics.dropped();
+                    break;
+                case SPILL:
+                    if (this.spill == null) {
+                        this.spill = new Spill(this.policy.getSpillDirectory());
+                    }
+
+                    this.metrics.spilled(this.spill.append(frame));
+                    return;
+                default:
+                    throw new IllegalStateException(String.format("Unknown overflow policy: %s", this.policy.getOverflowPolicy()));
+            }
+        }
+
+        for (int i = 0; i < LENGTH_BYTES; i++) {
+            this.ring.setByte(index(this.tail + i), length >>> (8 * (LENGTH_BYTES - 1 - i)));
+        }
+
+        int start = index(this.tail + LENGTH_BYTES);
+        int first = Math.min(length, this.capacity - start);
+        this.ring.setBytes(start, frame, frame.readerIndex(), first);
+        this.ring.setBytes(0, frame, frame.readerIndex() + first, length - first);
+
+        this.tail += size;
+        this.metrics.buffered(size);
+    }
+
+    private synchronized ByteBuf poll() throws IOException {
+        if (this.head == this.tail) {
+            if (this.spill == null || this.spill.isEmpty()) {
+                return null;
+            }
+
+            ByteBuf record = this.spill.poll();
+            this.metrics.spilled(-(LENGTH_BYTES + record.readableBytes()));
+            return record;
+        }
+
+        int length = getLength(this.head);
+        ByteBuf record = Unpooled.buffer(length);
+
+        int start = index(this.head + LENGTH_BYTES);
+        int first = Math.min(length, this.capacity - start);
+        record.writeBytes(this.ring, start, first);
+        record.writeBytes(this.ring, 0, length - first);
+
+        this.head += LENGTH_BYTES + length;
+        this.metrics.buffered(-(LENGTH_BYTES + length));
+
+        return record;
+    }
+
+    private int getLength(long position) {
+        int length = 0;
+
+        for (int i = 0; i < LENGTH_BYTES; i++) {
+            length = (length << 8) | this.ring.getUnsignedByte(index(position + i));
+        }
+
+        return length;
+    }
+
+    private int index(long position) {
+        return (int) (position % this.capacity);
+    }
+
+    private void terminate() {
+        clear();
+        this.worker.shutdown();
+
+        if (this.error != null) {
+            this.actual.onError(this.error);
+        } else {
+            this.actual.onComplete();
+        }
+    }
+
+    private static final class Spill {
+
+        private final FileChannel channel;
+
+        private final ByteBuffer lengthBuffer = ByteBuffer.allocate(LENGTH_BYTES);
+
+        private long readPosition;
+
+        private long writePosition;
+
+        private Spill(Path directory) throws IOException {
+            Path file = Files.createTempFile(directory, "firehose-", ".spill");
+            this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        private long append(ByteBuf frame) throws IOException {
+            int length = frame.readableBytes();
+
+            this.lengthBuffer.clear();
+            this.lengthBuffer.putInt(length).flip();
+            write(this.lengthBuffer);
+            write(frame.nioBuffer());
+
+            return LENGTH_BYTES + length;
+        }
+
+        private void close() {
+            try {
+                this.channel.close();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private boolean isEmpty() {
+            return this.readPosition == this.writePosition;
+        }
+
+        private ByteBuf poll() throws IOException {
+            this.lengthBuffer.clear();
+            read(this.lengthBuffer);
+            this.lengthBuffer.flip();
+
+            ByteBuffer record = ByteBuffer.allocate(this.lengthBuffer.getInt());
+            read(record);
+            record.flip();
+
+            if (isEmpty()) {
+                this.channel.truncate(0);
+                this.readPosition = 0;
+                this.writePosition = 0;
+            }
+
+            return Unpooled.wrappedBuffer(record);
+        }
+
+        private void read(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                int read = this.channel.read(buffer, this.readPosition);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of spill file");
+                }
+
+                this.readPosition += read;
+            }
+        }
+
+        private void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                this.writePosition += this.channel.write(buffer, this.writePosition);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,434 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import com.squareup.wire.ProtoAdapter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufInputStream;
+import org.cloudfoundry.doppler.ContainerMetric;
+import org.cloudfoundry.doppler.CounterEvent;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.Error;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.doppler.HttpStart;
+import org.cloudfoundry.doppler.HttpStartStop;
+import org.cloudfoundry.doppler.HttpStop;
+import org.cloudfoundry.doppler.LogMessage;
+import org.cloudfoundry.doppler.ValueMetric;
+import reactor.core.Exceptions;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * A flyweight view of an encoded {@link Envelope}.  The fields of the envelope are located when the view is wrapped around a frame, but are only decoded when they are requested, so a
+ * consumer that reads only the headers, or only the payload it is interested in, allocates little per frame.  The full {@link Envelope} is only materialized by {@link #toEnvelope()}.  A view
+ * is reused for every frame of a connection, so it is only valid for the duration of the {@code onNext} signal that delivers it; call {@link #toEnvelope()} to retain the contents of a frame.
+ */
+public final class EnvelopeView {
+
+    private static final int CONTAINER_METRIC = 12;
+
+    private static final int COUNTER_EVENT = 10;
+
+    private static final int DEPLOYMENT = 13;
+
+    private static final int ERROR = 11;
+
+    private static final int EVENT_TYPE = 2;
+
+    private static final int HTTP_START = 4;
+
+    private static final int HTTP_START_STOP = 7;
+
+    private static final int HTTP_STOP = 5;
+
+    private static final int INDEX = 15;
+
+    private static final int IP = 16;
+
+    private static final int JOB = 14;
+
+    private static final int LOG_MESSAGE = 8;
+
+    private static final int ORIGIN = 1;
+
+    private static final int TAGS = 17;
+
+    private static final int TIMESTAMP = 6;
+
+    private static final int VALUE_METRIC = 9;
+
+    private static final int WIRE_TYPE_FIXED32 = 5;
+
+    private static final int WIRE_TYPE_FIXED64 = 1;
+
+    private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+
+    private static final int WIRE_TYPE_VARINT = 0;
+
+    private final int[] lengths = new int[TAGS + 1];
+
+    private final int[] offsets = new int[TAGS + 1];
+
+    private ByteBuf buffer;
+
+    private int position;
+
+    EnvelopeView() {
+    }
+
+    /**
+     * Returns the enclosed {@link ContainerMetric}.  Only the bytes of the {@link ContainerMetric} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link ContainerMetric}, or {@code null} if it is not set
+     */
+    public ContainerMetric getContainerMetric() {
+        return getPayload(CONTAINER_METRIC, org.cloudfoundry.dropsonde.events.ContainerMetric.ADAPTER, ContainerMetric::from);
+    }
+
+    /**
+     * Returns the enclosed {@link CounterEvent}.  Only the bytes of the {@link CounterEvent} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link CounterEvent}, or {@code null} if it is not set
+     */
+    public CounterEvent getCounterEvent() {
+        return getPayload(COUNTER_EVENT, org.cloudfoundry.dropsonde.events.CounterEvent.ADAPTER, CounterEvent::from);
+    }
+
+    /**
+     * Returns the deployment name (used to uniquely identify source)
+     *
+     * @return the deployment name, or {@code null} if it is not set
+     */
+    public String getDeployment() {
+        return getString(DEPLOYMENT);
+    }
+
+    /**
+     * Returns the enclosed {@link Error}.  Only the bytes of the {@link Error} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link Error}, or {@code null} if it is not set
+     */
+    public Error getError() {
+        return getPayload(ERROR, org.cloudfoundry.dropsonde.events.Error.ADAPTER, Error::from);
+    }
+
+    /**
+     * Returns the type of the wrapped event
+     *
+     * @return the type of the wrapped event
+     */
+    public EventType getEventType() {
+        if (this.offsets[EVENT_TYPE] == -1) {
+            throw new IllegalStateException("Envelope does not have an event type");
+        }
+
+        this.position = this.offsets[EVENT_TYPE];
+        int value = (int) readVarint();
+
+        EventType eventType = toEventType(value);
+        if (eventType == null) {
+            throw new IllegalArgumentException(String.format("Unknown event type: %d", value));
+        }
+
+        return eventType;
+    }
+
+    /**
+     * Returns the enclosed {@link HttpStart}.  Only the bytes of the {@link HttpStart} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link HttpStart}, or {@code null} if it is not set
+     */
+    public HttpStart getHttpStart() {
+        return getPayload(HTTP_START, org.cloudfoundry.dropsonde.events.HttpStart.ADAPTER, HttpStart::from);
+    }
+
+    /**
+     * Returns the enclosed {@link HttpStartStop}.  Only the bytes of the {@link HttpStartStop} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link HttpStartStop}, or {@code null} if it is not set
+     */
+    public HttpStartStop getHttpStartStop() {
+        return getPayload(HTTP_START_STOP, org.cloudfoundry.dropsonde.events.HttpStartStop.ADAPTER, HttpStartStop::from);
+    }
+
+    /**
+     * Returns the enclosed {@link HttpStop}.  Only the bytes of the {@link HttpStop} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link HttpStop}, or {@code null} if it is not set
+     */
+    public HttpStop getHttpStop() {
+        return getPayload(HTTP_STOP, org.cloudfoundry.dropsonde.events.HttpStop.ADAPTER, HttpStop::from);
+    }
+
+    /**
+     * Returns the index of the job (used to uniquely identify source)
+     *
+     * @return the index of the job, or {@code null} if it is not set
+     */
+    public String getIndex() {
+        return getString(INDEX);
+    }
+
+    /**
+     * Returns the IP address (used to uniquely identify source)
+     *
+     * @return the IP address, or {@code null} if it is not set
+     */
+    public String getIp() {
+        return getString(IP);
+    }
+
+    /**
+     * Returns the job name (used to uniquely identify source)
+     *
+     * @return the job name, or {@code null} if it is not set
+     */
+    public String getJob() {
+        return getString(JOB);
+    }
+
+    /**
+     * Returns the enclosed {@link LogMessage}.  Only the bytes of the {@link LogMessage} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link LogMessage}, or {@code null} if it is not set
+     */
+    public LogMessage getLogMessage() {
+        return getPayload(LOG_MESSAGE, org.cloudfoundry.dropsonde.events.LogMessage.ADAPTER, LogMessage::from);
+    }
+
+    /**
+     * Returns the unique description of the origin of the event
+     *
+     * @return the origin of the event
+     */
+    public String getOrigin() {
+        return getString(ORIGIN);
+    }
+
+    /**
+     * Returns the key/value tags that include additional identifying information.  The tags are decoded each time this method is called.
+     *
+     * @return the tags
+     */
+    public Map<String, String> getTags() {
+        Map<String, String> tags = new HashMap<>();
+
+        int end = this.buffer.writerIndex();
+        this.position = this.buffer.readerIndex();
+
+        while (this.position < end) {
+            long tag = readVarint();
+
+            if ((int) (tag >>> 3) == TAGS && (int) (tag & 0x07) == WIRE_TYPE_LENGTH_DELIMITED) {
+                int length = (int) readVarint();
+                int entryEnd = this.position + length;
+                String key = null;
+                String value = null;
+
+                while (this.position < entryEnd) {
+                    long entryTag = readVarint();
+                    int entryLength = (int) readVarint();
+                    String s = this.buffer.toString(this.position, entryLength, StandardCharsets.UTF_8);
+                    this.position += entryLength;
+
+                    if ((entryTag >>> 3) == 1) {
+                        key = s;
+                    } else if ((entryTag >>> 3) == 2) {
+                        value = s;
+                    }
+                }
+
+                if (key != null) {
+                    tags.put(key, value != null ? value : "");
+                }
+            } else {
+                skip((int) (tag & 0x07));
+            }
+        }
+
+        return tags;
+    }
+
+    /**
+     * Returns the UNIX timestamp (in nanoseconds) the event was wrapped in the envelope
+     *
+     * @return the timestamp, or {@code 0} if it is not set
+     */
+    public long getTimestamp() {
+        if (this.offsets[TIMESTAMP] == -1) {
+            return 0;
+        }
+
+        this.position = this.offsets[TIMESTAMP];
+        return readVarint();
+    }
+
+    /**
+     * Returns the enclosed {@link ValueMetric}.  Only the bytes of the {@link ValueMetric} are decoded, and they are decoded each time this method is called.
+     *
+     * @return the enclosed {@link ValueMetric}, or {@code null} if it is not set
+     */
+    public ValueMetric getValueMetric() {
+        return getPayload(VALUE_METRIC, org.cloudfoundry.dropsonde.events.ValueMetric.ADAPTER, ValueMetric::from);
+    }
+
+    /**
+     * Materializes the full {@link Envelope} that this view represents
+     *
+     * @return the envelope
+     */
+    public Envelope toEnvelope() {
+        try (InputStream in = new ByteBufInputStream(this.buffer.duplicate())) {
+            return Envelope.from(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(in));
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    boolean hasEventType(ByteBuf buffer, Set<EventType> eventTypes) {
+        this.buffer = buffer;
+
+        int end = buffer.writerIndex();
+        this.position = buffer.readerIndex();
+
+        while (this.position < end) {
+            long tag = readVarint();
+            int wireType = (int) (tag & 0x07);
+
+            if ((int) (tag >>> 3) == EVENT_TYPE && wireType == WIRE_TYPE_VARINT) {
+                return eventTypes.contains(toEventType((int) readVarint()));
+            }
+
+            skip(wireType);
+        }
+
+        return false;
+    }
+
+    EnvelopeView wrap(ByteBuf buffer) {
+        this.buffer = buffer;
+        Arrays.fill(this.offsets, -1);
+
+        int end = buffer.writerIndex();
+        this.position = buffer.readerIndex();
+
+        while (this.position < end) {
+            long tag = readVarint();
+            int field = (int) (tag >>> 3);
+            int wireType = (int) (tag & 0x07);
+
+            if (field < this.offsets.length && this.offsets[field] == -1) {
+                int offset = this.position;
+                int length = skip(wireType);
+
+                this.offsets[field] = wireType == WIRE_TYPE_LENGTH_DELIMITED ? this.position - length : offset;
+                this.lengths[field] = length;
+            } else {
+                skip(wireType);
+            }
+        }
+
+        return this;
+    }
+
+    private static EventType toEventType(int value) {
+        switch (value) {
+            case 2:
+                return EventType.HTTP_START;
+            case 3:
+                return EventType.HTTP_STOP;
+            case 4:
+                return EventType.HTTP_START_STOP;
+            case 5:
+                return EventType.LOG_MESSAGE;
+            case 6:
+                return EventType.VALUE_METRIC;
+            case 7:
+                return EventType.COUNTER_EVENT;
+            case 8:
+                return EventType.ERROR;
+            case 9:
+                return EventType.CONTAINER_METRIC;
+            default:
+                return null;
+        }
+    }
+
+    private <T, U> U getPayload(int field, ProtoAdapter<T> adapter, Function<T, U> mapper) {
+        int offset = this.offsets[field];
+        if (offset == -1) {
+            return null;
+        }
+
+        try (InputStream in = new ByteBufInputStream(this.buffer.slice(offset, this.lengths[field]))) {
+            return mapper.apply(adapter.decode(in));
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private String getString(int field) {
+        int offset = this.offsets[field];
+        return offset == -1 ? null : this.buffer.toString(offset, this.lengths[field], StandardCharsets.UTF_8);
+    }
+
+    private long readVarint() {
+        long value = 0;
+
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = this.buffer.getByte(this.position++);
+            value |= (long) (b & 0x7F) << shift;
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private int skip(int wireType) {
+        int start = this.position;
+
+        switch (wireType) {
+            case WIRE_TYPE_VARINT:
+                readVarint();
+                return this.position - start;
+            case WIRE_TYPE_FIXED64:
+                this.position += 8;
+                return 8;
+            case WIRE_TYPE_LENGTH_DELIMITED:
+                int length = (int) readVarint();
+                this.position += length;
+                return length;
+            case WIRE_TYPE_FIXED32:
+                this.position += 4;
+                return 4;
+            default:
+                throw new IllegalArgumentException(String.format("Unsupported wire type: %d", wireType));
+        }
+    }
+
+}
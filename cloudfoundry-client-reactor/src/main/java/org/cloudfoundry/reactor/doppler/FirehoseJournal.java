@@ -0,0 +1,380 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.PlatformDependent;
+import org.cloudfoundry.doppler.Envelope;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * An append-only journal of raw firehose frames, stored in memory-mapped segment files.  Each frame is written as a length-prefixed record before it is decoded, and is identified by its offset,
+ * the number of bytes written to the journal before it.  When a record does not fit in the current segment, a new segment is started, and the oldest segments are deleted whenever the journal
+ * grows beyond its maximum size.  A segment that a replay is reading is not deleted until the replay has moved past it.  Segments are named for the offset of their first record, so a journal can
+ * be reopened after a restart and replayed from any offset that has been retained.  Replays map each segment only while reading it, and {@link #close()} releases the segment being written.
+ */
+public final class FirehoseJournal {
+
+    private static final int LENGTH_BYTES = 4;
+
+    private static final String SUFFIX = ".segment";
+
+    private final Path directory;
+
+    private final long maximumSize;
+
+    private final int segmentSize;
+
+    private final Map<Long, Integer> pinned = new HashMap<>();
+
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+    private MappedByteBuffer active;
+
+    private long activeOffset;
+
+    private boolean closed;
+
+    /**
+     * Creates a new instance
+     *
+     * @param directory   the directory to store segments in
+     * @param segmentSize the size, in bytes, of each segment
+     * @param maximumSize the maximum total size, in bytes, of the segments to retain.  The segment being written is always retained.
+     */
+    public FirehoseJournal(Path directory, int segmentSize, long maximumSize) {
+        if (segmentSize <= LENGTH_BYTES) {
+            throw new IllegalArgumentException(String.format("segmentSize must be greater than %d", LENGTH_BYTES));
+        }
+
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+        this.segmentSize = segmentSize;
+
+        try {
+            Files.createDirectories(directory);
+
+            try (Stream<Path> paths = Files.list(directory)) {
+                paths
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .forEach(path -> this.segments.put(getOffset(path), path));
+            }
+
+            if (this.segments.isEmpty()) {
+                rotate(0);
+            } else {
+                recover(this.segments.lastEntry());
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Appends a raw frame to the journal
+     *
+     * @param frame the frame to append.  Its reader index is not changed.
+     * @return the offset of the record, or the end offset of the journal if the frame is empty
+     */
+    public synchronized long append(ByteBuf frame) {
+        checkOpen();
+        int length = frame.readableBytes();
+
+        if (length == 0) {
+            return getEndOffset();
+        }
+
+        if (LENGTH_BYTES + length > this.segmentSize) {
+            throw new IllegalArgumentException(String.format("Frame of %d bytes does not fit in a segment of %d bytes", length, this.segmentSize));
+        }
+
+        try {
+            if (this.active.remaining() < LENGTH_BYTES + length) {
+                rotate(this.activeOffset + this.segmentSize);
+                retain();
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+
+        long offset = getEndOffset();
+
+        ByteBuffer record = this.active.duplicate();
+        record.position(this.active.position() + LENGTH_BYTES);
+        record.limit(this.active.position() + LENGTH_BYTES + length);
+        frame.getBytes(frame.readerIndex(), record);
+
+        this.active.putInt(length);
+        this.active.position(this.active.position() + length);
+
+        return offset;
+    }
+
+    /**
+     * Forces the contents of the segment being written to storage and releases its mapping.  Once closed, records can no longer be appended or replayed.
+     */
+    public synchronized void close() {
+        if (this.closed) {
+            return;
+        }
+
+        this.closed = true;
+        this.active.force();
+        PlatformDependent.freeDirectBuffer(this.active);
+        this.active = null;
+    }
+
+    /**
+     * Returns the offset that the next record will be written at
+     *
+     * @return the end offset of the journal
+     */
+    public synchronized long getEndOffset() {
+        checkOpen();
+        return this.activeOffset + this.active.position();
+    }
+
+    /**
+     * Returns the offset of the oldest retained record
+     *
+     * @return the start offset of the journal
+     */
+    public synchronized long getStartOffset() {
+        return this.segments.firstKey();
+    }
+
+    /**
+     * Re-emits the envelopes in the journal, from a given offset to the end of the journal at the time of subscription.  If the offset is no longer retained, replay starts at the oldest record
+     * that is.
+     *
+     * @param offset the offset to replay from, as returned by {@link #getStartOffset()} or {@link #getEndOffset()}
+     * @return the envelopes in the journal
+     */
+    public Flux<Envelope> replay(long offset) {
+        return replayRecords(offset)
+            .map(JournalRecord::getEnvelope);
+    }
+
+    /**
+     * Re-emits the records in the journal, from a given offset to the end of the journal at the time of subscription.  Each record carries its offset and the offset to resume replay from once it
+     * has been processed.  If the offset is no longer retained, replay starts at the oldest record that is.
+     *
+     * @param offset the offset to replay from, as returned by {@link #getStartOffset()}, {@link #getEndOffset()}, or {@link JournalRecord#getNextOffset()}
+     * @return the records in the journal
+     */
+    public Flux<JournalRecord> replayRecords(long offset) {
+        return Flux.generate(() -> open(offset), (cursor, sink) -> {
+            JournalRecord record = cursor.next();
+
+            if (record == null) {
+                sink.complete();
+            } else {
+                sink.next(record);
+            }
+
+            return cursor;
+        }, Cursor::close);
+    }
+
+    /**
+     * Forces the contents of the segment being written to storage
+     */
+    public synchronized void sync() {
+        checkOpen();
+        this.active.force();
+    }
+
+    private static long getOffset(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path segment, FileChannel.MapMode mode, int size) throws IOException {
+        try (FileChannel channel = mode == FileChannel.MapMode.READ_ONLY ?
+            FileChannel.open(segment, StandardOpenOption.READ) :
+            FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    private void checkOpen() {
+        if (this.closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+    }
+
+    private synchronized Cursor open(long offset) {
+        checkOpen();
+        long start = Math.max(offset, getStartOffset());
+
+        return new Cursor(start, getEndOffset(), pin(start));
+    }
+
+    private synchronized Map.Entry<Long, Path> pin(long offset) {
+        Map.Entry<Long, Path> segment = this.segments.floorEntry(offset);
+
+        if (segment != null) {
+            this.pinned.merge(segment.getKey(), 1, Integer::sum);
+        }
+
+        return segment;
+    }
+
+    private void recover(Map.Entry<Long, Path> segment) throws IOException {
+        this.active = map(segment.getValue(), FileChannel.MapMode.READ_WRITE, this.segmentSize);
+        this.activeOffset = segment.getKey();
+
+        while (this.active.remaining() >= LENGTH_BYTES) {
+            int length = this.active.getInt(this.active.position());
+
+            if (length <= 0 || length > this.active.remaining() - LENGTH_BYTES) {
+                break;
+            }
+
+            this.active.position(this.active.position() + LENGTH_BYTES + length);
+        }
+    }
+
+    private void retain() throws IOException {
+        while (this.segments.size() > 1 && (long) this.segments.size() * this.segmentSize > this.maximumSize) {
+            if (this.pinned.containsKey(this.segments.firstKey())) {
+                return;
+            }
+
+            Files.deleteIfExists(this.segments.pollFirstEntry().getValue());
+        }
+    }
+
+    private void rotate(long offset) throws IOException {
+        if (this.active != null) {
+            this.active.force();
+            PlatformDependent.freeDirectBuffer(this.active);
+        }
+
+        Path segment = this.directory.resolve(String.format("%020d%s", offset, SUFFIX));
+
+        this.active = map(segment, FileChannel.MapMode.READ_WRITE, this.segmentSize);
+        this.activeOffset = offset;
+        this.segments.put(offset, segment);
+    }
+
+    private synchronized void unpin(long segmentOffset) {
+        this.pinned.computeIfPresent(segmentOffset, (k, count) -> count > 1 ? count - 1 : null);
+
+        try {
+            retain();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private final class Cursor {
+
+        private final long end;
+
+        private final EnvelopeView view = new EnvelopeView();
+
+        private MappedByteBuffer buffer;
+
+        private long offset;
+
+        private Map.Entry<Long, Path> segment;
+
+        private Cursor(long offset, long end, Map.Entry<Long, Path> segment) {
+            this.end = end;
+            this.offset = offset;
+            this.segment = segment;
+        }
+
+        private void close() {
+            release();
+            this.segment = null;
+        }
+
+        private JournalRecord next() {
+            try {
+                while (this.segment != null && this.offset < this.end) {
+                    long segmentOffset = this.segment.getKey();
+
+                    if (this.offset >= segmentOffset + FirehoseJournal.this.segmentSize) {
+                        Map.Entry<Long, Path> next = pin(this.offset);
+                        release();
+                        this.segment = next;
+                        continue;
+                    }
+
+                    if (this.buffer == null) {
+                        this.buffer = map(this.segment.getValue(), FileChannel.MapMode.READ_ONLY, FirehoseJournal.this.segmentSize);
+                    }
+
+                    int position = (int) (this.offset - segmentOffset);
+                    int length = position + LENGTH_BYTES <= FirehoseJournal.this.segmentSize ? this.buffer.getInt(position) : 0;
+
+                    if (length <= 0) {
+                        this.offset = segmentOffset + FirehoseJournal.this.segmentSize;
+                        continue;
+                    }
+
+                    ByteBuffer record = this.buffer.duplicate();
+                    record.position(position + LENGTH_BYTES);
+                    record.limit(position + LENGTH_BYTES + length);
+
+                    long recordOffset = this.offset;
+                    this.offset += LENGTH_BYTES + length;
+
+                    return JournalRecord.builder()
+                        .envelope(this.view.wrap(Unpooled.wrappedBuffer(record)).toEnvelope())
+                        .nextOffset(this.offset)
+                        .offset(recordOffset)
+                        .build();
+                }
+
+                return null;
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        private void release() {
+            if (this.buffer != null) {
+                PlatformDependent.freeDirectBuffer(this.buffer);
+                this.buffer = null;
+            }
+
+            if (this.segment != null) {
+                unpin(this.segment.getKey());
+            }
+        }
+
+    }
+
+}
@@ -16,57 +16,140 @@
 
 package org.cloudfoundry.reactor.doppler;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.http.HttpHeaderNames;
 import org.cloudfoundry.doppler.ContainerMetricsRequest;
 import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.FirehoseRequest;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.reactor.ConnectionContext;
 import org.cloudfoundry.reactor.TokenProvider;
-import reactor.core.Exceptions;
+import org.cloudfoundry.reactor.util.MultipartCodec;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientResponse;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 final class ReactorDopplerEndpoints extends AbstractDopplerOperations {
 
+    private final ConnectionContext connectionContext;
+
+    private final FirehoseJournal journal;
+
+    private final ReconnectMetrics reconnectMetrics;
+
+    private final ReconnectPolicy reconnectPolicy;
+
+    private final RingBufferMetrics ringBufferMetrics;
+
+    private final RingBufferPolicy ringBufferPolicy;
+
+    private final TokenProvider tokenProvider;
+
     ReactorDopplerEndpoints(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
+        this(connectionContext, root, tokenProvider, null, new ReconnectMetrics(), null, new RingBufferMetrics(), null);
+    }
+
+    ReactorDopplerEndpoints(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider, ReconnectPolicy reconnectPolicy, ReconnectMetrics reconnectMetrics,
+                            RingBufferPolicy ringBufferPolicy, RingBufferMetrics ringBufferMetrics, FirehoseJournal journal) {
         super(connectionContext, root, tokenProvider);
+        this.connectionContext = connectionContext;
+        this.journal = journal;
+        this.reconnectMetrics = reconnectMetrics;
+        this.reconnectPolicy = reconnectPolicy;
+        this.ringBufferMetrics = ringBufferMetrics;
+        this.ringBufferPolicy = ringBufferPolicy;
+        this.tokenProvider = tokenProvider;
     }
 
     Flux<Envelope> containerMetrics(ContainerMetricsRequest request) {
         return get(builder -> builder.pathSegment("apps", request.getApplicationId(), "containermetrics"))
-            .flatMap(inbound -> inbound.receiveMultipart().receiveInputStream())
-            .map(ReactorDopplerEndpoints::toEnvelope);
+            .flatMap(ReactorDopplerEndpoints::toEnvelopes);
     }
 
     Flux<Envelope> firehose(FirehoseRequest request) {
-        return ws(builder -> builder.pathSegment("firehose", request.getSubscriptionId()))
-            .flatMap(HttpClientResponse::receiveInputStream)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        if (this.ringBufferPolicy == null) {
+            return firehoseViews(request)
+                .flatMap(connection -> connection
+                    .map(EnvelopeView::toEnvelope), getConnections(request));
+        }
+
+        return firehoseFrames(request)
+            .flatMap(connection -> Flux.<Envelope>from(subscriber -> connection
+                .subscribe(new EnvelopeRingBuffer(subscriber, this.ringBufferPolicy, this.ringBufferMetrics))), getConnections(request));
+    }
+
+    Flux<EnvelopeBatch> firehoseBatches(FirehoseRequest request, BatchPolicy policy) {
+        return firehoseFrames(request)
+            .flatMap(connection -> Flux.<EnvelopeBatch>from(subscriber -> connection
+                .subscribe(new EnvelopeBatcher(subscriber, policy))), getConnections(request));
+    }
+
+    Flux<Flux<EnvelopeView>> firehoseViews(FirehoseRequest request) {
+        return firehoseFrames(request)
+            .map(connection -> {
+                EnvelopeView view = new EnvelopeView();
+                return connection.map(view::wrap);
+            });
     }
 
     Flux<Envelope> recentLogs(RecentLogsRequest request) {
         return get(builder -> builder.pathSegment("apps", request.getApplicationId(), "recentlogs"))
-            .flatMap(inbound -> inbound.receiveMultipart().receiveInputStream())
-            .map(ReactorDopplerEndpoints::toEnvelope);
+            .flatMap(ReactorDopplerEndpoints::toEnvelopes);
     }
 
     Flux<Envelope> stream(StreamRequest request) {
-        return ws(builder -> builder.pathSegment("apps", request.getApplicationId(), "stream"))
-            .flatMap(HttpClientResponse::receiveInputStream)
-            .map(ReactorDopplerEndpoints::toEnvelope);
+        return reconnecting(ws(builder -> builder.pathSegment("apps", request.getApplicationId(), "stream")),
+            inbound -> toEnvelopeViews(inbound, request.getEventTypes()))
+            .map(EnvelopeView::toEnvelope);
     }
 
-    private static Envelope toEnvelope(InputStream inputStream) {
-        try (InputStream in = inputStream) {
-            return Envelope.from(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.decode(in));
-        } catch (IOException e) {
-            throw Exceptions.propagate(e);
+    private static int getConnections(FirehoseRequest request) {
+        return Optional.ofNullable(request.getConnections()).orElse(1);
+    }
+
+    private static Flux<Envelope> toEnvelopes(HttpClientResponse inbound) {
+        EnvelopeView view = new EnvelopeView();
+        String boundary = MultipartCodec.getBoundary(inbound.responseHeaders().get(HttpHeaderNames.CONTENT_TYPE));
+
+        return inbound.receive()
+            .compose(MultipartCodec.decode(boundary))
+            .map(part -> view.wrap(part).toEnvelope());
+    }
+
+    private static Flux<EnvelopeView> toEnvelopeViews(HttpClientResponse inbound, Set<EventType> eventTypes) {
+        EnvelopeView view = new EnvelopeView();
+
+        return toFrames(inbound, eventTypes)
+            .map(view::wrap);
+    }
+
+    private static Flux<ByteBuf> toFrames(HttpClientResponse inbound, Set<EventType> eventTypes) {
+        EnvelopeView view = new EnvelopeView();
+
+        return inbound.receive()
+            .filter(buffer -> eventTypes.isEmpty() || view.hasEventType(buffer, eventTypes));
+    }
+
+    private Flux<Flux<ByteBuf>> firehoseFrames(FirehoseRequest request) {
+        return Flux.range(0, getConnections(request))
+            .map(i -> reconnecting(ws(builder -> builder.pathSegment("firehose", request.getSubscriptionId())),
+                inbound -> toFrames(inbound, request.getEventTypes())))
+            .map(connection -> this.journal == null ? connection : connection.doOnNext(this.journal::append));
+    }
+
+    private <T> Flux<T> reconnecting(Mono<HttpClientResponse> connection, Function<HttpClientResponse, Flux<T>> receiver) {
+        if (this.reconnectPolicy == null) {
+            return connection.flatMap(receiver);
         }
+
+        return Flux.defer(() -> new Reconnection(this.connectionContext, this.reconnectMetrics, this.reconnectPolicy, this.tokenProvider)
+            .apply(connection, receiver));
     }
 
 }
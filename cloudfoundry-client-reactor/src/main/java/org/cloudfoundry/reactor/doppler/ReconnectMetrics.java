@@ -0,0 +1,101 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the connections of firehose and stream subscriptions to Doppler
+ */
+public final class ReconnectMetrics {
+
+    private static final int POLICY_VIOLATION = 1008;
+
+    private final AtomicLong disconnectCount = new AtomicLong();
+
+    private final AtomicLong lastGap = new AtomicLong();
+
+    private final AtomicLong reconnectCount = new AtomicLong();
+
+    private final AtomicLong slowConsumerCloseCount = new AtomicLong();
+
+    private final AtomicLong totalGap = new AtomicLong();
+
+    ReconnectMetrics() {
+    }
+
+    /**
+     * Returns the number of times that an established connection has been lost, either because it was closed or because it failed
+     *
+     * @return the number of lost connections
+     */
+    public long getDisconnectCount() {
+        return this.disconnectCount.get();
+    }
+
+    /**
+     * Returns the time between the most recent lost connection and its replacement being established
+     *
+     * @return the most recent gap between connections
+     */
+    public Duration getLastGap() {
+        return Duration.ofNanos(this.lastGap.get());
+    }
+
+    /**
+     * Returns the number of times that a lost connection has been replaced
+     *
+     * @return the number of reconnections
+     */
+    public long getReconnectCount() {
+        return this.reconnectCount.get();
+    }
+
+    /**
+     * Returns the number of times that Doppler has closed a connection because its consumer could not keep up (close code {@code 1008})
+     *
+     * @return the number of slow consumer closes
+     */
+    public long getSlowConsumerCloseCount() {
+        return this.slowConsumerCloseCount.get();
+    }
+
+    /**
+     * Returns the total time spent without a connection, between lost connections and their replacements being established
+     *
+     * @return the total gap between connections
+     */
+    public Duration getTotalGap() {
+        return Duration.ofNanos(this.totalGap.get());
+    }
+
+    void disconnected(int closeStatus) {
+        this.disconnectCount.incrementAndGet();
+
+        if (closeStatus == POLICY_VIOLATION) {
+            this.slowConsumerCloseCount.incrementAndGet();
+        }
+    }
+
+    void reconnected(Duration gap) {
+        this.reconnectCount.incrementAndGet();
+        this.lastGap.set(gap.toNanos());
+        this.totalGap.addAndGet(gap.toNanos());
+    }
+
+}
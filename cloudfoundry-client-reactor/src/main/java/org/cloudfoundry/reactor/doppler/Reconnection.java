@@ -0,0 +1,150 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.TokenProvider;
+import org.cloudfoundry.util.DelayTimeoutException;
+import org.cloudfoundry.util.DelayUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * The state of a single reconnecting subscription.  Connections are re-established with a jittered exponential backoff whenever they are closed or fail, until a {@link ReconnectPolicy}'s
+ * timeout passes without a connection being established.  The token current when each connection is attempted is recorded, and is invalidated before reconnecting if it is rejected, so that a
+ * token that has already been replaced is left alone.  Other client errors fail the subscription.
+ */
+final class Reconnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.doppler");
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private static final int UNAUTHORIZED = 401;
+
+    private final ConnectionContext connectionContext;
+
+    private final ReconnectMetrics metrics;
+
+    private final ReconnectPolicy policy;
+
+    private final TokenProvider tokenProvider;
+
+    private long attempts;
+
+    private boolean connected;
+
+    private Instant disconnected;
+
+    private Instant outage;
+
+    private String token;
+
+    Reconnection(ConnectionContext connectionContext, ReconnectMetrics metrics, ReconnectPolicy policy, TokenProvider tokenProvider) {
+        this.connectionContext = connectionContext;
+        this.metrics = metrics;
+        this.policy = policy;
+        this.tokenProvider = tokenProvider;
+    }
+
+    <T> Flux<T> apply(Mono<HttpClientResponse> connection, Function<HttpClientResponse, Flux<T>> receiver) {
+        return this.tokenProvider.getToken(this.connectionContext)
+            .doOnNext(token -> this.token = token)
+            .then(token -> connection)
+            .flatMap(inbound -> {
+                CloseStatusHandler closeStatus = CloseStatusHandler.install(inbound.delegate());
+                connected();
+
+                return receiver.apply(inbound)
+                    .doOnComplete(() -> lost(closeStatus.getStatus()));
+            })
+            .onErrorResumeWith(this::failed)
+            .repeatWhen(iterations -> iterations
+                .flatMap(iteration -> delay(), 1));
+    }
+
+    private static boolean isClientError(int status) {
+        return status >= 400 && status < 500;
+    }
+
+    private void connected() {
+        if (this.disconnected != null) {
+            Duration gap = Duration.between(this.disconnected, Instant.now());
+            LOGGER.debug("Reconnected after {} ms", gap.toMillis());
+            this.metrics.reconnected(gap);
+        }
+
+        this.attempts = 0;
+        this.connected = true;
+        this.disconnected = null;
+        this.outage = null;
+    }
+
+    private Mono<Long> delay() {
+        if (this.outage != null && Instant.now().isAfter(this.outage.plus(this.policy.getTimeout()))) {
+            return Mono.error(new DelayTimeoutException());
+        }
+
+        return DelayUtils.jitteredBackOff(this.policy.getMinimumBackoff(), this.policy.getMaximumBackoff(), this.policy.getJitter(), this.attempts);
+    }
+
+    private <T> Flux<T> failed(Throwable t) {
+        if (t instanceof HttpException) {
+            int status = ((HttpException) t).getResponseStatus().code();
+
+            if (status == UNAUTHORIZED && this.token != null) {
+                this.tokenProvider.invalidate(this.connectionContext, this.token);
+            } else if (isClientError(status) && status != TOO_MANY_REQUESTS) {
+                return Flux.error(t);
+            }
+        }
+
+        LOGGER.debug("Connection failed: {}", t.getMessage());
+
+        if (this.connected) {
+            lost(CloseStatusHandler.UNKNOWN);
+        } else {
+            this.attempts++;
+
+            if (this.outage == null) {
+                this.outage = Instant.now();
+            }
+        }
+
+        return Flux.empty();
+    }
+
+    private void lost(int closeStatus) {
+        LOGGER.debug("Connection lost (close status {})", closeStatus);
+        this.metrics.disconnected(closeStatus);
+
+        Instant now = Instant.now();
+        this.attempts = 0;
+        this.connected = false;
+        this.disconnected = now;
+        this.outage = now;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters describing the ring buffers between firehose connections and their consumers
+ */
+public final class RingBufferMetrics {
+
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private final AtomicLong occupancy = new AtomicLong();
+
+    private final AtomicLong spilledBytes = new AtomicLong();
+
+    private final AtomicLong spilledCount = new AtomicLong();
+
+    RingBufferMetrics() {
+    }
+
+    /**
+     * Returns the number of events that have been discarded because a ring buffer was full
+     *
+     * @return the number of dropped events
+     */
+    public long getDroppedCount() {
+        return this.droppedCount.get();
+    }
+
+    /**
+     * Returns the number of bytes currently held in ring buffers
+     *
+     * @return the occupancy of the ring buffers
+     */
+    public long getOccupancy() {
+        return this.occupancy.get();
+    }
+
+    /**
+     * Returns the number of bytes currently held in spill files
+     *
+     * @return the occupancy of the spill files
+     */
+    public long getSpilledBytes() {
+        return this.spilledBytes.get();
+    }
+
+    /**
+     * Returns the number of events that have been written to spill files because a ring buffer was full
+     *
+     * @return the number of spilled events
+     */
+    public long getSpilledCount() {
+        return this.spilledCount.get();
+    }
+
+    void buffered(long bytes) {
+        this.occupancy.addAndGet(bytes);
+    }
+
+    void dropped() {
+        this.droppedCount.incrementAndGet();
+    }
+
+    void spilled(long bytes) {
+        this.spilledBytes.addAndGet(bytes);
+
+        if (bytes > 0) {
+            this.spilledCount.incrementAndGet();
+        }
+    }
+
+}
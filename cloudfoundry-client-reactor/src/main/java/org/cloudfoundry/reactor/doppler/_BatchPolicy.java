@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * The policy for grouping firehose events into {@link EnvelopeBatch}es.  A batch is emitted as soon as any of its limits is reached.
+ */
+@Value.Immutable
+abstract class _BatchPolicy {
+
+    /**
+     * The maximum number of encoded bytes in a batch.  A single event larger than this is emitted in a batch of its own.  Defaults to 1 MiB.
+     */
+    @Value.Default
+    public int getMaximumBytes() {
+        return 1024 * 1024;
+    }
+
+    /**
+     * The maximum number of events in a batch.  Defaults to {@code 1000}.
+     */
+    @Value.Default
+    public int getMaximumCount() {
+        return 1000;
+    }
+
+    /**
+     * The maximum time that the first event of a batch waits before the batch is emitted.  Defaults to 1 second.
+     */
+    @Value.Default
+    public Duration getMaximumLinger() {
+        return Duration.ofSeconds(1);
+    }
+
+    @Value.Check
+    void check() {
+        if (getMaximumBytes() < 1) {
+            throw new IllegalStateException("Cannot build BatchPolicy, maximumBytes must be at least 1");
+        }
+
+        if (getMaximumCount() < 1) {
+            throw new IllegalStateException("Cannot build BatchPolicy, maximumCount must be at least 1");
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.doppler.Envelope;
+import org.immutables.value.Value;
+
+/**
+ * An envelope replayed from a {@link FirehoseJournal}, with its position in the journal
+ */
+@Value.Immutable
+abstract class _JournalRecord {
+
+    /**
+     * The envelope
+     */
+    public abstract Envelope getEnvelope();
+
+    /**
+     * The offset of the record that follows this one.  Replaying from this offset resumes after this record.
+     */
+    public abstract long getNextOffset();
+
+    /**
+     * The offset of this record
+     */
+    public abstract long getOffset();
+
+}
@@ -47,6 +47,33 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getDopplerEndpoints().firehose(request);
     }
 
+    /**
+     * Makes the <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Firehose</a> request, returning the events in batches that hold both their raw
+     * protobuf encoding and, on request, their decoded {@link Envelope}s.  Each connection is batched separately, and each batch should be released once it has been forwarded so that it can be
+     * reused.
+     *
+     * @param request the Firehose request
+     * @param policy  the limits of each batch
+     * @return the batches of events
+     */
+    public Flux<EnvelopeBatch> firehoseBatches(FirehoseRequest request, BatchPolicy policy) {
+        return getDopplerEndpoints().firehoseBatches(request, policy);
+    }
+
+    /**
+     * Makes the <a href="https://github.com/cloudfoundry/loggregator/tree/develop/src/trafficcontroller#endpoints">Firehose</a> request, returning lightweight views of the events rather than
+     * fully decoded {@link Envelope}s.  Each of the request's connections is exposed as a separate rail, whose events are delivered on that connection's event loop, so that rails can be
+     * processed in parallel.  Each view is reused for every event of its connection and is only valid until the subscriber returns from {@code onNext}, so rails must not be merged before
+     * views are consumed or materialized.  Views only save allocation for consumers that read the fields and payloads they need; a consumer that calls {@link EnvelopeView#toEnvelope()} for
+     * every event allocates as much as {@link #firehose(FirehoseRequest)}.
+     *
+     * @param request the Firehose request
+     * @return a rail of views of the events for each connection to the firehose
+     */
+    public Flux<Flux<EnvelopeView>> firehoseViews(FirehoseRequest request) {
+        return getDopplerEndpoints().firehoseViews(request);
+    }
+
     @Override
     public Flux<Envelope> recentLogs(RecentLogsRequest request) {
         return getDopplerEndpoints().recentLogs(request);
@@ -62,7 +89,8 @@ abstract class _ReactorDopplerClient implements DopplerClient {
 
     @Value.Derived
     ReactorDopplerEndpoints getDopplerEndpoints() {
-        return new ReactorDopplerEndpoints(getConnectionContext(), getRoot(), getTokenProvider());
+        return new ReactorDopplerEndpoints(getConnectionContext(), getRoot(), getTokenProvider(), getReconnectPolicy(), getReconnectMetrics(), getRingBufferPolicy(),
+            getRingBufferMetrics(), getJournal());
     }
 
     @Value.Default
@@ -70,11 +98,45 @@ abstract class _ReactorDopplerClient implements DopplerClient {
         return getConnectionContext().getHttpClient();
     }
 
+    /**
+     * The journal to write raw firehose frames to before they are decoded.  If not set, frames are not journaled.
+     */
+    @Nullable
+    abstract FirehoseJournal getJournal();
+
     @Value.Default
     ObjectMapper getObjectMapper() {
         return getConnectionContext().getObjectMapper();
     }
 
+    /**
+     * The metrics describing the connections of firehose and stream subscriptions
+     */
+    @Value.Derived
+    public ReconnectMetrics getReconnectMetrics() {
+        return new ReconnectMetrics();
+    }
+
+    /**
+     * The policy for reconnecting firehose and stream subscriptions when their connection is lost.  If not set, subscriptions complete or fail when their connection does.
+     */
+    @Nullable
+    abstract ReconnectPolicy getReconnectPolicy();
+
+    /**
+     * The metrics describing the ring buffers of firehose subscriptions
+     */
+    @Value.Derived
+    public RingBufferMetrics getRingBufferMetrics() {
+        return new RingBufferMetrics();
+    }
+
+    /**
+     * The policy for buffering firehose events off-heap between each connection and its consumer.  If not set, a slow consumer backpressures the connection.
+     */
+    @Nullable
+    abstract RingBufferPolicy getRingBufferPolicy();
+
     @Value.Default
     Mono<String> getRoot() {
         return getConnectionContext().getRoot("doppler_logging_endpoint");
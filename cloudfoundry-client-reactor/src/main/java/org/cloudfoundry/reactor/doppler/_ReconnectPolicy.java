@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+
+/**
+ * The policy for reconnecting firehose and stream subscriptions when their connection to Doppler is lost
+ */
+@Value.Immutable
+abstract class _ReconnectPolicy {
+
+    /**
+     * The proportion, between {@code 0} and {@code 1}, of each backoff delay that may be randomly subtracted from it.  Defaults to {@code 0.5}.
+     */
+    @Value.Default
+    public double getJitter() {
+        return 0.5;
+    }
+
+    /**
+     * The maximum delay between reconnection attempts.  Defaults to 30 seconds.
+     */
+    @Value.Default
+    public Duration getMaximumBackoff() {
+        return Duration.ofSeconds(30);
+    }
+
+    /**
+     * The minimum delay between reconnection attempts.  Defaults to 1 second.
+     */
+    @Value.Default
+    public Duration getMinimumBackoff() {
+        return Duration.ofSeconds(1);
+    }
+
+    /**
+     * The maximum time to attempt to reconnect for, after a connection is lost, before the subscription fails.  Defaults to 5 minutes.
+     */
+    @Value.Default
+    public Duration getTimeout() {
+        return Duration.ofMinutes(5);
+    }
+
+    @Value.Check
+    void check() {
+        if (getJitter() < 0 || getJitter() > 1) {
+            throw new IllegalStateException("Cannot build ReconnectPolicy, jitter must be between 0 and 1");
+        }
+    }
+
+}
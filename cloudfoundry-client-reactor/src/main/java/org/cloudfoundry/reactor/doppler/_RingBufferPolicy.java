@@ -0,0 +1,64 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import org.cloudfoundry.Nullable;
+import org.immutables.value.Value;
+
+import java.nio.file.Path;
+
+/**
+ * The policy for buffering firehose events off-heap between a connection and a slow consumer.  Events are read from the connection as fast as they arrive, so that Doppler does not disconnect
+ * the subscription as a slow consumer, and are held in a ring buffer until the consumer requests them.
+ */
+@Value.Immutable
+abstract class _RingBufferPolicy {
+
+    /**
+     * The capacity, in bytes, of the ring buffer for each connection.  Defaults to 64 MiB.
+     */
+    @Value.Default
+    public int getCapacity() {
+        return 64 * 1024 * 1024;
+    }
+
+    /**
+     * What to do with an event that arrives when the ring buffer is full.  Defaults to {@link OverflowPolicy#DROP_OLDEST}.
+     */
+    @Value.Default
+    public OverflowPolicy getOverflowPolicy() {
+        return OverflowPolicy.DROP_OLDEST;
+    }
+
+    /**
+     * The directory to write spilled events to.  Required if the overflow policy is {@link OverflowPolicy#SPILL}.
+     */
+    @Nullable
+    abstract Path getSpillDirectory();
+
+    @Value.Check
+    void check() {
+        if (getCapacity() < 1) {
+            throw new IllegalStateException("Cannot build RingBufferPolicy, capacity must be at least 1");
+        }
+
+        if (getOverflowPolicy() == OverflowPolicy.SPILL && getSpillDirectory() == null) {
+            throw new IllegalStateException("Cannot build RingBufferPolicy, required attribute spillDirectory is not set");
+        }
+    }
+
+}
@@ -35,21 +35,24 @@ import java.util.Base64;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration.
+ * An abstract base class for all token providers that interact with the UAA.  It encapsulates the logic to refresh the token before expiration, and to request a new token when the current one is
+ * rejected.  If the refresh token is rejected, a new token is requested with the provider's own grant instead.  Only a single token request is in flight for a {@link ConnectionContext} at a time; concurrent callers share its result.
  */
 public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     private static final Logger LOGGER = LoggerFactory.getLogger("cloudfoundry-client.token");
 
-    private static final Duration REFRESH_MARGIN = Duration.ofSeconds(10);
+    private final ConcurrentMap<ConnectionContext, String> accessTokens = new ConcurrentHashMap<>(1);
 
-    private final Object refreshTokenMonitor = new Object();
+    private final RefreshMetrics refreshMetrics = new RefreshMetrics();
 
-    private final ConcurrentMap<ConnectionContext, Mono<String>> tokens = new ConcurrentHashMap<>(1);
+    private final AtomicReference<String> refreshToken = new AtomicReference<>();
 
-    private volatile String refreshToken;
+    private final ConcurrentMap<ConnectionContext, Mono<String>> tokens = new ConcurrentHashMap<>(1);
 
     /**
      * The client id.  Defaults to {@code cf}.
@@ -67,13 +70,34 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return "";
     }
 
+    /**
+     * The maximum fraction of the refresh delay by which each refresh is brought forward at random, so that many clients do not refresh at the same time.  Defaults to {@code 0}.
+     */
+    @Value.Default
+    public double getRefreshJitter() {
+        return 0;
+    }
+
+    /**
+     * How long before the token expires that it is refreshed.  Defaults to 10 seconds.
+     */
+    @Value.Default
+    public Duration getRefreshMargin() {
+        return Duration.ofSeconds(10);
+    }
+
+    /**
+     * Returns the metrics describing the tokens requested from the UAA
+     */
+    public final RefreshMetrics getRefreshMetrics() {
+        return this.refreshMetrics;
+    }
+
     /**
      * Returns the current refresh token.  May be {@code null} if there is no valid refresh token.
      */
     public final String getRefreshToken() {
-        synchronized (this.refreshTokenMonitor) {
-            return this.refreshToken;
-        }
+        return this.refreshToken.get();
     }
 
     @Override
@@ -81,6 +105,25 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return this.tokens.computeIfAbsent(connectionContext, this::getTokenFlow);
     }
 
+    @Override
+    public final void invalidate(ConnectionContext connectionContext) {
+        LOGGER.debug("Invalidating JWT Token");
+        this.refreshMetrics.invalidated();
+        this.accessTokens.remove(connectionContext);
+        this.tokens.remove(connectionContext);
+    }
+
+    @Override
+    public final void invalidate(ConnectionContext connectionContext, String token) {
+        Mono<String> tokenFlow = this.tokens.get(connectionContext);
+
+        if (tokenFlow != null && this.accessTokens.remove(connectionContext, token)) {
+            LOGGER.debug("Invalidating rejected JWT Token");
+            this.refreshMetrics.invalidated();
+            this.tokens.remove(connectionContext, tokenFlow);
+        }
+    }
+
     /**
      * Return a {@link UriComponentsBuilder} that contains the configured access token uri
      *
@@ -89,8 +132,15 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
      */
     protected abstract UriComponentsBuilder getAccessTokenUri(UriComponentsBuilder builder);
 
-    private static Duration getRefreshDelay(Map<String, Integer> r) {
-        return Duration.ofSeconds(r.get("expires_in")).minus(REFRESH_MARGIN);
+    @Value.Check
+    void checkRefresh() {
+        if (getRefreshJitter() < 0 || getRefreshJitter() > 1) {
+            throw new IllegalStateException("Cannot build token provider, refreshJitter must be between 0 and 1");
+        }
+
+        if (getRefreshMargin().isNegative()) {
+            throw new IllegalStateException("Cannot build token provider, refreshMargin must not be negative");
+        }
     }
 
     private String getAuthorizationValue() {
@@ -98,6 +148,13 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
         return String.format("Basic %s", encoded);
     }
 
+    private Duration getRefreshDelay(Map<String, Integer> r) {
+        long delay = Duration.ofSeconds(r.get("expires_in")).minus(getRefreshMargin()).toMillis();
+        long jitter = (long) (delay * getRefreshJitter() * ThreadLocalRandom.current().nextDouble());
+
+        return Duration.ofMillis(Math.max(0, delay - jitter));
+    }
+
     private UriComponentsBuilder getRefreshTokenUri(UriComponentsBuilder builder, String refreshToken) {
         return builder
             .queryParam("grant_type", "refresh_token")
@@ -108,45 +165,72 @@ public abstract class AbstractUaaTokenProvider implements TokenProvider {
 
     @SuppressWarnings("unchecked")
     private Mono<String> getTokenFlow(ConnectionContext connectionContext) {
-        return connectionContext
-            .getRoot("authorization_endpoint")
-            .map(this::getTokenUri)
-            .then(uri -> connectionContext.getHttpClient()
-                .post(uri, outbound -> outbound
-                    .addHeader("Content-Length", "0")
-                    .addHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED)
-                    .addHeader(HttpHeaderNames.AUTHORIZATION, getAuthorizationValue())
-                    .removeTransferEncodingChunked()
-                    .sendHeaders())
-                .doOnSubscribe(NetworkLogging.post(uri))
-                .compose(NetworkLogging.response(uri)))
-            .then(i -> i.receive().aggregate().toInputStream())
-            .map(JsonCodec.decode(connectionContext.getObjectMapper(), Map.class))
-            .doOnNext(r -> {
-                synchronized (this.refreshTokenMonitor) {
-                    this.refreshToken = (String) r.get("refresh_token");
+        AtomicReference<Mono<String>> tokenFlow = new AtomicReference<>();
+
+        Mono<String> token = Mono
+            .defer(() -> {
+                String refreshToken = this.refreshToken.get();
+
+                if (refreshToken == null) {
+                    return requestToken(connectionContext, null);
                 }
+
+                return requestToken(connectionContext, refreshToken)
+                    .otherwise(t -> {
+                        LOGGER.debug("Refresh token rejected, requesting a new token");
+                        return requestToken(connectionContext, null);
+                    });
             })
+            .doOnNext(r -> this.refreshToken.set((String) r.get("refresh_token")))
             .flatMap(r -> Flux.merge(
                 Mono.just(r.get("access_token")),
                 Mono.delay(getRefreshDelay(r)).then()
             ))
-            .repeat()
+            .repeat(() -> this.tokens.get(connectionContext) == tokenFlow.get())
             .cast(String.class)
-            .doOnNext(token -> LOGGER.debug("JWT Token: {}", token))
+            .doOnNext(t -> {
+                this.accessTokens.put(connectionContext, t);
+                LOGGER.debug("JWT Token: {}", t);
+            })
+            .doOnError(t -> this.tokens.remove(connectionContext, tokenFlow.get()))
             .cache(1)
             .next();
+
+        tokenFlow.set(token);
+        return token;
     }
 
-    private String getTokenUri(String root) {
+    private String getTokenUri(String root, String refreshToken) {
         UriComponentsBuilder builder = UriComponentsBuilder.fromUriString(root)
             .pathSegment("oauth", "token");
 
-        synchronized (this.refreshTokenMonitor) {
-            builder = this.refreshToken == null ? getAccessTokenUri(builder) : getRefreshTokenUri(builder, this.refreshToken);
-        }
+        builder = refreshToken == null ? getAccessTokenUri(builder) : getRefreshTokenUri(builder, refreshToken);
 
         return builder.build().encode().toUriString();
     }
 
+    private Mono<Map> requestToken(ConnectionContext connectionContext, String refreshToken) {
+        long start = System.nanoTime();
+
+        return connectionContext
+            .getRoot("authorization_endpoint")
+            .map(root -> getTokenUri(root, refreshToken))
+            .then(uri -> connectionContext.getHttpClient()
+                .post(uri, outbound -> outbound
+                    .addHeader("Content-Length", "0")
+                    .addHeader(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_X_WWW_FORM_URLENCODED)
+                    .addHeader(HttpHeaderNames.AUTHORIZATION, getAuthorizationValue())
+                    .removeTransferEncodingChunked()
+                    .sendHeaders())
+                .doOnSubscribe(NetworkLogging.post(uri))
+                .compose(NetworkLogging.response(uri)))
+            .then(i -> i.receive().aggregate().toInputStream())
+            .map(JsonCodec.decode(connectionContext.getObjectMapper(), Map.class))
+            .doOnError(t -> {
+                this.refreshMetrics.failed();
+                this.refreshToken.set(null);
+            })
+            .doOnSuccess(r -> this.refreshMetrics.refreshed(Duration.ofNanos(System.nanoTime() - start)));
+    }
+
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counters and timers describing the tokens requested from the UAA by an {@link AbstractUaaTokenProvider}
+ */
+public final class RefreshMetrics {
+
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private final AtomicLong invalidationCount = new AtomicLong();
+
+    private final AtomicLong maximumTime = new AtomicLong();
+
+    private final AtomicLong refreshCount = new AtomicLong();
+
+    private final AtomicLong totalTime = new AtomicLong();
+
+    RefreshMetrics() {
+    }
+
+    /**
+     * Returns the number of token requests that failed
+     *
+     * @return the number of failed token requests
+     */
+    public long getFailureCount() {
+        return this.failureCount.get();
+    }
+
+    /**
+     * Returns the number of times that a token has been invalidated because it was rejected by a server
+     *
+     * @return the number of invalidations
+     */
+    public long getInvalidationCount() {
+        return this.invalidationCount.get();
+    }
+
+    /**
+     * Returns the longest time taken by a successful token request
+     *
+     * @return the maximum refresh time
+     */
+    public Duration getMaximumTime() {
+        return Duration.ofNanos(this.maximumTime.get());
+    }
+
+    /**
+     * Returns the mean time taken by a successful token request
+     *
+     * @return the mean refresh time
+     */
+    public Duration getMeanTime() {
+        long count = this.refreshCount.get();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(this.totalTime.get() / count);
+    }
+
+    /**
+     * Returns the number of successful token requests, including the first
+     *
+     * @return the number of refreshes
+     */
+    public long getRefreshCount() {
+        return this.refreshCount.get();
+    }
+
+    /**
+     * Returns the total time taken by successful token requests
+     *
+     * @return the total refresh time
+     */
+    public Duration getTotalTime() {
+        return Duration.ofNanos(this.totalTime.get());
+    }
+
+    void failed() {
+        this.failureCount.incrementAndGet();
+    }
+
+    void invalidated() {
+        this.invalidationCount.incrementAndGet();
+    }
+
+    void refreshed(Duration time) {
+        this.refreshCount.incrementAndGet();
+        this.maximumTime.accumulateAndGet(time.toNanos(), Math::max);
+        this.totalTime.addAndGet(time.toNanos());
+    }
+
+}
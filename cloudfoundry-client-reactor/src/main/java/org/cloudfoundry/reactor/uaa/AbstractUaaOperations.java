@@ -21,6 +21,7 @@ import org.cloudfoundry.reactor.TokenProvider;
 import org.cloudfoundry.reactor.client.QueryBuilder;
 import org.cloudfoundry.reactor.util.AbstractReactorOperations;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 import reactor.ipc.netty.http.HttpClientResponse;
@@ -79,6 +80,11 @@ public abstract class AbstractUaaOperations extends AbstractReactorOperations {
         });
     }
 
+    protected final <T> Flux<T> getPaginated(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
+        return doGetPaginated(getUriAugmenter(request, uriTransformer), getRequestTransformer(request))
+            .flatMap(paginatedResponse(responseType));
+    }
+
     protected final <T> Mono<T> post(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                      Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
 
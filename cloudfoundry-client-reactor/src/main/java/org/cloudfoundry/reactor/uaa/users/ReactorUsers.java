@@ -38,6 +38,7 @@ import org.cloudfoundry.uaa.users.UpdateUserResponse;
 import org.cloudfoundry.uaa.users.Users;
 import org.cloudfoundry.uaa.users.VerifyUserRequest;
 import org.cloudfoundry.uaa.users.VerifyUserResponse;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -86,6 +87,11 @@ public final class ReactorUsers extends AbstractUaaOperations implements Users {
         return get(request, ListUsersResponse.class, builder -> builder.pathSegment("Users"));
     }
 
+    @Override
+    public Flux<ListUsersResponse> listStreaming(ListUsersRequest request) {
+        return getPaginated(request, ListUsersResponse.class, builder -> builder.pathSegment("Users"));
+    }
+
     @Override
     public Mono<LookupUserIdsResponse> lookup(LookupUserIdsRequest request) {
         return get(request, LookupUserIdsResponse.class, builder -> builder.pathSegment("ids", "Users"));
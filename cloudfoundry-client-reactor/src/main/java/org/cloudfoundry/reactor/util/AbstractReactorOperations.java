@@ -19,14 +19,21 @@ package org.cloudfoundry.reactor.util;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.util.AsciiString;
+import org.cloudfoundry.reactor.CachedResponse;
 import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.RequestInstrumentation;
+import org.cloudfoundry.reactor.ResponseCache;
 import org.cloudfoundry.reactor.TokenProvider;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
 import reactor.ipc.netty.http.HttpOutbound;
 
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 public abstract class AbstractReactorOperations {
@@ -41,6 +48,20 @@ public abstract class AbstractReactorOperations {
 
     protected static final AsciiString CONTENT_TYPE = new AsciiString("Content-Type");
 
+    private static final AsciiString ACCEPT_ENCODING = new AsciiString("Accept-Encoding");
+
+    private static final AsciiString CONTENT_ENCODING = new AsciiString("Content-Encoding");
+
+    private static final AsciiString ETAG = new AsciiString("ETag");
+
+    private static final AsciiString GZIP_DEFLATE = new AsciiString("gzip, deflate");
+
+    private static final AsciiString IF_NONE_MATCH = new AsciiString("If-None-Match");
+
+    private static final int NOT_MODIFIED = 304;
+
+    private static final int UNAUTHORIZED = 401;
+
     private final ConnectionContext connectionContext;
 
     private final Mono<String> root;
@@ -55,105 +76,159 @@ public abstract class AbstractReactorOperations {
 
     protected final <T> Mono<T> doDelete(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                          Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return this.root
+        return exchange("DELETE", true, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
-                .delete(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+                .delete(uri, outbound -> addAuthorization(outbound, exchange)
+                    .map(this::addAcceptEncoding)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.delete(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, false))
+                .doOnSuccess(inbound -> invalidate(uri)))
+            .compose(deserializedResponse(responseType, exchange)));
     }
 
     protected final <T> Mono<T> doGet(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return doGet(uriTransformer, requestTransformer)
-            .compose(deserializedResponse(responseType));
+        return exchange("GET", true, exchange -> this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> get(uri, requestTransformer, exchange, true, false))
+            .compose(deserializedResponse(responseType, exchange)));
     }
 
     protected final Mono<HttpClientResponse> doGet(Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return this.root
+        return exchange("GET", true, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
-                    .map(requestTransformer)
-                    .then(HttpClientRequest::sendHeaders))
-                .doOnSubscribe(NetworkLogging.get(uri))
-                .compose(NetworkLogging.response(uri)));
+            .then(uri -> get(uri, requestTransformer, exchange, false, true)));
+    }
+
+    protected final <T> Mono<T> doGetCached(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
+                                            Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
+
+        Optional<ResponseCache> responseCache = this.connectionContext.getResponseCache();
+        if (!responseCache.isPresent()) {
+            return doGet(responseType, uriTransformer, requestTransformer);
+        }
+
+        return exchange("GET", true, exchange -> this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> {
+                Optional<CachedResponse> cachedResponse = responseCache.get().get(this.tokenProvider, uri)
+                    .filter(r -> responseType.isInstance(r.getResponse()));
+
+                if (cachedResponse.filter(r -> !r.isExpired()).isPresent()) {
+                    return Mono.just(responseType.cast(cachedResponse.get().getResponse()))
+                        .doOnSubscribe(NetworkLogging.cached(uri));
+                }
+
+                return get(uri, outbound -> {
+                    cachedResponse
+                        .flatMap(CachedResponse::getEntityTag)
+                        .ifPresent(entityTag -> outbound.addHeader(IF_NONE_MATCH, entityTag));
+
+                    return requestTransformer.apply(outbound);
+                }, exchange, true, false)
+                    .then(inbound -> {
+                        String entityTag = inbound.responseHeaders().get(ETAG);
+
+                        if (NOT_MODIFIED == inbound.status().code() && cachedResponse.isPresent()) {
+                            Object response = cachedResponse.get().getResponse();
+                            responseCache.get().put(this.tokenProvider, uri, response, entityTag != null ? entityTag : cachedResponse.get().getEntityTag().orElse(null));
+                            return Mono.just(responseType.cast(response));
+                        }
+
+                        return Mono.just(inbound)
+                            .compose(deserializedResponse(responseType, exchange))
+                            .doOnSuccess(response -> responseCache.get().put(this.tokenProvider, uri, response, entityTag));
+                    });
+            }));
+    }
+
+    /**
+     * Makes a {@code GET} request for a page of resources, asking for a compressed response if compression is enabled.  The body of the response must be decoded with
+     * {@link #paginatedResponse(Class)}, which decompresses it.
+     */
+    protected final Mono<HttpClientResponse> doGetPaginated(Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
+        return exchange("GET", true, exchange -> this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> get(uri, requestTransformer, exchange, true, true)));
     }
 
     protected final <T> Mono<T> doPatch(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                         Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return this.root
+        return exchange("PATCH", true, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
-                .patch(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+                .patch(uri, outbound -> addAuthorization(outbound, exchange)
+                    .map(this::addAcceptEncoding)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.patch(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, false))
+                .doOnSuccess(inbound -> invalidate(uri)))
+            .compose(deserializedResponse(responseType, exchange)));
     }
 
     protected final <T> Mono<T> doPost(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                        Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
 
-        return doPost(responseType, uriTransformer, outbound -> requestTransformer.apply(outbound)
-            .send(serializedRequest(outbound, request)));
+        return post(responseType, uriTransformer, outbound -> requestTransformer.apply(outbound)
+            .send(serializedRequest(outbound, request)), true);
     }
 
     protected final <T> Mono<T> doPost(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, Mono<Void>> requestTransformer) {
-        return this.root
-            .map(root -> buildUri(root, uriTransformer))
-            .then(uri -> this.connectionContext.getHttpClient()
-                .post(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
-                    .then(requestTransformer))
-                .doOnSubscribe(NetworkLogging.post(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+        return post(responseType, uriTransformer, requestTransformer, false);
     }
 
     protected final <T> Mono<T> doPut(Object request, Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer,
                                       Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return this.root
+        return exchange("PUT", true, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
-                .put(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+                .put(uri, outbound -> addAuthorization(outbound, exchange)
+                    .map(this::addAcceptEncoding)
                     .map(requestTransformer)
                     .then(o -> o.send(serializedRequest(o, request))))
                 .doOnSubscribe(NetworkLogging.put(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, false))
+                .doOnSuccess(inbound -> invalidate(uri)))
+            .compose(deserializedResponse(responseType, exchange)));
     }
 
     protected final <T> Mono<T> doPut(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, Mono<Void>> requestTransformer) {
-        return this.root
+        return exchange("PUT", false, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
-                .put(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+                .put(uri, outbound -> addAuthorization(outbound, exchange)
+                    .map(this::addAcceptEncoding)
                     .then(requestTransformer))
                 .doOnSubscribe(NetworkLogging.put(uri))
-                .compose(NetworkLogging.response(uri)))
-            .compose(deserializedResponse(responseType));
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, false))
+                .doOnSuccess(inbound -> invalidate(uri)))
+            .compose(deserializedResponse(responseType, exchange)));
     }
 
     protected final Mono<HttpClientResponse> doWs(Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, HttpClientRequest> requestTransformer) {
-        return this.root
+        return exchange("WS", true, exchange -> this.root
             .map(root -> buildUri(root, uriTransformer))
             .then(uri -> this.connectionContext.getHttpClient()
-                .get(uri, outbound -> addAuthorization(outbound, this.connectionContext, this.tokenProvider)
+                .get(uri, outbound -> addAuthorization(outbound, exchange)
                     .map(requestTransformer)
                     .then(HttpClientRequest::upgradeToTextWebsocket))
                 .doOnSubscribe(NetworkLogging.ws(uri))
-                .compose(NetworkLogging.response(uri)));
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, true))));
     }
 
-    private static <T extends HttpOutbound> Mono<T> addAuthorization(T outbound, ConnectionContext connectionContext, TokenProvider tokenProvider) {
-        return tokenProvider.getToken(connectionContext)
-            .map(token -> {
-                outbound.addHeader("Authorization", String.format("bearer %s", token));
-                return outbound;
-            });
+    protected final <T> Function<HttpClientResponse, Flux<T>> paginatedResponse(Class<T> responseType) {
+        return inbound -> JsonCodec.decodePaginated(this.connectionContext.getObjectMapper(), responseType, NetworkLogging.RESPONSE_LOGGER.isDebugEnabled())
+            .apply(inbound.receive()
+                .compose(ContentEncoding.decode(inbound.responseHeaders().get(CONTENT_ENCODING))))
+            .doOnError(JsonParsingException.class, e -> NetworkLogging.RESPONSE_LOGGER.debug("\n{}", e.getPayload()));
     }
 
     private static String buildUri(String root, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer) {
@@ -162,13 +237,96 @@ public abstract class AbstractReactorOperations {
             .build().encode().toUriString();
     }
 
-    private <T> Function<Mono<HttpClientResponse>, Mono<T>> deserializedResponse(Class<T> responseType) {
+    private static String getHost(String root) {
+        return UriComponentsBuilder.fromUriString(root).build().getHost();
+    }
+
+    private HttpClientRequest addAcceptEncoding(HttpClientRequest outbound) {
+        if (this.connectionContext.isCompressionEnabled()) {
+            outbound.header(ACCEPT_ENCODING, GZIP_DEFLATE);
+        }
+
+        return outbound;
+    }
+
+    private <T extends HttpOutbound> Mono<T> addAuthorization(T outbound, Exchange exchange) {
+        return this.tokenProvider.getToken(this.connectionContext)
+            .map(token -> {
+                outbound.addHeader("Authorization", exchange.authorize(token));
+                return outbound;
+            });
+    }
+
+    private <T> Function<Mono<HttpClientResponse>, Mono<T>> deserializedResponse(Class<T> responseType, Exchange exchange) {
         return inbound -> inbound
-            .then(i -> i.receive().aggregate().toInputStream())
-            .map(JsonCodec.decode(this.connectionContext.getObjectMapper(), responseType))
+            .then(i -> JsonCodec.decodeStreaming(this.connectionContext.getObjectMapper(), responseType, NetworkLogging.RESPONSE_LOGGER.isDebugEnabled())
+                .apply(exchange.body(i.receive())
+                    .compose(ContentEncoding.decode(i.responseHeaders().get(CONTENT_ENCODING)))
+                    .compose(exchange::decoded)))
             .doOnError(JsonParsingException.class, e -> NetworkLogging.RESPONSE_LOGGER.debug("\n{}", e.getPayload()));
     }
 
+    /**
+     * Makes an exchange, retrying it once with a new token if the token it was authorized with is rejected.  Only exchanges whose request body can be sent again (i.e. has no body, or a
+     * serialized body) are {@code replayable}; others fail with the rejection.
+     */
+    private <T> Mono<T> exchange(String method, boolean replayable, Function<Exchange, Mono<T>> exchange) {
+        RequestInstrumentation instrumentation = this.connectionContext.getRequestInstrumentation().orElse(null);
+        AtomicInteger attempts = new AtomicInteger();
+
+        return exchange(instrumentation, method, exchange, attempts, replayable);
+    }
+
+    private <T> Mono<T> exchange(RequestInstrumentation instrumentation, String method, Function<Exchange, Mono<T>> exchange, AtomicInteger attempts, boolean reauthorize) {
+        return Mono.defer(() -> {
+            Exchange attempt = new Exchange(instrumentation, method, attempts.getAndIncrement());
+            Mono<T> response = exchange.apply(attempt);
+
+            return attempt.complete(this.connectionContext.getConnectionLimiter()
+                .map(connectionLimiter -> this.root
+                    .then(root -> connectionLimiter.acquire(getHost(root), response)))
+                .orElse(response))
+                .otherwise(HttpException.class, e -> {
+                    if (!reauthorize || UNAUTHORIZED != e.getResponseStatus().code() || attempt.getToken() == null) {
+                        return Mono.error(e);
+                    }
+
+                    this.tokenProvider.invalidate(this.connectionContext, attempt.getToken());
+                    return exchange(instrumentation, method, exchange, attempts, false);
+                });
+        });
+    }
+
+    private Mono<HttpClientResponse> get(String uri, Function<HttpClientRequest, HttpClientRequest> requestTransformer, Exchange exchange, boolean encoded, boolean terminal) {
+        return this.connectionContext.getHttpClient()
+            .get(uri, outbound -> addAuthorization(outbound, exchange)
+                .map(o -> encoded ? addAcceptEncoding(o) : o)
+                .map(requestTransformer)
+                .then(HttpClientRequest::sendHeaders))
+            .doOnSubscribe(NetworkLogging.get(uri))
+            .compose(NetworkLogging.response(uri))
+            .compose(exchange.response(uri, terminal));
+    }
+
+    private void invalidate(String uri) {
+        this.connectionContext.getResponseCache().ifPresent(responseCache -> responseCache.invalidate(uri));
+    }
+
+    private <T> Mono<T> post(Class<T> responseType, Function<UriComponentsBuilder, UriComponentsBuilder> uriTransformer, Function<HttpClientRequest, Mono<Void>> requestTransformer,
+                             boolean replayable) {
+        return exchange("POST", replayable, exchange -> this.root
+            .map(root -> buildUri(root, uriTransformer))
+            .then(uri -> this.connectionContext.getHttpClient()
+                .post(uri, outbound -> addAuthorization(outbound, exchange)
+                    .map(this::addAcceptEncoding)
+                    .then(requestTransformer))
+                .doOnSubscribe(NetworkLogging.post(uri))
+                .compose(NetworkLogging.response(uri))
+                .compose(exchange.response(uri, false))
+                .doOnSuccess(inbound -> invalidate(uri)))
+            .compose(deserializedResponse(responseType, exchange)));
+    }
+
     private Mono<ByteBuf> serializedRequest(HttpClientRequest outbound, Object request) {
         return Mono.just(request)
             .filter(req -> this.connectionContext.getObjectMapper().canSerialize(req.getClass()))
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.compression.DecompressionException;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Utilities for compressed response bodies
+ */
+public final class ContentEncoding {
+
+    private ContentEncoding() {
+    }
+
+    /**
+     * Decompresses a stream of {@link ByteBuf}s as they arrive, according to the {@code Content-Encoding} of the response.  Each chunk is inflated and emitted immediately, so the complete
+     * compressed payload is never held in memory.  The inflated chunks are unpooled heap buffers that are emitted without copying, and the inflater is released when the stream completes, fails, or
+     * is cancelled.  Payloads with no, or an unrecognized, {@code Content-Encoding} are passed through untouched.
+     *
+     * @param contentEncoding the {@code Content-Encoding} of the response
+     * @return a function from a {@link Flux} of compressed {@link ByteBuf}s to the decompressed {@link ByteBuf}s
+     */
+    public static Function<Flux<ByteBuf>, Flux<ByteBuf>> decode(String contentEncoding) {
+        ZlibWrapper wrapper = getWrapper(contentEncoding);
+
+        if (wrapper == null) {
+            return source -> source;
+        }
+
+        return source -> Flux
+            .using(() -> createChannel(wrapper), channel -> source
+                .flatMapIterable(chunk -> {
+                    channel.writeInbound(chunk.retain());
+                    return drain(channel);
+                })
+                .concatWith(Flux.defer(() -> {
+                    channel.finish();
+                    return Flux.fromIterable(drain(channel));
+                })), ContentEncoding::release);
+    }
+
+    private static EmbeddedChannel createChannel(ZlibWrapper wrapper) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.config().setAllocator(UnpooledByteBufAllocator.DEFAULT);
+        channel.pipeline().addLast(ZlibCodecFactory.newZlibDecoder(wrapper));
+
+        return channel;
+    }
+
+    private static List<ByteBuf> drain(EmbeddedChannel channel) {
+        List<ByteBuf> chunks = new ArrayList<>();
+
+        ByteBuf chunk;
+        while ((chunk = channel.readInbound()) != null) {
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    private static ZlibWrapper getWrapper(String contentEncoding) {
+        if (contentEncoding == null) {
+            return null;
+        }
+
+        switch (contentEncoding.trim().toLowerCase()) {
+            case "gzip":
+            case "x-gzip":
+                return ZlibWrapper.GZIP;
+            case "deflate":
+            case "x-deflate":
+                return ZlibWrapper.ZLIB_OR_NONE;
+            default:
+                return null;
+        }
+    }
+
+    private static void release(EmbeddedChannel channel) {
+        try {
+            channel.finishAndReleaseAll();
+        } catch (DecompressionException e) {
+            // a truncated payload has already been signalled downstream; the buffers are released regardless
+        }
+    }
+
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import org.cloudfoundry.reactor.RequestEvent;
+import org.cloudfoundry.reactor.RequestInstrumentation;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The token and timings of a single request attempt.  The timings are reported to a {@link RequestInstrumentation} when the attempt completes.  Without an instrumentation, every stage passes its
+ * signals through untouched.
+ */
+final class Exchange {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[0-9]+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final RequestInstrumentation instrumentation;
+
+    private final String method;
+
+    private final int retries;
+
+    private long decodeTime;
+
+    private long decodedPayloadSize;
+
+    private long firstByte;
+
+    private long lastByte;
+
+    private long payloadSize;
+
+    private boolean recorded;
+
+    private long start;
+
+    private Integer statusCode;
+
+    private String token;
+
+    private String uri;
+
+    Exchange(RequestInstrumentation instrumentation, String method, int retries) {
+        this.instrumentation = instrumentation;
+        this.method = method;
+        this.retries = retries;
+    }
+
+    /**
+     * Records the token that the attempt is authorized with, so that it can be invalidated if it is rejected
+     *
+     * @param token the token
+     * @return the value of the {@code Authorization} header
+     */
+    String authorize(String token) {
+        this.token = token;
+        return String.format("bearer %s", token);
+    }
+
+    /**
+     * Times the delivery of a response body, and the time spent decoding it by the subscriber.  Decoding that happens after the last byte is received is counted when the attempt is reported.
+     */
+    Flux<ByteBuf> body(Flux<ByteBuf> body) {
+        if (this.instrumentation == null) {
+            return body;
+        }
+
+        return Flux.from(subscriber -> body.subscribe(new BodySubscriber(subscriber)));
+    }
+
+    /**
+     * Reports the attempt once the final result is available
+     */
+    <T> Mono<T> complete(Mono<T> result) {
+        if (this.instrumentation == null) {
+            return result;
+        }
+
+        return result
+            .doOnSuccess(r -> record(null))
+            .doOnError(this::record);
+    }
+
+    /**
+     * Counts the bytes of a response body once it has been decompressed
+     */
+    Flux<ByteBuf> decoded(Flux<ByteBuf> body) {
+        if (this.instrumentation == null) {
+            return body;
+        }
+
+        return body
+            .doOnNext(byteBuf -> this.decodedPayloadSize += byteBuf.readableBytes());
+    }
+
+    /**
+     * The token that the attempt was authorized with, or {@code null} if it has not been authorized
+     */
+    String getToken() {
+        return this.token;
+    }
+
+    /**
+     * Times the arrival of the response headers.  If {@code terminal}, the attempt is reported as soon as they arrive, because the body is consumed elsewhere.
+     */
+    Function<Mono<HttpClientResponse>, Mono<HttpClientResponse>> response(String uri, boolean terminal) {
+        if (this.instrumentation == null) {
+            return inbound -> inbound;
+        }
+
+        return inbound -> inbound
+            .doOnSubscribe(s -> {
+                this.start = System.nanoTime();
+                this.uri = uri;
+            })
+            .doOnSuccess(i -> {
+                this.firstByte = System.nanoTime();
+                this.statusCode = i.status().code();
+
+                if (terminal) {
+                    record(null);
+                }
+            })
+            .doOnError(t -> {
+                if (t instanceof HttpException) {
+                    this.firstByte = System.nanoTime();
+                    this.statusCode = ((HttpException) t).getResponseStatus().code();
+                }
+
+                if (terminal) {
+                    record(t);
+                }
+            });
+    }
+
+    private static String getUriTemplate(String uri) {
+        return UriComponentsBuilder.fromUriString(uri).build().getPathSegments().stream()
+            .map(segment -> IDENTIFIER.matcher(segment).matches() ? "{id}" : segment)
+            .collect(Collectors.joining("/", "/", ""));
+    }
+
+    private static Duration interval(long start, long end) {
+        return start == 0 || end == 0 ? null : Duration.ofNanos(end - start);
+    }
+
+    private void record(Throwable error) {
+        if (this.recorded || this.uri == null) {
+            return;
+        }
+
+        this.recorded = true;
+        long now = System.nanoTime();
+
+        this.instrumentation.record(RequestEvent.builder()
+            .bodyTransfer(interval(this.firstByte, this.lastByte))
+            .decode(this.lastByte == 0 ? null : Duration.ofNanos(this.decodeTime + now - this.lastByte))
+            .decodedPayloadSize(this.decodedPayloadSize)
+            .error(error)
+            .method(this.method)
+            .payloadSize(this.payloadSize)
+            .retries(this.retries)
+            .statusCode(this.statusCode)
+            .timeToFirstByte(interval(this.start, this.firstByte))
+            .uriTemplate(getUriTemplate(this.uri))
+            .build());
+    }
+
+    private final class BodySubscriber implements Subscriber<ByteBuf>, Subscription {
+
+        private final Subscriber<? super ByteBuf> actual;
+
+        private Subscription subscription;
+
+        private BodySubscriber(Subscriber<? super ByteBuf> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void cancel() {
+            this.subscription.cancel();
+        }
+
+        @Override
+        public void onComplete() {
+            Exchange.this.lastByte = System.nanoTime();
+            this.actual.onComplete();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            Exchange.this.lastByte = System.nanoTime();
+            this.actual.onError(t);
+        }
+
+        @Override
+        public void onNext(ByteBuf byteBuf) {
+            Exchange.this.payloadSize += byteBuf.readableBytes();
+
+            long now = System.nanoTime();
+            this.actual.onNext(byteBuf);
+            Exchange.this.decodeTime += System.nanoTime() - now;
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+            this.actual.onSubscribe(this);
+        }
+
+        @Override
+        public void request(long n) {
+            this.subscription.request(n);
+        }
+
+    }
+
+}
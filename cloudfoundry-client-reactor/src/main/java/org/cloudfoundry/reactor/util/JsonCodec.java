@@ -16,16 +16,27 @@
 
 package org.cloudfoundry.reactor.util;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.util.AsciiString;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Function;
 
 public final class JsonCodec {
@@ -44,6 +55,45 @@ public final class JsonCodec {
         };
     }
 
+    /**
+     * Decodes a stream of {@link ByteBuf}s as they arrive, using Jackson's non-blocking parser.  Each chunk is parsed into tokens as it is received, so the raw payload is never aggregated into a
+     * single buffer (unless it is retained for error reporting).  The parsed tokens are, however, held in a {@link TokenBuffer} until the end of the stream and only then bound to the {@code type},
+     * so memory use remains proportional to the size of the payload.  Use {@link #decodePaginated(ObjectMapper, Class, boolean)} to emit the resources of large paginated responses as they are parsed.
+     *
+     * @param objectMapper  the {@link ObjectMapper} to bind the parsed tokens with
+     * @param type          the type to decode
+     * @param retainPayload whether to retain a copy of the raw payload for inclusion in a {@link JsonParsingException}
+     * @param <T>           the type to decode
+     * @return a function from a {@link Flux} of {@link ByteBuf}s to the decoded value, or an empty {@link Mono} if the payload is empty
+     */
+    public static <T> Function<Flux<ByteBuf>, Mono<T>> decodeStreaming(ObjectMapper objectMapper, Class<T> type, boolean retainPayload) {
+        return source -> source
+            .collect(() -> new ValueDecoder(objectMapper, retainPayload), ValueDecoder::feed)
+            .then(decoder -> decoder.complete(type));
+    }
+
+    /**
+     * Decodes a stream of {@link ByteBuf}s containing a paginated response, emitting each element of the {@code resources} array as soon as it has been parsed.  Each emitted value is a slice of
+     * the page: an instance of the response type containing the page metadata that preceded the {@code resources} array and a single resource.  If no metadata precedes the {@code resources}
+     * array, the resources are buffered and a single slice is emitted once the page has been completely received.  A page without resources is emitted as a single slice with no resources, and a page
+     * whose {@code resources} is not an array (e.g. {@code null}) is emitted as a single slice with that value.
+     *
+     * @param objectMapper  the {@link ObjectMapper} to bind the parsed tokens with
+     * @param type          the paginated response type to decode
+     * @param retainPayload whether to retain a copy of the raw payload for inclusion in a {@link JsonParsingException}
+     * @param <T>           the paginated response type to decode
+     * @return a function from a {@link Flux} of {@link ByteBuf}s to the slices of the page
+     */
+    public static <T> Function<Flux<ByteBuf>, Flux<T>> decodePaginated(ObjectMapper objectMapper, Class<T> type, boolean retainPayload) {
+        return source -> Flux.defer(() -> {
+            PaginatedDecoder<T> decoder = new PaginatedDecoder<>(objectMapper, type, retainPayload);
+
+            return source
+                .flatMapIterable(decoder::feedAndDrain)
+                .concatWith(Flux.defer(() -> Flux.fromIterable(decoder.complete())));
+        });
+    }
+
     static <T> Function<T, ByteBuf> encode(ObjectMapper objectMapper, HttpClientRequest request) {
         request.header(CONTENT_TYPE, APPLICATION_JSON);
         return source -> encode(request.delegate().alloc(), objectMapper, source);
@@ -57,4 +107,259 @@ public final class JsonCodec {
         }
     }
 
+    private abstract static class AbstractStreamingDecoder {
+
+        private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+        final ObjectMapper objectMapper;
+
+        final JsonParser parser;
+
+        private final ByteArrayOutputStream payload;
+
+        private long received = 0;
+
+        private byte[] scratch = new byte[0];
+
+        private AbstractStreamingDecoder(ObjectMapper objectMapper, boolean retainPayload) {
+            this.objectMapper = objectMapper;
+            this.payload = retainPayload ? new ByteArrayOutputStream() : null;
+
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+            } catch (IOException e) {
+                throw Exceptions.propagate(e);
+            }
+        }
+
+        final void endOfInput() {
+            try {
+                ((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).endOfInput();
+                drain();
+            } catch (IOException e) {
+                throw parsingException(e);
+            }
+        }
+
+        /**
+         * Parses a chunk of the payload.  The parser consumes all of its input before {@link #drain()} returns, so a heap buffer's backing array is fed directly, and the contents of a direct buffer
+         * are copied into a scratch array that is reused for every chunk.
+         */
+        final void feed(ByteBuf byteBuf) {
+            int length = byteBuf.readableBytes();
+            byte[] chunk;
+            int offset;
+
+            if (byteBuf.hasArray()) {
+                chunk = byteBuf.array();
+                offset = byteBuf.arrayOffset() + byteBuf.readerIndex();
+            } else {
+                if (this.scratch.length < length) {
+                    this.scratch = new byte[length];
+                }
+
+                chunk = this.scratch;
+                offset = 0;
+                byteBuf.getBytes(byteBuf.readerIndex(), chunk, 0, length);
+            }
+
+            byteBuf.skipBytes(length);
+            this.received += length;
+
+            if (this.payload != null) {
+                this.payload.write(chunk, offset, length);
+            }
+
+            try {
+                ((ByteArrayFeeder) this.parser.getNonBlockingInputFeeder()).feedInput(chunk, offset, offset + length);
+                drain();
+            } catch (IOException e) {
+                throw parsingException(e);
+            }
+        }
+
+        final boolean isEmpty() {
+            return this.received == 0;
+        }
+
+        abstract void onToken(JsonToken token) throws IOException;
+
+        final JsonParsingException parsingException(IOException cause) {
+            return new JsonParsingException("Unable to parse JSON Payload", cause, this.payload != null ? new String(this.payload.toByteArray(), UTF_8) : "<payload not retained>");
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = this.parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                onToken(token);
+            }
+        }
+
+    }
+
+    private static final class PaginatedDecoder<T> extends AbstractStreamingDecoder {
+
+        private static final String RESOURCES = "resources";
+
+        private final List<TokenBuffer> pending = new ArrayList<>();
+
+        private final List<T> ready = new ArrayList<>();
+
+        private final Class<T> type;
+
+        private int depth = 0;
+
+        private TokenBuffer element;
+
+        private final TokenBuffer envelope;
+
+        private boolean inResources = false;
+
+        private boolean resourcesInEnvelope = false;
+
+        private boolean resourcesNext = false;
+
+        private boolean streamed = false;
+
+        private PaginatedDecoder(ObjectMapper objectMapper, Class<T> type, boolean retainPayload) {
+            super(objectMapper, retainPayload);
+            this.envelope = new TokenBuffer(this.parser);
+            this.type = type;
+        }
+
+        @Override
+        void onToken(JsonToken token) throws IOException {
+            if (this.inResources) {
+                onResourceToken(token);
+            } else if (this.depth == 1 && token == JsonToken.FIELD_NAME && RESOURCES.equals(this.parser.getCurrentName())) {
+                this.resourcesNext = true;
+            } else if (this.resourcesNext) {
+                this.resourcesNext = false;
+
+                if (token == JsonToken.START_ARRAY) {
+                    this.inResources = true;
+                    this.depth++;
+                } else {
+                    this.resourcesInEnvelope = true;
+                    this.envelope.writeFieldName(RESOURCES);
+                    this.envelope.copyCurrentEvent(this.parser);
+                    this.depth += token.isStructStart() ? 1 : 0;
+                }
+            } else if (this.depth == 1 && token == JsonToken.END_OBJECT) {
+                this.depth--;
+            } else if (this.depth == 0 && token == JsonToken.START_OBJECT) {
+                this.depth++;
+            } else {
+                this.envelope.copyCurrentEvent(this.parser);
+                this.depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+            }
+        }
+
+        private List<T> complete() {
+            endOfInput();
+
+            if (!isEmpty() && !this.streamed) {
+                this.ready.add(slice(this.pending));
+            }
+
+            return drainReady();
+        }
+
+        private List<T> drainReady() {
+            List<T> slices = new ArrayList<>(this.ready);
+            this.ready.clear();
+            return slices;
+        }
+
+        private List<T> feedAndDrain(ByteBuf byteBuf) {
+            feed(byteBuf);
+            return drainReady();
+        }
+
+        private void onResourceToken(JsonToken token) throws IOException {
+            if (this.depth == 2 && token == JsonToken.END_ARRAY) {
+                this.depth--;
+                this.inResources = false;
+                return;
+            }
+
+            if (this.element == null) {
+                this.element = new TokenBuffer(this.parser);
+            }
+
+            this.element.copyCurrentEvent(this.parser);
+            this.depth += token.isStructStart() ? 1 : token.isStructEnd() ? -1 : 0;
+
+            if (this.depth == 2) {
+                onResource(this.element);
+                this.element = null;
+            }
+        }
+
+        private void onResource(TokenBuffer resource) throws IOException {
+            if (this.envelope.firstToken() == null) {
+                this.pending.add(resource);
+            } else {
+                this.ready.add(slice(Collections.singletonList(resource)));
+                this.streamed = true;
+            }
+        }
+
+        private T slice(List<TokenBuffer> resources) {
+            try {
+                TokenBuffer slice = new TokenBuffer(this.parser);
+                slice.writeStartObject();
+                this.envelope.serialize(slice);
+
+                if (!this.resourcesInEnvelope) {
+                    slice.writeFieldName(RESOURCES);
+                    slice.writeStartArray();
+                    for (TokenBuffer resource : resources) {
+                        resource.serialize(slice);
+                    }
+                    slice.writeEndArray();
+                }
+
+                slice.writeEndObject();
+
+                try (JsonParser p = slice.asParser(this.objectMapper)) {
+                    return this.objectMapper.readValue(p, this.type);
+                }
+            } catch (IOException e) {
+                throw parsingException(e);
+            }
+        }
+
+    }
+
+    private static final class ValueDecoder extends AbstractStreamingDecoder {
+
+        private final TokenBuffer tokens;
+
+        private ValueDecoder(ObjectMapper objectMapper, boolean retainPayload) {
+            super(objectMapper, retainPayload);
+            this.tokens = new TokenBuffer(this.parser);
+        }
+
+        @Override
+        void onToken(JsonToken token) throws IOException {
+            this.tokens.copyCurrentEvent(this.parser);
+        }
+
+        private <T> Mono<T> complete(Class<T> type) {
+            if (isEmpty()) {
+                return Mono.empty();
+            }
+
+            endOfInput();
+
+            try (JsonParser p = this.tokens.asParser(this.objectMapper)) {
+                return Mono.justOrEmpty(this.objectMapper.readValue(p, type));
+            } catch (IOException e) {
+                throw parsingException(e);
+            }
+        }
+
+    }
+
 }
@@ -35,6 +35,11 @@ final class JsonParsingException extends RuntimeException {
         this.payload = getPayload(in);
     }
 
+    JsonParsingException(String message, Throwable cause, String payload) {
+        super(message, cause);
+        this.payload = payload;
+    }
+
     public String getPayload() {
         return this.payload;
     }
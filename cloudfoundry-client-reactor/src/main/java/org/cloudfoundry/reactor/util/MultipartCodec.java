@@ -0,0 +1,214 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public final class MultipartCodec {
+
+    private static final Pattern BOUNDARY = Pattern.compile("boundary=\"?([^\";]+)\"?");
+
+    private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] HEADERS_DELIMITER = "\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    private MultipartCodec() {
+    }
+
+    /**
+     * Decodes a stream of {@link ByteBuf}s containing a multipart payload, emitting the body of each part as soon as it has been completely received.  Only the part currently being received is
+     * held in memory.
+     *
+     * @param boundary the boundary that delimits the parts of the payload
+     * @return a function from a {@link Flux} of {@link ByteBuf}s to the bodies of the parts
+     */
+    public static Function<Flux<ByteBuf>, Flux<ByteBuf>> decode(String boundary) {
+        return source -> Flux
+            .defer(() -> {
+                PartDecoder decoder = new PartDecoder(boundary);
+
+                return source
+                    .flatMapIterable(decoder::feed);
+            });
+    }
+
+    /**
+     * Returns the boundary declared by a multipart {@code Content-Type}
+     *
+     * @param contentType the {@code Content-Type}
+     * @return the boundary
+     */
+    public static String getBoundary(String contentType) {
+        Matcher matcher = BOUNDARY.matcher(contentType == null ? "" : contentType);
+
+        if (!matcher.find()) {
+            throw new IllegalArgumentException(String.format("Content-Type %s does not declare a multipart boundary", contentType));
+        }
+
+        return matcher.group(1);
+    }
+
+    private static int indexOf(ByteBuf haystack, byte[] needle, int from) {
+        int end = haystack.writerIndex() - needle.length;
+
+        outer:
+        for (int i = from; i <= end; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack.getByte(i + j) != needle[j]) {
+                    continue outer;
+                }
+            }
+
+            return i;
+        }
+
+        return -1;
+    }
+
+    private static boolean startsWith(ByteBuf haystack, byte[] needle) {
+        if (haystack.readableBytes() < needle.length) {
+            return false;
+        }
+
+        for (int i = 0; i < needle.length; i++) {
+            if (haystack.getByte(haystack.readerIndex() + i) != needle[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private enum State {
+
+        BODY,
+
+        DELIMITER,
+
+        END,
+
+        HEADERS,
+
+        PREAMBLE
+
+    }
+
+    private static final class PartDecoder {
+
+        private final ByteBuf cumulation = Unpooled.buffer();
+
+        private final byte[] delimiter;
+
+        private final byte[] firstDelimiter;
+
+        private int scanned;
+
+        private State state = State.PREAMBLE;
+
+        private PartDecoder(String boundary) {
+            this.delimiter = String.format("\r\n--%s", boundary).getBytes(StandardCharsets.US_ASCII);
+            this.firstDelimiter = String.format("--%s", boundary).getBytes(StandardCharsets.US_ASCII);
+        }
+
+        private List<ByteBuf> feed(ByteBuf chunk) {
+            if (this.state == State.END) {
+                return Collections.emptyList();
+            }
+
+            this.cumulation.writeBytes(chunk);
+
+            List<ByteBuf> parts = new ArrayList<>();
+            while (advance(parts)) {
+            }
+
+            this.cumulation.discardReadBytes();
+            return parts;
+        }
+
+        private boolean advance(List<ByteBuf> parts) {
+            switch (this.state) {
+                case PREAMBLE:
+                    return skipPast(this.firstDelimiter, State.DELIMITER);
+                case DELIMITER:
+                    if (this.cumulation.readableBytes() < 2) {
+                        return false;
+                    }
+
+                    if (this.cumulation.getByte(this.cumulation.readerIndex()) == '-' && this.cumulation.getByte(this.cumulation.readerIndex() + 1) == '-') {
+                        this.cumulation.skipBytes(this.cumulation.readableBytes());
+                        this.state = State.END;
+                        return false;
+                    }
+
+                    return skipPast(CRLF, State.HEADERS);
+                case HEADERS:
+                    if (startsWith(this.cumulation, CRLF)) {
+                        this.cumulation.skipBytes(CRLF.length);
+                        this.state = State.BODY;
+                        return true;
+                    }
+
+                    return skipPast(HEADERS_DELIMITER, State.BODY);
+                case BODY:
+                    int index = find(this.delimiter);
+                    if (index == -1) {
+                        return false;
+                    }
+
+                    parts.add(this.cumulation.readBytes(index - this.cumulation.readerIndex()));
+                    this.cumulation.skipBytes(this.delimiter.length);
+                    this.state = State.DELIMITER;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        /**
+         * Finds the next occurrence of {@code needle}, resuming the scan where a previous unsuccessful scan for it stopped.  The resume position is held relative to the reader index, so it
+         * survives {@link ByteBuf#discardReadBytes()}, and it stops {@code needle.length - 1} bytes short of the end so that a needle split across chunks is still found.
+         */
+        private int find(byte[] needle) {
+            int index = indexOf(this.cumulation, needle, this.cumulation.readerIndex() + this.scanned);
+            this.scanned = index == -1 ? Math.max(0, this.cumulation.readableBytes() - needle.length + 1) : 0;
+            return index;
+        }
+
+        private boolean skipPast(byte[] needle, State next) {
+            int index = find(needle);
+            if (index == -1) {
+                return false;
+            }
+
+            this.cumulation.readerIndex(index + needle.length);
+            this.state = next;
+            return true;
+        }
+
+    }
+
+}
@@ -16,24 +16,31 @@
 
 package org.cloudfoundry.reactor.util;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
-import io.netty.buffer.CompositeByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultFileRegion;
 import io.netty.handler.codec.http.DefaultHttpHeaders;
 import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.AsciiString;
 import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClientRequest;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 public final class MultipartHttpClientRequest {
 
@@ -42,6 +49,8 @@ public final class MultipartHttpClientRequest {
 
     private static final AsciiString BOUNDARY_PREAMBLE = new AsciiString("; boundary=");
 
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private static final AsciiString CONTENT_DISPOSITION = new AsciiString("Content-Disposition");
 
     private static final AsciiString CONTENT_LENGTH = new AsciiString("Content-Length");
@@ -74,19 +83,37 @@ public final class MultipartHttpClientRequest {
         return this;
     }
 
+    /**
+     * Sends the parts of the request.  Parts are sent one after another, and the content of each part is streamed with backpressure so that memory usage does not depend on the size of the
+     * content.  If the size of every part is known up front, the request is sent with a {@code Content-Length}, otherwise it is sent using chunked transfer encoding.
+     *
+     * @return {@code onComplete} once all parts have been sent
+     */
     public Mono<Void> done() {
         AsciiString boundary = generateMultipartBoundary();
         ByteBufAllocator allocator = this.outbound.delegate().alloc();
 
-        CompositeByteBuf bodyBuf = allocator.compositeBuffer();
-        this.partConsumers.forEach(partConsumer -> bodyBuf.addComponent(getPart(allocator, boundary, this.objectMapper, partConsumer)));
-        bodyBuf.addComponent(getCloseDelimiter(allocator, boundary));
+        List<PartHttpClientRequest> parts = this.partConsumers.stream()
+            .map(partConsumer -> {
+                PartHttpClientRequest part = new PartHttpClientRequest(this.objectMapper);
+                partConsumer.accept(part);
+                return part;
+            })
+            .collect(Collectors.toList());
+
+        long contentLength = getContentLength(boundary, parts);
+
+        this.outbound.addHeader(CONTENT_TYPE, MULTIPART_FORM_DATA.concat(BOUNDARY_PREAMBLE).concat(boundary));
+        if (contentLength >= 0) {
+            this.outbound
+                .removeTransferEncodingChunked()
+                .addHeader(CONTENT_LENGTH, String.valueOf(contentLength));
+        }
 
-        return this.outbound
-            .removeTransferEncodingChunked()
-            .addHeader(CONTENT_TYPE, MULTIPART_FORM_DATA.concat(BOUNDARY_PREAMBLE).concat(boundary))
-            .addHeader(CONTENT_LENGTH, String.valueOf(bodyBuf.capacity()))
-            .sendOne(bodyBuf.writerIndex(bodyBuf.capacity()));
+        return Flux.fromIterable(parts)
+            .concatMap(part -> part.send(this.outbound, allocator, boundary))
+            .then()
+            .then(Mono.defer(() -> this.outbound.sendOne(toByteBuf(allocator, getCloseDelimiter(boundary)))));
     }
 
     private static AsciiString generateMultipartBoundary() {
@@ -97,26 +124,31 @@ public final class MultipartHttpClientRequest {
         return new AsciiString(boundary);
     }
 
-    private static ByteBuf getCloseDelimiter(ByteBufAllocator allocator, AsciiString boundary) {
-        AsciiString s = DOUBLE_DASH.concat(boundary).concat(DOUBLE_DASH);
-        return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
+    private static AsciiString getCloseDelimiter(AsciiString boundary) {
+        return DOUBLE_DASH.concat(boundary).concat(DOUBLE_DASH);
     }
 
-    private static ByteBuf getDelimiter(ByteBufAllocator allocator, AsciiString boundary) {
-        AsciiString s = DOUBLE_DASH.concat(boundary).concat(CRLF);
-        return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
-    }
+    private static long getContentLength(AsciiString boundary, List<PartHttpClientRequest> parts) {
+        long contentLength = getCloseDelimiter(boundary).length();
+
+        for (PartHttpClientRequest part : parts) {
+            long dataLength = part.getDataLength();
+            if (dataLength < 0) {
+                return -1;
+            }
+
+            contentLength += part.getPreamble(boundary).length() + dataLength + CRLF.length();
+        }
 
-    private static ByteBuf getPart(ByteBufAllocator allocator, AsciiString boundary, ObjectMapper objectMapper, Consumer<PartHttpClientRequest> partConsumer) {
-        PartHttpClientRequest part = new PartHttpClientRequest(objectMapper);
-        partConsumer.accept(part);
+        return contentLength;
+    }
 
-        CompositeByteBuf body = allocator.compositeBuffer();
-        body.addComponent(getDelimiter(allocator, boundary));
-        body.addComponent(part.getHeaders(allocator));
-        body.addComponent(part.getData(allocator));
+    private static AsciiString getDelimiter(AsciiString boundary) {
+        return DOUBLE_DASH.concat(boundary).concat(CRLF);
+    }
 
-        return body.writerIndex(body.capacity());
+    private static ByteBuf toByteBuf(ByteBufAllocator allocator, AsciiString s) {
+        return allocator.directBuffer(s.length()).writeBytes(s.array(), s.arrayOffset(), s.length());
     }
 
     public static final class PartHttpClientRequest {
@@ -125,9 +157,9 @@ public final class MultipartHttpClientRequest {
 
         private final ObjectMapper objectMapper;
 
-        private InputStream inputStream;
+        private byte[] data;
 
-        private Object source;
+        private InputStream inputStream;
 
         private PartHttpClientRequest(ObjectMapper objectMapper) {
             this.objectMapper = objectMapper;
@@ -139,7 +171,11 @@ public final class MultipartHttpClientRequest {
         }
 
         public void send(Object source) {
-            this.source = source;
+            try {
+                this.data = this.objectMapper.writeValueAsBytes(source);
+            } catch (JsonProcessingException e) {
+                throw Exceptions.propagate(e);
+            }
         }
 
         public void sendInputStream(InputStream inputStream) {
@@ -162,46 +198,95 @@ public final class MultipartHttpClientRequest {
             return this;
         }
 
-        private static ByteBuf getData(ByteBufAllocator allocator, InputStream inputStream) {
-            try (InputStream in = inputStream) {
-                ByteBuf byteBuf = allocator.directBuffer(in.available());
-                byteBuf.writeBytes(inputStream, inputStream.available());
-                return byteBuf;
+        private static void close(InputStream inputStream) {
+            try {
+                inputStream.close();
             } catch (IOException e) {
                 throw Exceptions.propagate(e);
             }
         }
 
-        private static ByteBuf getData(ByteBufAllocator allocator, ObjectMapper objectMapper, Object source) {
-            return JsonCodec.encode(allocator, objectMapper, source);
+        private static Flux<ByteBuf> read(ByteBufAllocator allocator, InputStream inputStream) {
+            return Flux.using(() -> inputStream, in -> Flux.<ByteBuf>generate(sink -> {
+                ByteBuf byteBuf = allocator.directBuffer(CHUNK_SIZE);
+
+                try {
+                    if (byteBuf.writeBytes(in, CHUNK_SIZE) < 0) {
+                        byteBuf.release();
+                        sink.complete();
+                    } else {
+                        sink.next(byteBuf);
+                    }
+                } catch (IOException e) {
+                    byteBuf.release();
+                    sink.error(e);
+                }
+            }), PartHttpClientRequest::close);
         }
 
-        private ByteBuf getData(ByteBufAllocator allocator) {
-            CompositeByteBuf dataBuf = allocator.compositeBuffer();
-
-            dataBuf.addComponent(allocator.directBuffer(CRLF.length()).writeBytes(CRLF.toByteArray()));
+        private static Mono<Void> write(Channel channel, FileChannel fileChannel) {
+            return Mono.create(sink -> {
+                try {
+                    channel.writeAndFlush(new DefaultFileRegion(fileChannel, fileChannel.position(), fileChannel.size() - fileChannel.position()))
+                        .addListener(future -> {
+                            if (future.isSuccess()) {
+                                sink.success();
+                            } else {
+                                sink.error(future.cause());
+                            }
+                        });
+                } catch (IOException e) {
+                    sink.error(e);
+                }
+            });
+        }
 
-            if (this.inputStream != null) {
-                dataBuf.addComponent(getData(allocator, this.inputStream));
-            } else if (this.source != null) {
-                dataBuf.addComponent(getData(allocator, this.objectMapper, this.source));
+        private long getDataLength() {
+            if (this.data != null) {
+                return this.data.length;
             }
 
-            dataBuf.addComponent(allocator.directBuffer(CRLF.length()).writeBytes(CRLF.toByteArray()));
+            if (this.inputStream instanceof FileInputStream) {
+                try {
+                    FileChannel fileChannel = ((FileInputStream) this.inputStream).getChannel();
+                    return fileChannel.size() - fileChannel.position();
+                } catch (IOException e) {
+                    throw Exceptions.propagate(e);
+                }
+            }
 
-            return dataBuf.writerIndex(dataBuf.capacity());
+            return this.inputStream == null ? 0 : -1;
         }
 
-        private ByteBuf getHeaders(ByteBufAllocator allocator) {
-            AsciiString s = AsciiString.EMPTY_STRING;
+        private AsciiString getPreamble(AsciiString boundary) {
+            AsciiString s = getDelimiter(boundary);
 
             for (Map.Entry<String, String> entry : this.headers) {
                 s = s.concat(new AsciiString(entry.getKey())).concat(HEADER_DELIMITER).concat(entry.getValue()).concat(CRLF);
             }
 
-            return allocator.directBuffer(s.length()).writeBytes(s.toByteArray());
+            return s.concat(CRLF);
         }
 
+        private Mono<Void> send(HttpClientRequest outbound, ByteBufAllocator allocator, AsciiString boundary) {
+            Mono<ByteBuf> preamble = Mono.fromCallable(() -> toByteBuf(allocator, getPreamble(boundary)));
+            Mono<ByteBuf> epilogue = Mono.fromCallable(() -> toByteBuf(allocator, CRLF));
+
+            if (this.inputStream == null) {
+                return outbound.send(Flux.concat(preamble, Mono.fromCallable(() -> this.data == null ? allocator.directBuffer(0) : allocator.directBuffer(this.data.length).writeBytes(this.data)),
+                    epilogue));
+            }
+
+            if (this.inputStream instanceof FileInputStream && outbound.delegate().pipeline().get(SslHandler.class) == null) {
+                FileInputStream fileInputStream = (FileInputStream) this.inputStream;
+
+                return outbound.send(preamble)
+                    .then(write(outbound.delegate(), fileInputStream.getChannel()))
+                    .then(outbound.send(epilogue));
+            }
+
+            return outbound.send(Flux.concat(preamble, read(allocator, this.inputStream), epilogue));
+        }
 
     }
 
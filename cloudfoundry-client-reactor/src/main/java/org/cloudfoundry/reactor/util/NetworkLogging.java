@@ -36,6 +36,10 @@ public final class NetworkLogging {
 
     private static final String CF_WARNINGS = "X-Cf-Warnings";
 
+    public static Consumer<Subscription> cached(String uri) {
+        return s -> REQUEST_LOGGER.debug("CACHED {}", uri);
+    }
+
     public static Consumer<Subscription> delete(String uri) {
         return s -> REQUEST_LOGGER.debug("DELETE {}", uri);
     }
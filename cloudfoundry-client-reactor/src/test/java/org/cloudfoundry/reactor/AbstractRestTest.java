@@ -29,6 +29,10 @@ import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
 import reactor.ipc.netty.http.HttpClient;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 
@@ -53,29 +57,40 @@ public abstract class AbstractRestTest {
         .scheme("http").host(this.mockWebServer.getHostName()).port(this.mockWebServer.getPort())
         .build().encode().toUriString());
 
-    private InteractionContext interactionContext;
+    private List<InteractionContext> interactionContexts = Collections.emptyList();
 
-    protected final void mockRequest(InteractionContext interactionContext) {
-        this.interactionContext = interactionContext;
+    protected final void mockRequest(InteractionContext... interactionContexts) {
+        this.interactionContexts = Arrays.asList(interactionContexts);
         this.mockWebServer.setDispatcher(new Dispatcher() {
 
             @Override
             public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
-                if (interactionContext.isDone()) {
+                InteractionContext interactionContext = next();
+
+                if (interactionContext == null) {
                     throw new IllegalStateException("Additional request received: " + request);
                 }
 
-                interactionContext.setDone(true);
                 interactionContext.getRequest().assertEquals(request);
                 return interactionContext.getResponse().getMockResponse();
             }
+
         });
     }
 
     protected final void verify() {
-        if (this.interactionContext != null) {
-            assertThat(this.interactionContext.isDone()).as("Expected request not received").isTrue();
+        this.interactionContexts.forEach(interactionContext -> assertThat(interactionContext.isDone()).as("Expected request not received").isTrue());
+    }
+
+    private synchronized InteractionContext next() {
+        for (InteractionContext interactionContext : this.interactionContexts) {
+            if (!interactionContext.isDone()) {
+                interactionContext.setDone(true);
+                return interactionContext;
+            }
         }
+
+        return null;
     }
 
     private static final class FailingDeserializationProblemHandler extends DeserializationProblemHandler {
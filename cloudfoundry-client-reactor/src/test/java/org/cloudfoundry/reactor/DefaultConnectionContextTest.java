@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import org.junit.Test;
+
+import javax.net.ssl.SSLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class DefaultConnectionContextTest {
+
+    @Test
+    public void dispose() {
+        DefaultConnectionContext connectionContext = DefaultConnectionContext.builder()
+            .apiHost("api.test.com")
+            .threadPoolSize(2)
+            .build();
+
+        connectionContext.dispose();
+
+        assertThat(connectionContext.getEventLoopGroup()).hasValueSatisfying(eventLoopGroup -> assertThat(eventLoopGroup.isShuttingDown()).isTrue());
+    }
+
+    @Test
+    public void sslSessionDefaults() throws SSLException {
+        SslContext defaults = SslContextBuilder.forClient().build();
+
+        SslContext sslContext = getSslContext(DefaultConnectionContext.builder()
+            .apiHost("api.test.com")
+            .build());
+
+        assertThat(sslContext.sessionCacheSize()).isEqualTo(defaults.sessionCacheSize());
+        assertThat(sslContext.sessionTimeout()).isEqualTo(defaults.sessionTimeout());
+    }
+
+    @Test
+    public void sslSessionSettings() throws SSLException {
+        SslContext sslContext = getSslContext(DefaultConnectionContext.builder()
+            .apiHost("api.test.com")
+            .sslSessionCacheSize(100)
+            .sslSessionTimeout(Duration.ofMinutes(5))
+            .build());
+
+        assertThat(sslContext.sessionCacheSize()).isEqualTo(100);
+        assertThat(sslContext.sessionTimeout()).isEqualTo(300);
+    }
+
+    private static SslContext getSslContext(DefaultConnectionContext connectionContext) throws SSLException {
+        SslContextBuilder ssl = SslContextBuilder.forClient();
+        connectionContext.configureSsl(ssl);
+        return ssl.build();
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor;
+
+import org.junit.Test;
+import reactor.core.Cancellation;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class DefaultConnectionLimiterTest {
+
+    @Test
+    public void acquire() {
+        DefaultConnectionLimiter connectionLimiter = DefaultConnectionLimiter.builder()
+            .maximumConnections(1)
+            .build();
+
+        MonoProcessor<String> first = MonoProcessor.create();
+        MonoProcessor<String> second = MonoProcessor.create();
+
+        MonoProcessor<String> firstResult = connectionLimiter.acquire("test-host", first).subscribe();
+        MonoProcessor<String> secondResult = connectionLimiter.acquire("test-host", second).subscribe();
+
+        assertThat(connectionLimiter.getActiveConnections("test-host")).isEqualTo(1);
+        assertThat(connectionLimiter.getPendingAcquires("test-host")).isEqualTo(1);
+        assertThat(connectionLimiter.getWaitedAcquireCount()).isEqualTo(1);
+
+        first.onNext("test-value-1");
+        second.onNext("test-value-2");
+
+        assertThat(firstResult.peek()).isEqualTo("test-value-1");
+        assertThat(secondResult.peek()).isEqualTo("test-value-2");
+        assertThat(connectionLimiter.getActiveConnections()).isEqualTo(0);
+        assertThat(connectionLimiter.getPendingAcquires()).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireCancelled() {
+        DefaultConnectionLimiter connectionLimiter = DefaultConnectionLimiter.builder()
+            .maximumConnections(1)
+            .build();
+
+        Cancellation first = connectionLimiter.acquire("test-host", Mono.never()).subscribe();
+        Cancellation second = connectionLimiter.acquire("test-host", Mono.never()).subscribe();
+
+        second.dispose();
+        assertThat(connectionLimiter.getPendingAcquires("test-host")).isEqualTo(0);
+
+        first.dispose();
+        assertThat(connectionLimiter.getActiveConnections("test-host")).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireDifferentHosts() {
+        DefaultConnectionLimiter connectionLimiter = DefaultConnectionLimiter.builder()
+            .maximumConnections(1)
+            .build();
+
+        connectionLimiter.acquire("test-host-1", Mono.never()).subscribe();
+        connectionLimiter.acquire("test-host-2", Mono.never()).subscribe();
+
+        assertThat(connectionLimiter.getActiveConnections()).isEqualTo(2);
+        assertThat(connectionLimiter.getPendingAcquires()).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireError() {
+        DefaultConnectionLimiter connectionLimiter = DefaultConnectionLimiter.builder()
+            .maximumConnections(1)
+            .build();
+
+        connectionLimiter.acquire("test-host", Mono.error(new IllegalArgumentException())).subscribe();
+
+        assertThat(connectionLimiter.getActiveConnections("test-host")).isEqualTo(0);
+    }
+
+    @Test
+    public void acquireRejected() {
+        DefaultConnectionLimiter connectionLimiter = DefaultConnectionLimiter.builder()
+            .maximumConnections(1)
+            .maximumPendingAcquires(0)
+            .build();
+
+        connectionLimiter.acquire("test-host", Mono.never()).subscribe();
+        MonoProcessor<Object> result = connectionLimiter.acquire("test-host", Mono.never()).subscribe();
+
+        assertThat(result.getError()).isInstanceOf(IllegalStateException.class);
+        assertThat(connectionLimiter.getRejectedAcquireCount()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidMaximumConnections() {
+        DefaultConnectionLimiter.builder()
+            .maximumConnections(0)
+            .build();
+    }
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class DefaultRequestInstrumentationTest {
+
+    @Test
+    public void record() {
+        DefaultRequestInstrumentation instrumentation = DefaultRequestInstrumentation.builder()
+            .build();
+
+        instrumentation.record(RequestEvent.builder()
+            .bodyTransfer(Duration.ofMillis(20))
+            .decode(Duration.ofMillis(5))
+            .decodedPayloadSize(400L)
+            .method("GET")
+            .payloadSize(100L)
+            .retries(0)
+            .statusCode(200)
+            .timeToFirstByte(Duration.ofMillis(80))
+            .uriTemplate("/v2/apps/{id}")
+            .build());
+
+        instrumentation.record(RequestEvent.builder()
+            .decodedPayloadSize(0L)
+            .error(new IllegalStateException())
+            .method("GET")
+            .payloadSize(0L)
+            .retries(1)
+            .statusCode(503)
+            .timeToFirstByte(Duration.ofMillis(300))
+            .uriTemplate("/v2/apps/{id}")
+            .build());
+
+        assertThat(instrumentation.getStatistics()).containsOnlyKeys("GET /v2/apps/{id}");
+
+        RequestStatistics statistics = instrumentation.getStatistics().get("GET /v2/apps/{id}");
+        assertThat(statistics.getCount()).isEqualTo(2);
+        assertThat(statistics.getDecodeTime()).isEqualTo(Duration.ofMillis(5));
+        assertThat(statistics.getDecodedPayloadSize()).isEqualTo(400);
+        assertThat(statistics.getErrorCount()).isEqualTo(1);
+        assertThat(statistics.getMaximumTime()).isEqualTo(Duration.ofMillis(300));
+        assertThat(statistics.getMeanTime()).isEqualTo(Duration.ofMillis(200));
+        assertThat(statistics.getPayloadSize()).isEqualTo(100);
+        assertThat(statistics.getRetryCount()).isEqualTo(1);
+        assertThat(statistics.getStatusCodes())
+            .containsEntry(200, 1L)
+            .containsEntry(503, 1L);
+        assertThat(statistics.getTimeToFirstByte()).isEqualTo(Duration.ofMillis(380));
+    }
+
+}
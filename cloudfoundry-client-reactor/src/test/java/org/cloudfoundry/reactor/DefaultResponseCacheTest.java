@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor;
+
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class DefaultResponseCacheTest {
+
+    private static final TokenProvider OTHER_TOKEN_PROVIDER = connectionContext -> Mono.just("test-other-token");
+
+    private static final TokenProvider TOKEN_PROVIDER = connectionContext -> Mono.just("test-token");
+
+    @Test
+    public void evict() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .maximumEntries(1)
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks?page=1", "test-response-1", null);
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks?page=2", "test-response-2", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks?page=1")).isEmpty();
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks?page=2")).hasValueSatisfying(r -> assertThat(r.getResponse()).isEqualTo("test-response-2"));
+        assertThat(responseCache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void expired() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .ttl("/v2/stacks", Duration.ZERO)
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks", "test-response", "test-entity-tag");
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks")).hasValueSatisfying(r -> {
+            assertThat(r.getEntityTag()).hasValue("test-entity-tag");
+            assertThat(r.isExpired()).isTrue();
+        });
+        assertThat(responseCache.getMissCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void featureFlags() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/feature_flags", "test-response-1", null);
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/feature_flags/user_org_creation", "test-response-2", null);
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/environment_variable_groups/running", "test-response-3", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/feature_flags")).isPresent();
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/feature_flags/user_org_creation")).isPresent();
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/environment_variable_groups/running")).isEmpty();
+
+        responseCache.invalidate("https://api.run.pivotal.io/v2/config/feature_flags/user_org_creation");
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/config/feature_flags")).isEmpty();
+        assertThat(responseCache.getInvalidationCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void get() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks", "test-response", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks")).hasValueSatisfying(r -> {
+            assertThat(r.getEntityTag()).isEmpty();
+            assertThat(r.getResponse()).isEqualTo("test-response");
+            assertThat(r.isExpired()).isFalse();
+        });
+        assertThat(responseCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidate() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks", "test-response-1", null);
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks/test-stack-id", "test-response-2", null);
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/buildpacks", "test-response-3", null);
+
+        responseCache.invalidate("https://api.run.pivotal.io/v2/stacks/test-stack-id");
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks")).isEmpty();
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks/test-stack-id")).isEmpty();
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/buildpacks")).isPresent();
+        assertThat(responseCache.getInvalidationCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateAllTokenProviders() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans", "test-response-1", null);
+        responseCache.put(OTHER_TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans", "test-response-2", null);
+
+        responseCache.invalidate("https://api.run.pivotal.io/v2/service_plans/test-service-plan-id");
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans")).isEmpty();
+        assertThat(responseCache.get(OTHER_TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans")).isEmpty();
+    }
+
+    @Test
+    public void notCacheable() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/apps", "test-response", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/apps")).isEmpty();
+    }
+
+    @Test
+    public void prefix() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks_other", "test-response", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/stacks_other")).isEmpty();
+    }
+
+    @Test
+    public void separateTokenProviders() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        responseCache.put(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans", "test-response", null);
+
+        assertThat(responseCache.get(TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans")).isPresent();
+        assertThat(responseCache.get(OTHER_TOKEN_PROVIDER, "https://api.run.pivotal.io/v2/service_plans")).isEmpty();
+    }
+
+}
@@ -42,6 +42,7 @@ import org.cloudfoundry.reactor.InteractionContext;
 import org.cloudfoundry.reactor.TestRequest;
 import org.cloudfoundry.reactor.TestResponse;
 import org.cloudfoundry.reactor.client.AbstractClientApiTest;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.subscriber.ScriptedSubscriber;
 
@@ -487,6 +488,91 @@ public final class ReactorRoutesTest {
 
     }
 
+    public static final class ListStreaming extends AbstractClientApiTest<ListRoutesRequest, ListRoutesResponse> {
+
+        private final ReactorRoutes routes = new ReactorRoutes(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected ScriptedSubscriber<ListRoutesResponse> expectations() {
+            return ScriptedSubscriber.<ListRoutesResponse>create()
+                .expectNext(ListRoutesResponse.builder()
+                    .totalResults(2)
+                    .totalPages(1)
+                    .resource(RouteResource.builder()
+                        .metadata(Metadata.builder()
+                            .id("8fd7433e-e9c7-4897-809f-9a9696f72986")
+                            .url("/v2/routes/8fd7433e-e9c7-4897-809f-9a9696f72986")
+                            .createdAt("2016-03-17T21:41:19Z")
+                            .build())
+                        .entity(RouteEntity.builder()
+                            .host("host-25")
+                            .path("")
+                            .domainId("76d083f5-a5cc-4179-81b8-530a134cccf6")
+                            .spaceId("34453e18-fe59-4208-b29c-ae9f7b46985c")
+                            .serviceInstanceId("8479be64-245d-4385-a553-593ffcc6b886")
+                            .port(0)
+                            .domainUrl("/v2/domains/76d083f5-a5cc-4179-81b8-530a134cccf6")
+                            .spaceUrl("/v2/spaces/34453e18-fe59-4208-b29c-ae9f7b46985c")
+                            .serviceInstanceUrl("/v2/service_instances/8479be64-245d-4385-a553-593ffcc6b886")
+                            .applicationsUrl("/v2/routes/8fd7433e-e9c7-4897-809f-9a9696f72986/apps")
+                            .routeMappingsUrl("/v2/routes/8fd7433e-e9c7-4897-809f-9a9696f72986/route_mappings")
+                            .build())
+                        .build())
+                    .build())
+                .expectNext(ListRoutesResponse.builder()
+                    .totalResults(2)
+                    .totalPages(1)
+                    .resource(RouteResource.builder()
+                        .metadata(Metadata.builder()
+                            .id("a6e0b8f5-6e36-4a5b-8c9d-0b5d3c1b7f21")
+                            .url("/v2/routes/a6e0b8f5-6e36-4a5b-8c9d-0b5d3c1b7f21")
+                            .createdAt("2016-03-17T21:41:20Z")
+                            .build())
+                        .entity(RouteEntity.builder()
+                            .host("host-26")
+                            .path("")
+                            .domainId("76d083f5-a5cc-4179-81b8-530a134cccf6")
+                            .spaceId("34453e18-fe59-4208-b29c-ae9f7b46985c")
+                            .serviceInstanceId("c2f1c1a4-3c2a-4d6e-9d3b-5b8e2a4f1e07")
+                            .port(0)
+                            .domainUrl("/v2/domains/76d083f5-a5cc-4179-81b8-530a134cccf6")
+                            .spaceUrl("/v2/spaces/34453e18-fe59-4208-b29c-ae9f7b46985c")
+                            .serviceInstanceUrl("/v2/service_instances/c2f1c1a4-3c2a-4d6e-9d3b-5b8e2a4f1e07")
+                            .applicationsUrl("/v2/routes/a6e0b8f5-6e36-4a5b-8c9d-0b5d3c1b7f21/apps")
+                            .routeMappingsUrl("/v2/routes/a6e0b8f5-6e36-4a5b-8c9d-0b5d3c1b7f21/route_mappings")
+                            .build())
+                        .build())
+                    .build())
+                .expectComplete();
+        }
+
+        @Override
+        protected InteractionContext interactionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(GET).path("/v2/routes?page=-1")
+                    .build())
+                .response(TestResponse.builder()
+                    .status(OK)
+                    .payload("fixtures/client/v2/routes/GET_streaming_response.json")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected Flux<ListRoutesResponse> invoke(ListRoutesRequest request) {
+            return this.routes.listStreaming(request);
+        }
+
+        @Override
+        protected ListRoutesRequest validRequest() {
+            return ListRoutesRequest.builder()
+                .page(-1)
+                .build();
+        }
+
+    }
+
     public static final class RemoveApplication extends AbstractClientApiTest<RemoveRouteApplicationRequest, Void> {
 
         private final ReactorRoutes routes = new ReactorRoutes(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
@@ -81,6 +81,7 @@ import org.cloudfoundry.reactor.TestRequest;
 import org.cloudfoundry.reactor.TestResponse;
 import org.cloudfoundry.reactor.client.AbstractClientApiTest;
 import org.cloudfoundry.util.FluentMap;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.subscriber.ScriptedSubscriber;
 
@@ -1188,6 +1189,163 @@ public final class ReactorApplicationsV3Test {
 
     }
 
+    public static final class ListStreaming extends AbstractClientApiTest<ListApplicationsRequest, ListApplicationsResponse> {
+
+        private final ReactorApplicationsV3 applications = new ReactorApplicationsV3(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
+
+        @Override
+        protected ScriptedSubscriber<ListApplicationsResponse> expectations() {
+            return ScriptedSubscriber.<ListApplicationsResponse>create()
+                .expectNext(ListApplicationsResponse.builder()
+                    .pagination(Pagination.builder()
+                        .totalResults(3)
+                        .first(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=1&per_page=2")
+                            .build())
+                        .last(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=2&per_page=2")
+                            .build())
+                        .next(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=2&per_page=2")
+                            .build())
+                        .build())
+                    .resource(ApplicationResource.builder()
+                        .id("guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa")
+                        .name("my_app3")
+                        .desiredState("STOPPED")
+                        .totalDesiredInstances(0)
+                        .createdAt("1970-01-01T00:00:03Z")
+                        .lifecycle(Lifecycle.builder()
+                            .type(org.cloudfoundry.client.v3.Type.BUILDPACK)
+                            .data(BuildpackData.builder()
+                                .buildpack("name-2374")
+                                .stack("name-2375")
+                                .build())
+                            .build())
+                        .environmentVariable("magic", "beautiful")
+                        .link("self", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa")
+                            .build())
+                        .link("space", Link.builder()
+                            .href("/v2/spaces/801a008f-dfda-464f-88ed-b9abd4bf3b1b")
+                            .build())
+                        .link("processes", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/processes")
+                            .build())
+                        .link("routes", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/routes")
+                            .build())
+                        .link("packages", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/packages")
+                            .build())
+                        .link("droplets", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/droplets")
+                            .build())
+                        .link("start", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/start")
+                            .method("PUT")
+                            .build())
+                        .link("stop", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/stop")
+                            .method("PUT")
+                            .build())
+                        .link("assign_current_droplet", Link.builder()
+                            .href("/v3/apps/guid-fde0d401-0615-4ebf-9585-57ab0fe0d2fa/current_droplet")
+                            .method("PUT")
+                            .build())
+                        .build())
+                    .build())
+                .expectNext(ListApplicationsResponse.builder()
+                    .pagination(Pagination.builder()
+                        .totalResults(3)
+                        .first(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=1&per_page=2")
+                            .build())
+                        .last(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=2&per_page=2")
+                            .build())
+                        .next(Link.builder()
+                            .href("/v3/apps?order_by=-created_at&page=2&per_page=2")
+                            .build())
+                        .build())
+                    .resource(ApplicationResource.builder()
+                        .id("guid-5b9fc319-1483-40f4-b868-18240a6c6e5f")
+                        .name("my_app2")
+                        .desiredState("STOPPED")
+                        .totalDesiredInstances(0)
+                        .createdAt("1970-01-01T00:00:02Z")
+                        .environmentVariables(Collections.emptyMap())
+                        .lifecycle(Lifecycle.builder()
+                            .type(org.cloudfoundry.client.v3.Type.BUILDPACK)
+                            .data(BuildpackData.builder()
+                                .buildpack("name-2372")
+                                .stack("name-2373")
+                                .build())
+                            .build())
+                        .link("self", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f")
+                            .build())
+                        .link("space", Link.builder()
+                            .href("/v2/spaces/801a008f-dfda-464f-88ed-b9abd4bf3b1b")
+                            .build())
+                        .link("processes", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/processes")
+                            .build())
+                        .link("routes", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/routes")
+                            .build())
+                        .link("packages", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/packages")
+                            .build())
+                        .link("droplets", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/droplets")
+                            .build())
+                        .link("start", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/start")
+                            .method("PUT")
+                            .build())
+                        .link("stop", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/stop")
+                            .method("PUT")
+                            .build())
+                        .link("assign_current_droplet", Link.builder()
+                            .href("/v3/apps/guid-5b9fc319-1483-40f4-b868-18240a6c6e5f/current_droplet")
+                            .method("PUT")
+                            .build())
+                        .build())
+                    .build())
+                .expectComplete();
+        }
+
+        @Override
+        protected InteractionContext interactionContext() {
+            return InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(GET).path("/v3/apps?names=test-name&order_by=%2Bcreated_at&page=1")
+                    .build())
+                .response(TestResponse.builder()
+                    .status(OK)
+                    .payload("fixtures/client/v3/apps/GET_response.json")
+                    .build())
+                .build();
+        }
+
+        @Override
+        protected Flux<ListApplicationsResponse> invoke(ListApplicationsRequest request) {
+            return this.applications.listStreaming(request);
+        }
+
+        @Override
+        protected ListApplicationsRequest validRequest() {
+            return ListApplicationsRequest.builder()
+                .page(1)
+                .orderBy("+created_at")
+                .name("test-name")
+                .build();
+        }
+
+    }
+
     public static final class ListTasks extends AbstractClientApiTest<ListApplicationTasksRequest, ListApplicationTasksResponse> {
 
         private final ReactorApplicationsV3 applications = new ReactorApplicationsV3(CONNECTION_CONTEXT, this.root, TOKEN_PROVIDER);
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EnvelopeBatcherTest {
+
+    private static final int FRAME_SIZE = encode("test-origin-1").readableBytes();
+
+    @After
+    public void disableVirtualTime() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Before
+    public void enableVirtualTime() {
+        VirtualTimeScheduler.enable(true);
+    }
+
+    @Test
+    public void maximumBytes() {
+        List<Integer> counts = batch(Flux.just("test-origin-1", "test-origin-2", "test-origin-3"), BatchPolicy.builder()
+            .maximumBytes(2 * FRAME_SIZE)
+            .build())
+            .map(EnvelopeBatch::getCount)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(counts).containsExactly(2, 1);
+    }
+
+    @Test
+    public void maximumCount() {
+        List<EnvelopeBatch> batches = batch(Flux.just("test-origin-1", "test-origin-2", "test-origin-3"), BatchPolicy.builder()
+            .maximumCount(2)
+            .build())
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(batches).hasSize(2);
+        assertThat(getOrigins(batches.get(0))).containsExactly("test-origin-1", "test-origin-2");
+        assertThat(batches.get(0).getEncodedSize()).isEqualTo(2 * FRAME_SIZE);
+        assertThat(batches.get(0).getFrames().get(1)).isEqualTo(encode("test-origin-2"));
+        assertThat(getOrigins(batches.get(1))).containsExactly("test-origin-3");
+    }
+
+    @Test
+    public void maximumLinger() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext(2)
+            .expectComplete();
+
+        batch(Flux.just("test-origin-1", "test-origin-2").concatWith(Flux.never()), BatchPolicy.builder()
+            .maximumLinger(Duration.ofSeconds(1))
+            .build())
+            .map(EnvelopeBatch::getCount)
+            .take(1)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void release() {
+        List<EnvelopeBatch> batches = batch(Flux.just("test-origin-1", "test-origin-2", "test-origin-3"), BatchPolicy.builder()
+            .maximumCount(1)
+            .build())
+            .doOnNext(EnvelopeBatch::release)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(batches).hasSize(3);
+        assertThat(batches.get(1)).isSameAs(batches.get(0));
+    }
+
+    @Test
+    public void upstreamDemand() {
+        AtomicLong requested = new AtomicLong();
+        List<EnvelopeBatch> batches = new ArrayList<>();
+
+        Flux<ByteBuf> frames = Flux.range(0, 100)
+            .map(i -> encode(String.format("test-origin-%02d", i)))
+            .doOnRequest(requested::addAndGet);
+
+        frames.subscribe(new EnvelopeBatcher(new Subscriber<EnvelopeBatch>() {
+
+            @Override
+            public void onComplete() {
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+
+            @Override
+            public void onNext(EnvelopeBatch batch) {
+                batches.add(batch);
+            }
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                s.request(1);
+            }
+
+        }, BatchPolicy.builder()
+            .maximumBytes(FRAME_SIZE)
+            .maximumCount(10)
+            .build()));
+
+        assertThat(batches).hasSize(1);
+        assertThat(requested.get()).as("batches that close early do not request more frames").isEqualTo(10);
+    }
+
+    private static Flux<EnvelopeBatch> batch(Flux<String> origins, BatchPolicy policy) {
+        Flux<ByteBuf> frames = origins.map(EnvelopeBatcherTest::encode);
+        return Flux.from(subscriber -> frames.subscribe(new EnvelopeBatcher(subscriber, policy)));
+    }
+
+    private static ByteBuf encode(String origin) {
+        return Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.LogMessage)
+            .origin(origin)
+            .build()));
+    }
+
+    private static List<String> getOrigins(EnvelopeBatch batch) {
+        return batch.getEnvelopes().stream()
+            .map(Envelope::getOrigin)
+            .collect(Collectors.toList());
+    }
+
+}
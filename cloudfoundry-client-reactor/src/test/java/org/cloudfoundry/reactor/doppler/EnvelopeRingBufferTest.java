@@ -0,0 +1,218 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EnvelopeRingBufferTest {
+
+    private static final int FRAME_SIZE = encode("test-origin-1").readableBytes() + 4;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final RingBufferMetrics metrics = new RingBufferMetrics();
+
+    @Test
+    public void blockingConsumer() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSubscriber subscriber = new RecordingSubscriber(release);
+
+        subscribe(RingBufferPolicy.builder().build(), subscriber);
+
+        assertThat(this.metrics.getOccupancy()).as("frames are buffered while the consumer blocks").isGreaterThanOrEqualTo(2 * FRAME_SIZE);
+
+        release.countDown();
+        await(() -> subscriber.completed);
+
+        assertThat(subscriber.getOrigins()).containsExactly("test-origin-1", "test-origin-2", "test-origin-3");
+    }
+
+    @Test
+    public void cancelWithoutDemand() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe(RingBufferPolicy.builder()
+            .capacity(FRAME_SIZE + 1)
+            .overflowPolicy(OverflowPolicy.SPILL)
+            .spillDirectory(this.folder.getRoot().toPath())
+            .build());
+
+        assertThat(this.folder.getRoot().list()).hasSize(1);
+
+        subscriber.subscription.cancel();
+        await(() -> this.metrics.getOccupancy() == 0 && this.folder.getRoot().list().length == 0);
+
+        assertThat(subscriber.getOrigins()).isEmpty();
+    }
+
+    @Test
+    public void dropNewest() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe(RingBufferPolicy.builder()
+            .capacity(2 * FRAME_SIZE)
+            .overflowPolicy(OverflowPolicy.DROP_NEWEST)
+            .build());
+
+        assertThat(this.metrics.getDroppedCount()).isEqualTo(1);
+        assertThat(this.metrics.getOccupancy()).isEqualTo(2 * FRAME_SIZE);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        await(() -> subscriber.completed);
+
+        assertThat(subscriber.getOrigins()).containsExactly("test-origin-1", "test-origin-2");
+        assertThat(this.metrics.getOccupancy()).isEqualTo(0);
+    }
+
+    @Test
+    public void dropOldest() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe(RingBufferPolicy.builder()
+            .capacity(2 * FRAME_SIZE)
+            .overflowPolicy(OverflowPolicy.DROP_OLDEST)
+            .build());
+
+        assertThat(this.metrics.getDroppedCount()).isEqualTo(1);
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        await(() -> subscriber.completed);
+
+        assertThat(subscriber.getOrigins()).containsExactly("test-origin-2", "test-origin-3");
+    }
+
+    @Test
+    public void spill() throws InterruptedException {
+        RecordingSubscriber subscriber = subscribe(RingBufferPolicy.builder()
+            .capacity(FRAME_SIZE + 1)
+            .overflowPolicy(OverflowPolicy.SPILL)
+            .spillDirectory(this.folder.getRoot().toPath())
+            .build());
+
+        assertThat(this.metrics.getSpilledCount()).isEqualTo(2);
+        assertThat(this.metrics.getSpilledBytes()).isEqualTo(2 * FRAME_SIZE);
+
+        subscriber.subscription.request(1);
+        await(() -> subscriber.envelopes.size() == 1);
+        assertThat(subscriber.getOrigins()).containsExactly("test-origin-1");
+
+        subscriber.subscription.request(Long.MAX_VALUE);
+        await(() -> subscriber.completed);
+
+        assertThat(subscriber.getOrigins()).containsExactly("test-origin-1", "test-origin-2", "test-origin-3");
+        assertThat(this.metrics.getDroppedCount()).isEqualTo(0);
+        assertThat(this.metrics.getSpilledBytes()).isEqualTo(0);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+
+            Thread.sleep(10);
+        }
+    }
+
+    private static ByteBuf encode(String origin) {
+        return Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.LogMessage)
+            .origin(origin)
+            .build()));
+    }
+
+    private RecordingSubscriber subscribe(RingBufferPolicy policy) {
+        return subscribe(policy, new RecordingSubscriber(null));
+    }
+
+    private RecordingSubscriber subscribe(RingBufferPolicy policy, RecordingSubscriber subscriber) {
+        Flux.just("test-origin-1", "test-origin-2", "test-origin-3")
+            .map(EnvelopeRingBufferTest::encode)
+            .subscribe(new EnvelopeRingBuffer(subscriber, policy, this.metrics));
+
+        return subscriber;
+    }
+
+    private static final class RecordingSubscriber implements Subscriber<Envelope> {
+
+        private final List<Envelope> envelopes = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch release;
+
+        private volatile boolean completed;
+
+        private volatile Subscription subscription;
+
+        private RecordingSubscriber(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void onComplete() {
+            this.completed = true;
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            throw new AssertionError(t);
+        }
+
+        @Override
+        public void onNext(Envelope envelope) {
+            if (this.release != null) {
+                try {
+                    this.release.await();
+                } catch (InterruptedException e) {
+                    throw new AssertionError(e);
+                }
+            }
+
+            this.envelopes.add(envelope);
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+
+            if (this.release != null) {
+                s.request(Long.MAX_VALUE);
+            }
+        }
+
+        private List<String> getOrigins() {
+            return this.envelopes.stream()
+                .map(Envelope::getOrigin)
+                .collect(Collectors.toList());
+        }
+
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.ContainerMetric;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.EventType;
+import org.cloudfoundry.util.FluentMap;
+import org.junit.Test;
+
+import java.util.EnumSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EnvelopeViewTest {
+
+    @Test
+    public void fields() {
+        EnvelopeView view = new EnvelopeView().wrap(encode("test-origin-1"));
+
+        assertThat(view.getDeployment()).isEqualTo("test-deployment");
+        assertThat(view.getEventType()).isEqualTo(EventType.CONTAINER_METRIC);
+        assertThat(view.getIndex()).isEqualTo("test-index");
+        assertThat(view.getIp()).isEqualTo("test-ip");
+        assertThat(view.getJob()).isNull();
+        assertThat(view.getOrigin()).isEqualTo("test-origin-1");
+        assertThat(view.getTags()).containsEntry("test-key", "test-value");
+        assertThat(view.getTimestamp()).isEqualTo(1460991824620929073L);
+    }
+
+    @Test
+    public void hasEventType() {
+        EnvelopeView view = new EnvelopeView();
+
+        assertThat(view.hasEventType(encode("test-origin-1"), EnumSet.of(EventType.CONTAINER_METRIC, EventType.LOG_MESSAGE))).isTrue();
+        assertThat(view.hasEventType(encode("test-origin-1"), EnumSet.of(EventType.LOG_MESSAGE))).isFalse();
+    }
+
+    @Test
+    public void payload() {
+        EnvelopeView view = new EnvelopeView().wrap(encode("test-origin-1"));
+
+        assertThat(view.getContainerMetric()).isEqualTo(ContainerMetric.builder()
+            .applicationId("test-application-id")
+            .cpuPercentage(0.5)
+            .diskBytes(2L)
+            .instanceIndex(1)
+            .memoryBytes(3L)
+            .build());
+        assertThat(view.getLogMessage()).isNull();
+    }
+
+    @Test
+    public void reuse() {
+        EnvelopeView view = new EnvelopeView();
+
+        assertThat(view.wrap(encode("test-origin-1")).getOrigin()).isEqualTo("test-origin-1");
+        assertThat(view.wrap(encode("test-origin-2")).getOrigin()).isEqualTo("test-origin-2");
+    }
+
+    @Test
+    public void toEnvelope() {
+        Envelope envelope = new EnvelopeView().wrap(encode("test-origin-1")).toEnvelope();
+
+        assertThat(envelope).isEqualTo(Envelope.builder()
+            .containerMetric(ContainerMetric.builder()
+                .applicationId("test-application-id")
+                .cpuPercentage(0.5)
+                .diskBytes(2L)
+                .instanceIndex(1)
+                .memoryBytes(3L)
+                .build())
+            .deployment("test-deployment")
+            .eventType(EventType.CONTAINER_METRIC)
+            .index("test-index")
+            .ip("test-ip")
+            .origin("test-origin-1")
+            .tag("test-key", "test-value")
+            .timestamp(1460991824620929073L)
+            .build());
+    }
+
+    private static ByteBuf encode(String origin) {
+        return Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .containerMetric(new org.cloudfoundry.dropsonde.events.ContainerMetric.Builder()
+                .applicationId("test-application-id")
+                .cpuPercentage(0.5)
+                .diskBytes(2L)
+                .instanceIndex(1)
+                .memoryBytes(3L)
+                .build())
+            .deployment("test-deployment")
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ContainerMetric)
+            .index("test-index")
+            .ip("test-ip")
+            .origin(origin)
+            .tags(FluentMap.<String, String>builder()
+                .entry("test-key", "test-value")
+                .build())
+            .timestamp(1460991824620929073L)
+            .build()));
+    }
+
+}
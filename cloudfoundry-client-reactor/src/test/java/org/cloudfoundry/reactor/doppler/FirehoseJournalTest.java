@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.doppler.Envelope;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FirehoseJournalTest {
+
+    private static final int RECORD_SIZE = encode("test-origin-1").readableBytes() + 4;
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test(expected = IllegalStateException.class)
+    public void close() {
+        FirehoseJournal journal = new FirehoseJournal(this.folder.getRoot().toPath(), 2 * RECORD_SIZE, Long.MAX_VALUE);
+        journal.append(encode("test-origin-1"));
+        journal.close();
+
+        journal.append(encode("test-origin-2"));
+    }
+
+    @Test
+    public void recover() throws Exception {
+        Path directory = this.folder.getRoot().toPath();
+
+        FirehoseJournal journal = new FirehoseJournal(directory, 2 * RECORD_SIZE, Long.MAX_VALUE);
+        journal.append(encode("test-origin-1"));
+        journal.append(encode("test-origin-2"));
+        journal.append(encode("test-origin-3"));
+        journal.sync();
+
+        FirehoseJournal recovered = new FirehoseJournal(directory, 2 * RECORD_SIZE, Long.MAX_VALUE);
+        recovered.append(encode("test-origin-4"));
+
+        assertThat(recovered.getEndOffset()).isEqualTo(4 * RECORD_SIZE);
+        assertThat(getOrigins(recovered, 0)).containsExactly("test-origin-1", "test-origin-2", "test-origin-3", "test-origin-4");
+    }
+
+    @Test
+    public void replay() {
+        FirehoseJournal journal = new FirehoseJournal(this.folder.getRoot().toPath(), 2 * RECORD_SIZE + 1, Long.MAX_VALUE);
+
+        assertThat(journal.append(encode("test-origin-1"))).isEqualTo(0);
+        long offset = journal.append(encode("test-origin-2"));
+        journal.append(encode("test-origin-3"));
+
+        assertThat(getOrigins(journal, 0)).containsExactly("test-origin-1", "test-origin-2", "test-origin-3");
+        assertThat(getOrigins(journal, offset)).containsExactly("test-origin-2", "test-origin-3");
+    }
+
+    @Test
+    public void replayRecords() {
+        FirehoseJournal journal = new FirehoseJournal(this.folder.getRoot().toPath(), 2 * RECORD_SIZE + 1, Long.MAX_VALUE);
+
+        journal.append(encode("test-origin-1"));
+        long offset = journal.append(encode("test-origin-2"));
+        journal.append(encode("test-origin-3"));
+
+        List<JournalRecord> records = journal.replayRecords(0)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(records).extracting(JournalRecord::getOffset).containsExactly(0L, (long) RECORD_SIZE, 2L * RECORD_SIZE + 1);
+        assertThat(records.get(1).getOffset()).isEqualTo(offset);
+        assertThat(records.get(0).getNextOffset()).isEqualTo(offset);
+        assertThat(getOrigins(journal, records.get(1).getNextOffset())).containsExactly("test-origin-3");
+    }
+
+    @Test
+    public void retention() {
+        FirehoseJournal journal = new FirehoseJournal(this.folder.getRoot().toPath(), RECORD_SIZE, 2 * RECORD_SIZE);
+
+        journal.append(encode("test-origin-1"));
+        journal.append(encode("test-origin-2"));
+        journal.append(encode("test-origin-3"));
+
+        assertThat(journal.getStartOffset()).isEqualTo(RECORD_SIZE);
+        assertThat(this.folder.getRoot().list()).hasSize(2);
+        assertThat(getOrigins(journal, 0)).containsExactly("test-origin-2", "test-origin-3");
+    }
+
+    @Test
+    public void retentionDuringReplay() {
+        FirehoseJournal journal = new FirehoseJournal(this.folder.getRoot().toPath(), RECORD_SIZE, 2 * RECORD_SIZE);
+        journal.append(encode("test-origin-1"));
+        journal.append(encode("test-origin-2"));
+
+        AtomicBoolean complete = new AtomicBoolean();
+        List<String> origins = new ArrayList<>();
+        AtomicReference<Subscription> subscription = new AtomicReference<>();
+
+        journal.replay(0).subscribe(new Subscriber<Envelope>() {
+
+            @Override
+            public void onComplete() {
+                complete.set(true);
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+
+            @Override
+            public void onNext(Envelope envelope) {
+                origins.add(envelope.getOrigin());
+            }
+
+            @Override
+            public void onSubscribe(Subscription s) {
+                subscription.set(s);
+                s.request(1);
+            }
+
+        });
+
+        journal.append(encode("test-origin-3"));
+        journal.append(encode("test-origin-4"));
+        assertThat(journal.getStartOffset()).as("segment being replayed is retained").isEqualTo(0);
+
+        subscription.get().request(2);
+
+        assertThat(origins).containsExactly("test-origin-1", "test-origin-2");
+        assertThat(complete.get()).isTrue();
+        assertThat(journal.getStartOffset()).as("segments are deleted once replayed").isEqualTo(2 * RECORD_SIZE);
+        assertThat(this.folder.getRoot().list()).hasSize(2);
+    }
+
+    private static ByteBuf encode(String origin) {
+        return Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.LogMessage)
+            .origin(origin)
+            .build()));
+    }
+
+    private static List<String> getOrigins(FirehoseJournal journal, long offset) {
+        return journal.replay(offset)
+            .map(Envelope::getOrigin)
+            .collectList()
+            .block(Duration.ofSeconds(5));
+    }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.doppler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpHeaders;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.websocketx.CloseWebSocketFrame;
+import org.cloudfoundry.doppler.Envelope;
+import org.cloudfoundry.doppler.FirehoseRequest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.TokenProvider;
+import org.cloudfoundry.util.DelayTimeoutException;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClient;
+import reactor.ipc.netty.http.HttpClientResponse;
+import reactor.ipc.netty.http.HttpException;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class ReactorDopplerEndpointsTest {
+
+    private final ConnectionContext connectionContext = mock(ConnectionContext.class);
+
+    private final Queue<Mono<HttpClientResponse>> connections = new ConcurrentLinkedQueue<>();
+
+    private final HttpClient httpClient = mock(HttpClient.class, invocation -> {
+        String name = invocation.getMethod().getName();
+        return "get".equals(name) || "request".equals(name) ? connect() : RETURNS_DEFAULTS.answer(invocation);
+    });
+
+    private final ReconnectMetrics reconnectMetrics = new ReconnectMetrics();
+
+    private final TokenProvider tokenProvider = mock(TokenProvider.class);
+
+    private Mono<HttpClientResponse> exhausted = Mono.never();
+
+    @Before
+    public void connectionContext() {
+        when(this.connectionContext.getConnectionLimiter()).thenReturn(Optional.empty());
+        when(this.connectionContext.getHttpClient()).thenReturn(this.httpClient);
+        when(this.connectionContext.getRequestInstrumentation()).thenReturn(Optional.empty());
+    }
+
+    @Before
+    public void tokenProvider() {
+        when(this.tokenProvider.getToken(this.connectionContext)).thenReturn(Mono.just("test-token"));
+    }
+
+    @Test
+    public void connections() {
+        this.connections.add(connection(null, "test-origin-1", "test-origin-2"));
+        this.connections.add(connection(null, "test-origin-3"));
+        this.connections.add(connection(null, "test-origin-4", "test-origin-5"));
+        this.exhausted = Mono.error(new IllegalStateException("Unexpected connection"));
+
+        ScriptedSubscriber<List<String>> subscriber = ScriptedSubscriber.<List<String>>create()
+            .expectNext(Arrays.asList("test-origin-1", "test-origin-2", "test-origin-3", "test-origin-4", "test-origin-5"))
+            .expectComplete();
+
+        firehose(null, 3)
+            .collectSortedList()
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        assertThat(this.connections).isEmpty();
+    }
+
+    @Test
+    public void reconnectAfterCompletion() {
+        this.connections.add(connection(null, "test-origin-1"));
+        this.connections.add(connection(null, "test-origin-2"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-origin-1", "test-origin-2")
+            .expectComplete();
+
+        firehose(policy(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)))
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        assertThat(this.reconnectMetrics.getDisconnectCount()).isEqualTo(1);
+        assertThat(this.reconnectMetrics.getReconnectCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconnectAttemptsReset() {
+        this.connections.add(Mono.error(new IOException("test-failure-1")));
+        this.connections.add(Mono.error(new IOException("test-failure-2")));
+        this.connections.add(Mono.error(new IOException("test-failure-3")));
+        this.connections.add(connection(null, "test-origin-1"));
+        this.connections.add(connection(null, "test-origin-2"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-origin-1", "test-origin-2")
+            .expectComplete();
+
+        firehose(policy(Duration.ofMillis(50), Duration.ofSeconds(10), Duration.ofSeconds(5)))
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        assertThat(this.reconnectMetrics.getLastGap()).as("backoff restarts from the minimum once connected").isLessThan(Duration.ofMillis(400));
+    }
+
+    @Test
+    public void reconnectClientError() {
+        this.connections.add(Mono.error(httpException(HttpResponseStatus.FORBIDDEN)));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectError(HttpException.class);
+
+        firehose(policy(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void reconnectSlowConsumerClose() {
+        this.connections.add(connection(1008, "test-origin-1"));
+        this.connections.add(connection(null, "test-origin-2"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-origin-1", "test-origin-2")
+            .expectComplete();
+
+        firehose(policy(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)))
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        assertThat(this.reconnectMetrics.getDisconnectCount()).isEqualTo(1);
+        assertThat(this.reconnectMetrics.getSlowConsumerCloseCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void reconnectTimeout() {
+        this.exhausted = Mono.error(new IOException("test-failure"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectError(DelayTimeoutException.class);
+
+        firehose(policy(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofMillis(200)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void reconnectUnauthorized() {
+        this.connections.add(Mono.error(httpException(HttpResponseStatus.UNAUTHORIZED)));
+        this.connections.add(connection(null, "test-origin-1"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-origin-1")
+            .expectComplete();
+
+        firehose(policy(Duration.ofMillis(10), Duration.ofMillis(10), Duration.ofSeconds(5)))
+            .take(1)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify(this.tokenProvider).invalidate(this.connectionContext, "test-token");
+    }
+
+    private static Mono<HttpClientResponse> connection(Integer closeStatus, String... origins) {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        channel.pipeline().addLast("ws-decoder", new ChannelInboundHandlerAdapter());
+
+        HttpClientResponse inbound = mock(HttpClientResponse.class);
+        when(inbound.delegate()).thenReturn(channel);
+        when(inbound.responseHeaders()).thenReturn(new DefaultHttpHeaders());
+        when(inbound.status()).thenReturn(HttpResponseStatus.SWITCHING_PROTOCOLS);
+        when(inbound.receive()).thenAnswer(invocation -> Flux.defer(() -> {
+            List<ByteBuf> frames = new ArrayList<>();
+            Arrays.stream(origins).forEach(origin -> frames.add(encode(origin)));
+
+            if (closeStatus != null) {
+                channel.writeInbound(new CloseWebSocketFrame(closeStatus, "test-reason"));
+            }
+
+            return Flux.fromIterable(frames);
+        }));
+
+        return Mono.just(inbound);
+    }
+
+    private static ByteBuf encode(String origin) {
+        return Unpooled.wrappedBuffer(org.cloudfoundry.dropsonde.events.Envelope.ADAPTER.encode(new org.cloudfoundry.dropsonde.events.Envelope.Builder()
+            .containerMetric(new org.cloudfoundry.dropsonde.events.ContainerMetric.Builder()
+                .applicationId("test-application-id")
+                .cpuPercentage(0.5)
+                .diskBytes(2L)
+                .instanceIndex(1)
+                .memoryBytes(3L)
+                .build())
+            .eventType(org.cloudfoundry.dropsonde.events.Envelope.EventType.ContainerMetric)
+            .origin(origin)
+            .timestamp(1460991824620929073L)
+            .build()));
+    }
+
+    private static HttpException httpException(HttpResponseStatus status) {
+        HttpException exception = mock(HttpException.class);
+        when(exception.getResponseStatus()).thenReturn(status);
+        return exception;
+    }
+
+    private static ReconnectPolicy policy(Duration minimumBackoff, Duration maximumBackoff, Duration timeout) {
+        return ReconnectPolicy.builder()
+            .jitter(0)
+            .maximumBackoff(maximumBackoff)
+            .minimumBackoff(minimumBackoff)
+            .timeout(timeout)
+            .build();
+    }
+
+    private Mono<HttpClientResponse> connect() {
+        return Optional.ofNullable(this.connections.poll()).orElse(this.exhausted);
+    }
+
+    private Flux<String> firehose(ReconnectPolicy reconnectPolicy) {
+        return firehose(reconnectPolicy, 1);
+    }
+
+    private Flux<String> firehose(ReconnectPolicy reconnectPolicy, int connections) {
+        return new ReactorDopplerEndpoints(this.connectionContext, Mono.just("https://doppler.test"), this.tokenProvider, reconnectPolicy, this.reconnectMetrics, null, new RingBufferMetrics(), null)
+            .firehose(FirehoseRequest.builder()
+                .connections(connections)
+                .subscriptionId("test-subscription-id")
+                .build())
+            .map(Envelope::getOrigin);
+    }
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.tokenprovider;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class AbstractUaaTokenProviderTest {
+
+    private final ConnectionContext connectionContext = mock(ConnectionContext.class);
+
+    private final MockWebServer mockWebServer = new MockWebServer();
+
+    private final BlockingQueue<Long> requestTimes = new LinkedBlockingQueue<>();
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private volatile int expiresIn = 3_600;
+
+    private volatile String lastGrantType;
+
+    private volatile boolean rejectRefresh;
+
+    @Before
+    public void mockUaa() {
+        this.mockWebServer.setDispatcher(new Dispatcher() {
+
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                AbstractUaaTokenProviderTest.this.requestTimes.add(System.nanoTime());
+                AbstractUaaTokenProviderTest.this.lastGrantType = request.getRequestUrl().queryParameter("grant_type");
+
+                if (AbstractUaaTokenProviderTest.this.rejectRefresh && "refresh_token".equals(AbstractUaaTokenProviderTest.this.lastGrantType)) {
+                    return new MockResponse()
+                        .setResponseCode(401);
+                }
+
+                return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(String.format("{\"access_token\":\"test-token-%d\",\"token_type\":\"bearer\",\"expires_in\":%d,\"refresh_token\":\"test-refresh-token\"}",
+                        AbstractUaaTokenProviderTest.this.requests.incrementAndGet(), AbstractUaaTokenProviderTest.this.expiresIn));
+            }
+
+        });
+
+        when(this.connectionContext.getHttpClient()).thenReturn(HttpClient.create());
+        when(this.connectionContext.getObjectMapper()).thenReturn(new ObjectMapper());
+        when(this.connectionContext.getRoot("authorization_endpoint")).thenReturn(Mono.just(UriComponentsBuilder.newInstance()
+            .scheme("http").host(this.mockWebServer.getHostName()).port(this.mockWebServer.getPort())
+            .build().encode().toUriString()));
+    }
+
+    @Test
+    public void invalidate() {
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-1");
+
+        tokenProvider.invalidate(this.connectionContext, "test-token-1");
+        tokenProvider.invalidate(this.connectionContext, "test-token-1");
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-2");
+        assertThat(tokenProvider.getRefreshMetrics().getInvalidationCount()).isEqualTo(1);
+        assertThat(tokenProvider.getRefreshMetrics().getRefreshCount()).isEqualTo(2);
+        assertThat(this.requests.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateRefreshTokenRejected() {
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-1");
+        assertThat(tokenProvider.getRefreshToken()).isEqualTo("test-refresh-token");
+
+        this.rejectRefresh = true;
+        tokenProvider.invalidate(this.connectionContext, "test-token-1");
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-2");
+        assertThat(this.lastGrantType).isEqualTo("client_credentials");
+        assertThat(tokenProvider.getRefreshMetrics().getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void invalidateStale() {
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-1");
+
+        tokenProvider.invalidate(this.connectionContext, "test-token-0");
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-1");
+        assertThat(tokenProvider.getRefreshMetrics().getInvalidationCount()).isEqualTo(0);
+        assertThat(this.requests.get()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidRefreshJitter() {
+        ClientCredentialsGrantTokenProvider.builder()
+            .refreshJitter(1.5)
+            .build();
+    }
+
+    @Test
+    public void refreshProactively() throws InterruptedException {
+        this.expiresIn = 2;
+
+        ClientCredentialsGrantTokenProvider tokenProvider = ClientCredentialsGrantTokenProvider.builder()
+            .refreshJitter(0.5)
+            .refreshMargin(Duration.ofSeconds(1))
+            .build();
+
+        assertThat(tokenProvider.getToken(this.connectionContext).block(Duration.ofSeconds(5))).isEqualTo("test-token-1");
+
+        long first = this.requestTimes.take();
+        Long second = this.requestTimes.poll(5, TimeUnit.SECONDS);
+        tokenProvider.invalidate(this.connectionContext);
+
+        assertThat(second).isNotNull();
+        assertThat(Duration.ofNanos(second - first))
+            .isGreaterThanOrEqualTo(Duration.ofMillis(450))
+            .isLessThan(Duration.ofMillis(1_500));
+    }
+
+    @After
+    public void shutdown() throws IOException {
+        this.mockWebServer.shutdown();
+    }
+
+}
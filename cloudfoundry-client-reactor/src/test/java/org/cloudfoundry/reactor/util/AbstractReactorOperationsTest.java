@@ -0,0 +1,297 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.cloudfoundry.client.v2.CloudFoundryException;
+import org.cloudfoundry.client.v2.applications.UploadApplicationRequest;
+import org.cloudfoundry.client.v2.applications.UploadApplicationResponse;
+import org.cloudfoundry.client.v2.shareddomains.DeleteSharedDomainRequest;
+import org.cloudfoundry.client.v2.shareddomains.GetSharedDomainRequest;
+import org.cloudfoundry.client.v2.shareddomains.GetSharedDomainResponse;
+import org.cloudfoundry.reactor.AbstractRestTest;
+import org.cloudfoundry.reactor.ConnectionContext;
+import org.cloudfoundry.reactor.DefaultConnectionContext;
+import org.cloudfoundry.reactor.DefaultResponseCache;
+import org.cloudfoundry.reactor.InteractionContext;
+import org.cloudfoundry.reactor.TestRequest;
+import org.cloudfoundry.reactor.TestResponse;
+import org.cloudfoundry.reactor.TokenProvider;
+import org.cloudfoundry.reactor.client.v2.applications.ReactorApplicationsV2;
+import org.cloudfoundry.reactor.client.v2.shareddomains.ReactorSharedDomains;
+import org.junit.Test;
+import org.springframework.core.io.ClassPathResource;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClient;
+import reactor.ipc.netty.http.HttpException;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static io.netty.handler.codec.http.HttpMethod.DELETE;
+import static io.netty.handler.codec.http.HttpMethod.GET;
+import static io.netty.handler.codec.http.HttpMethod.PUT;
+import static io.netty.handler.codec.http.HttpResponseStatus.NOT_MODIFIED;
+import static io.netty.handler.codec.http.HttpResponseStatus.NO_CONTENT;
+import static io.netty.handler.codec.http.HttpResponseStatus.OK;
+import static io.netty.handler.codec.http.HttpResponseStatus.UNAUTHORIZED;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class AbstractReactorOperationsTest extends AbstractRestTest {
+
+    private static final String SHARED_DOMAIN_ID = "fa1385de-55ba-41d3-beb2-f83919c634d6";
+
+    private final TestTokenProvider tokenProvider = new TestTokenProvider();
+
+    private final TestOperations operations = new TestOperations(CONNECTION_CONTEXT, this.root, this.tokenProvider);
+
+    @Test
+    public void getCached() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        mockRequest(getSharedDomain(null, OK));
+
+        ScriptedSubscriber<GetSharedDomainResponse> subscriber = sharedDomainExpectations();
+
+        ReactorSharedDomains sharedDomains = new ReactorSharedDomains(cachingConnectionContext(responseCache), this.root, this.tokenProvider);
+        getSharedDomain(sharedDomains)
+            .concatWith(getSharedDomain(sharedDomains))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(responseCache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getCachedInvalidated() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .build();
+
+        mockRequest(getSharedDomain(null, OK),
+            InteractionContext.builder()
+                .request(TestRequest.builder()
+                    .method(DELETE).path(String.format("/v2/shared_domains/%s", SHARED_DOMAIN_ID))
+                    .build())
+                .response(TestResponse.builder()
+                    .status(NO_CONTENT)
+                    .build())
+                .build(),
+            getSharedDomain(null, OK));
+
+        ScriptedSubscriber<GetSharedDomainResponse> subscriber = sharedDomainExpectations();
+
+        ReactorSharedDomains sharedDomains = new ReactorSharedDomains(cachingConnectionContext(responseCache), this.root, this.tokenProvider);
+        getSharedDomain(sharedDomains)
+            .concatWith(sharedDomains
+                .delete(DeleteSharedDomainRequest.builder()
+                    .sharedDomainId(SHARED_DOMAIN_ID)
+                    .build())
+                .then(getSharedDomain(sharedDomains)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(responseCache.getInvalidationCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void getCachedRevalidated() {
+        DefaultResponseCache responseCache = DefaultResponseCache.builder()
+            .ttl("/v2/shared_domains", Duration.ZERO)
+            .build();
+
+        mockRequest(getSharedDomain(null, OK), getSharedDomain("\"test-entity-tag\"", NOT_MODIFIED));
+
+        ScriptedSubscriber<GetSharedDomainResponse> subscriber = sharedDomainExpectations();
+
+        ReactorSharedDomains sharedDomains = new ReactorSharedDomains(cachingConnectionContext(responseCache), this.root, this.tokenProvider);
+        getSharedDomain(sharedDomains)
+            .concatWith(getSharedDomain(sharedDomains))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(responseCache.getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void getRetriedWithNewToken() {
+        mockRequest(unauthorized("bearer test-token-1"), InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/info")
+                .header("Authorization", "bearer test-token-2")
+                .build())
+            .response(TestResponse.builder()
+                .status(OK)
+                .payload("fixtures/client/v2/info/GET_response.json")
+                .build())
+            .build());
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .consumeNextWith(info -> assertThat(info).containsKey("api_version"))
+            .expectComplete();
+
+        this.operations.info()
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(this.tokenProvider.invalidated).containsExactly("test-token-1");
+    }
+
+    @Test
+    public void getRetriedOnce() {
+        mockRequest(unauthorized("bearer test-token-1"), unauthorized("bearer test-token-2"));
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectError(HttpException.class);
+
+        this.operations.info()
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(this.tokenProvider.invalidated).containsExactly("test-token-1");
+    }
+
+    @Test
+    public void uploadNotRetried() throws IOException {
+        mockRequest(InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(PUT).path("/v2/apps/test-application-id/bits")
+                .header("Authorization", "bearer test-token-1")
+                .contents(contents -> {
+                })
+                .build())
+            .response(TestResponse.builder()
+                .status(UNAUTHORIZED)
+                .payload("fixtures/client/v2/error_response.json")
+                .build())
+            .build());
+
+        ScriptedSubscriber<UploadApplicationResponse> subscriber = ScriptedSubscriber.<UploadApplicationResponse>create()
+            .expectError(CloudFoundryException.class);
+
+        new ReactorApplicationsV2(CONNECTION_CONTEXT, this.root, this.tokenProvider)
+            .upload(UploadApplicationRequest.builder()
+                .application(new ClassPathResource("fixtures/client/v2/apps/test-application.zip").getInputStream())
+                .applicationId("test-application-id")
+                .build())
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+        verify();
+        assertThat(this.tokenProvider.invalidated).isEmpty();
+    }
+
+    private static ConnectionContext cachingConnectionContext(DefaultResponseCache responseCache) {
+        return DefaultConnectionContext.builder()
+            .apiHost("localhost")
+            .httpClient(HttpClient.create())
+            .responseCache(responseCache)
+            .build();
+    }
+
+    private static InteractionContext getSharedDomain(String ifNoneMatch, HttpResponseStatus status) {
+        TestRequest.Builder request = TestRequest.builder()
+            .method(GET).path(String.format("/v2/shared_domains/%s", SHARED_DOMAIN_ID));
+
+        if (ifNoneMatch != null) {
+            request.header("If-None-Match", ifNoneMatch);
+        }
+
+        TestResponse.Builder response = TestResponse.builder()
+            .status(status)
+            .header("ETag", "\"test-entity-tag\"");
+
+        if (status == OK) {
+            response.payload("fixtures/client/v2/shared_domains/GET_{id}_response.json");
+        }
+
+        return InteractionContext.builder()
+            .request(request.build())
+            .response(response.build())
+            .build();
+    }
+
+    private static Mono<GetSharedDomainResponse> getSharedDomain(ReactorSharedDomains sharedDomains) {
+        return sharedDomains
+            .get(GetSharedDomainRequest.builder()
+                .sharedDomainId(SHARED_DOMAIN_ID)
+                .build());
+    }
+
+    private static ScriptedSubscriber<GetSharedDomainResponse> sharedDomainExpectations() {
+        return ScriptedSubscriber.<GetSharedDomainResponse>create()
+            .consumeNextWith(response -> assertThat(response.getMetadata().getId()).isEqualTo(SHARED_DOMAIN_ID))
+            .consumeNextWith(response -> assertThat(response.getMetadata().getId()).isEqualTo(SHARED_DOMAIN_ID))
+            .expectComplete();
+    }
+
+    private static InteractionContext unauthorized(String authorization) {
+        return InteractionContext.builder()
+            .request(TestRequest.builder()
+                .method(GET).path("/v2/info")
+                .header("Authorization", authorization)
+                .build())
+            .response(TestResponse.builder()
+                .status(UNAUTHORIZED)
+                .build())
+            .build();
+    }
+
+    private static final class TestOperations extends AbstractReactorOperations {
+
+        private TestOperations(ConnectionContext connectionContext, Mono<String> root, TokenProvider tokenProvider) {
+            super(connectionContext, root, tokenProvider);
+        }
+
+        private Mono<Map> info() {
+            return doGet(Map.class, builder -> builder.pathSegment("v2", "info"), Function.identity());
+        }
+
+    }
+
+    private static final class TestTokenProvider implements TokenProvider {
+
+        private final AtomicInteger generation = new AtomicInteger(1);
+
+        private final List<String> invalidated = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Mono<String> getToken(ConnectionContext connectionContext) {
+            return Mono.defer(() -> Mono.just(String.format("test-token-%d", this.generation.get())));
+        }
+
+        @Override
+        public void invalidate(ConnectionContext connectionContext, String token) {
+            this.invalidated.add(token);
+            this.generation.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+public final class ContentEncodingTest {
+
+    private static final String PAYLOAD = "{\"test-key\":\"test-value\",\"test-array\":[1,2,3,4,5,6,7,8,9,10]}";
+
+    @Test
+    public void decodeDeflate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+            deflater.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext(PAYLOAD)
+            .expectComplete();
+
+        split(out.toByteArray(), 7)
+            .compose(ContentEncoding.decode("deflate"))
+            .reduce("", (payload, chunk) -> payload + chunk.toString(StandardCharsets.UTF_8))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeError() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ScriptedSubscriber<ByteBuf> subscriber = ScriptedSubscriber.<ByteBuf>create()
+            .expectError(IOException.class);
+
+        split(Arrays.copyOf(out.toByteArray(), 10), 5)
+            .concatWith(Flux.error(new IOException("test-failure")))
+            .compose(ContentEncoding.decode("gzip"))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+        }
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext(PAYLOAD)
+            .expectComplete();
+
+        split(out.toByteArray(), 5)
+            .compose(ContentEncoding.decode("gzip"))
+            .reduce("", (payload, chunk) -> payload + chunk.toString(StandardCharsets.UTF_8))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeIdentity() {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext(PAYLOAD)
+            .expectComplete();
+
+        split(PAYLOAD.getBytes(StandardCharsets.UTF_8), 5)
+            .compose(ContentEncoding.decode(null))
+            .reduce("", (payload, chunk) -> payload + chunk.toString(StandardCharsets.UTF_8))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    private static Flux<ByteBuf> split(byte[] bytes, int size) {
+        return Flux.range(0, (bytes.length + size - 1) / size)
+            .map(i -> Unpooled.wrappedBuffer(Arrays.copyOfRange(bytes, i * size, Math.min(bytes.length, (i + 1) * size))));
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.cloudfoundry.util.FluentMap;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class JsonCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void decodePaginatedNullResources() {
+        byte[] payload = "{\"total_results\":0,\"resources\":null,\"next_url\":null}".getBytes(StandardCharsets.UTF_8);
+
+        List<Map> slices = split(payload, 30)
+            .as(JsonCodec.decodePaginated(this.objectMapper, Map.class, false))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(slices).hasSize(1);
+        assertThat(slices.get(0))
+            .containsEntry("next_url", null)
+            .containsEntry("resources", null)
+            .containsEntry("total_results", 0);
+    }
+
+    @Test
+    public void decodeStreamingBufferTypes() {
+        byte[] payload = "{\"test-key\":\"test-value\",\"test-number\":123456789}".getBytes(StandardCharsets.UTF_8);
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectNext(FluentMap.builder()
+                .entry("test-key", "test-value")
+                .entry("test-number", 123456789)
+                .build())
+            .expectComplete();
+
+        Flux.just(Unpooled.directBuffer().writeBytes(payload, 0, 20), Unpooled.wrappedBuffer(payload).slice(20, 10), Unpooled.directBuffer().writeBytes(payload, 30, payload.length - 30))
+            .as(JsonCodec.decodeStreaming(this.objectMapper, Map.class, true))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeStreamingEmpty() {
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectComplete();
+
+        Flux.<ByteBuf>empty()
+            .as(JsonCodec.decodeStreaming(this.objectMapper, Map.class, false))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeStreamingSplitCharacter() {
+        byte[] payload = "{\"test-key\":\"test-€-value\"}".getBytes(StandardCharsets.UTF_8);
+        int character = indexOf(payload, (byte) 0xe2);
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectNext(FluentMap.builder()
+                .entry("test-key", "test-€-value")
+                .build())
+            .expectComplete();
+
+        split(payload, character + 1, character + 2)
+            .as(JsonCodec.decodeStreaming(this.objectMapper, Map.class, false))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeStreamingSplitInvalid() {
+        byte[] payload = "{\"test-key\":\"test-value\"".getBytes(StandardCharsets.UTF_8);
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectError(JsonParsingException.class);
+
+        split(payload, 5, 17)
+            .as(JsonCodec.decodeStreaming(this.objectMapper, Map.class, true))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeStreamingSplitToken() {
+        byte[] payload = "{\"test-key\":\"test-value\",\"test-number\":123456789}".getBytes(StandardCharsets.UTF_8);
+
+        ScriptedSubscriber<Map> subscriber = ScriptedSubscriber.<Map>create()
+            .expectNext(FluentMap.builder()
+                .entry("test-key", "test-value")
+                .entry("test-number", 123456789)
+                .build())
+            .expectComplete();
+
+        split(payload, 5, 17, payload.length - 5)
+            .as(JsonCodec.decodeStreaming(this.objectMapper, Map.class, false))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    private static int indexOf(byte[] bytes, byte b) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+
+        throw new IllegalArgumentException("Byte not found");
+    }
+
+    private static Flux<ByteBuf> split(byte[] bytes, int... offsets) {
+        List<ByteBuf> chunks = new ArrayList<>();
+
+        int start = 0;
+        for (int offset : offsets) {
+            chunks.add(Unpooled.wrappedBuffer(Arrays.copyOfRange(bytes, start, offset)));
+            start = offset;
+        }
+        chunks.add(Unpooled.wrappedBuffer(Arrays.copyOfRange(bytes, start, bytes.length)));
+
+        return Flux.fromIterable(chunks);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.reactor.util;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MultipartCodecTest {
+
+    @Test
+    public void decode() {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-part-1", "test-part-2")
+            .expectComplete();
+
+        Flux.just("--test-boundary\r\n\r\ntest-part-1\r\n--test-boundary\r\n\r\ntest-part-2\r\n--test-boundary--\r\n")
+            .map(MultipartCodecTest::toByteBuf)
+            .compose(MultipartCodec.decode("test-boundary"))
+            .map(MultipartCodecTest::toString)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeHeaders() {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-part-1")
+            .expectComplete();
+
+        Flux.just("test-preamble\r\n--test-boundary\r\nContent-Type: text/plain\r\n\r\ntest-part-1\r\n--test-boundary--")
+            .map(MultipartCodecTest::toByteBuf)
+            .compose(MultipartCodec.decode("test-boundary"))
+            .map(MultipartCodecTest::toString)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeSplit() {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-part-1", "test-part-2")
+            .expectComplete();
+
+        Flux.just("--test-bou", "ndary\r", "\n\r\ntest-pa", "rt-1\r\n--test-boundary\r\n\r\ntest-part-2\r", "\n--test-boundary-", "-\r\n")
+            .map(MultipartCodecTest::toByteBuf)
+            .compose(MultipartCodec.decode("test-boundary"))
+            .map(MultipartCodecTest::toString)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void decodeSplitBytes() {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-part-1", "test-part-2")
+            .expectComplete();
+
+        Flux.just("--test-boundary\r\nContent-Type: text/plain\r\n\r\ntest-part-1\r\n--test-boundary\r\n\r\ntest-part-2\r\n--test-boundary--\r\n")
+            .flatMap(s -> Flux.fromArray(s.split("")))
+            .map(MultipartCodecTest::toByteBuf)
+            .compose(MultipartCodec.decode("test-boundary"))
+            .map(MultipartCodecTest::toString)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getBoundary() {
+        assertThat(MultipartCodec.getBoundary("multipart/x-protobuf; boundary=test-boundary")).isEqualTo("test-boundary");
+        assertThat(MultipartCodec.getBoundary("multipart/form-data; boundary=\"test-boundary\"; charset=UTF-8")).isEqualTo("test-boundary");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getBoundaryMissing() {
+        MultipartCodec.getBoundary("application/json");
+    }
+
+    private static ByteBuf toByteBuf(String s) {
+        return Unpooled.copiedBuffer(s, StandardCharsets.UTF_8);
+    }
+
+    private static String toString(ByteBuf buffer) {
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.reactor.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.HttpClientRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class MultipartHttpClientRequestTest {
+
+    private static final String CONTENT = "test-content";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final CapturingHandler capturingHandler = new CapturingHandler();
+
+    private final Map<String, String> headers = new HashMap<>();
+
+    private final HttpClientRequest outbound = mock(HttpClientRequest.class);
+
+    @Test
+    public void chunked() {
+        EmbeddedChannel channel = new EmbeddedChannel(this.capturingHandler);
+
+        send(channel, new ByteArrayInputStream(CONTENT.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(isFileRegionWritten()).isFalse();
+        assertThat(this.headers).doesNotContainKey("Content-Length");
+        assertThat(this.capturingHandler.toString()).contains(CONTENT);
+    }
+
+    @Test
+    public void fileRegion() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(this.capturingHandler);
+
+        try (InputStream in = new FileInputStream(createFile().toFile())) {
+            send(channel, in);
+        }
+
+        assertThat(isFileRegionWritten()).isTrue();
+        assertThat(this.headers).containsEntry("Content-Length", String.valueOf(this.capturingHandler.bytes.size()));
+        assertThat(this.capturingHandler.toString()).contains(CONTENT).endsWith(String.format("--%s--", getBoundary()));
+    }
+
+    @Test
+    public void sslFallback() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(SslContextBuilder.forClient().build().newHandler(ByteBufAllocator.DEFAULT), this.capturingHandler);
+
+        try (InputStream in = new FileInputStream(createFile().toFile())) {
+            send(channel, in);
+        }
+
+        assertThat(isFileRegionWritten()).isFalse();
+        assertThat(this.headers).containsEntry("Content-Length", String.valueOf(this.capturingHandler.bytes.size()));
+        assertThat(this.capturingHandler.toString()).contains(CONTENT).endsWith(String.format("--%s--", getBoundary()));
+    }
+
+    private Path createFile() throws IOException {
+        Path file = this.folder.newFile().toPath();
+        Files.write(file, CONTENT.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private String getBoundary() {
+        String contentType = this.headers.get("Content-Type");
+        return contentType.substring(contentType.indexOf("boundary=") + "boundary=".length());
+    }
+
+    private boolean isFileRegionWritten() {
+        return this.capturingHandler.types.stream()
+            .anyMatch(FileRegion.class::isAssignableFrom);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void send(EmbeddedChannel channel, InputStream inputStream) {
+        when(this.outbound.delegate()).thenReturn(channel);
+        when(this.outbound.addHeader(any(CharSequence.class), any(CharSequence.class))).thenAnswer(invocation -> {
+            this.headers.put(invocation.getArguments()[0].toString(), invocation.getArguments()[1].toString());
+            return this.outbound;
+        });
+        when(this.outbound.removeTransferEncodingChunked()).thenReturn(this.outbound);
+        when(this.outbound.send(any(Publisher.class))).thenAnswer(invocation -> Flux.from((Publisher<ByteBuf>) invocation.getArguments()[0])
+            .doOnNext(channel::writeAndFlush)
+            .then());
+        when(this.outbound.sendOne(any(ByteBuf.class))).thenAnswer(invocation -> Mono.fromRunnable(() -> channel.writeAndFlush(invocation.getArguments()[0])));
+
+        new MultipartHttpClientRequest(new ObjectMapper(), this.outbound)
+            .addPart(part -> part.setContentDispositionFormData("resources")
+                .send(Collections.emptyList()))
+            .addPart(part -> part.setContentDispositionFormData("application", "application.zip")
+                .addHeader("Content-Type", "application/zip")
+                .sendInputStream(inputStream))
+            .done()
+            .block(Duration.ofSeconds(5));
+    }
+
+    @ChannelHandler.Sharable
+    private static final class CapturingHandler extends ChannelOutboundHandlerAdapter {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private final List<Class<?>> types = new ArrayList<>();
+
+        @Override
+        public String toString() {
+            return new String(this.bytes.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+            this.types.add(msg.getClass());
+
+            if (msg instanceof ByteBuf) {
+                ByteBuf byteBuf = (ByteBuf) msg;
+                byteBuf.readBytes(this.bytes, byteBuf.readableBytes());
+            } else if (msg instanceof FileRegion) {
+                FileRegion fileRegion = (FileRegion) msg;
+                WritableByteChannel target = Channels.newChannel(this.bytes);
+
+                while (fileRegion.transferred() < fileRegion.count()) {
+                    fileRegion.transferTo(target, fileRegion.transferred());
+                }
+            }
+
+            ReferenceCountUtil.release(msg);
+            promise.setSuccess();
+        }
+
+    }
+
+}
@@ -121,6 +121,14 @@ public interface ApplicationsV2 {
      */
     Mono<ListApplicationServiceBindingsResponse> listServiceBindings(ListApplicationServiceBindingsRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/list_all_apps.html">List all Apps</a> request, emitting each resource as soon as it has been parsed.  Each emitted response contains the page metadata and a single resource.
+     *
+     * @param request the List Applications request
+     * @return the resources from the List Applications request, one per response
+     */
+    Flux<ListApplicationsResponse> listStreaming(ListApplicationsRequest request);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps/remove_route_from_the_app.html">Remove Route from the Application</a> request
      *
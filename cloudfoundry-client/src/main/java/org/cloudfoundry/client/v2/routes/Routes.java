@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.client.v2.routes;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -79,6 +80,14 @@ public interface Routes {
      */
     Mono<ListRouteApplicationsResponse> listApplications(ListRouteApplicationsRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/routes/list_all_routes.html">List all Routes</a> request, emitting each resource as soon as it has been parsed.  Each emitted response contains the page metadata and a single resource.
+     *
+     * @param request the List all Routes request
+     * @return the resources from the List all Routes request, one per response
+     */
+    Flux<ListRoutesResponse> listStreaming(ListRoutesRequest request);
+
     /**
      * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/routes/remove_app_from_the_route.html">Remove Application from the Route</a> request
      *
@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.client.v3.applications;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -127,6 +128,14 @@ public interface ApplicationsV3 {
      */
     Mono<ListApplicationProcessesResponse> listProcesses(ListApplicationProcessesRequest request);
 
+    /**
+     * Makes the <a href="http://apidocs.cloudfoundry.org/latest-release/apps_(experimental)/list_all_apps.html">List Applications</a> request, emitting each resource as soon as it has been parsed.  Each emitted response contains the page metadata and a single resource.
+     *
+     * @param request the List Applications request
+     * @return the resources from the List Applications request, one per response
+     */
+    Flux<ListApplicationsResponse> listStreaming(ListApplicationsRequest request);
+
     /**
      * Makes the <a href="http://v3-apidocs.cloudfoundry.org/version/release-candidate/index.html#list-an-app-39-s-tasks">List Application Tasks</a> request
      *
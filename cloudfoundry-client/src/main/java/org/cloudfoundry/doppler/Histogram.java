@@ -0,0 +1,199 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import java.util.Arrays;
+
+/**
+ * A log-linear histogram of non-negative {@code long} values, in the style of an HDR histogram.  Values are counted in buckets whose width is proportional to their magnitude, so any recorded value
+ * can be recovered to within about 3% while the histogram itself stays small regardless of how many values are recorded.  Histograms with the same layout can be merged, so histograms recorded
+ * separately (for example, in different windows or by different consumers) can be combined without access to the original values.  This class is not thread-safe.
+ */
+public final class Histogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+    private long count;
+
+    private long[] counts = new long[SUB_BUCKET_COUNT];
+
+    private long max = Long.MIN_VALUE;
+
+    private long min = Long.MAX_VALUE;
+
+    private double sum;
+
+    /**
+     * Returns a copy of this histogram.  Values recorded into either histogram afterwards are not seen by the other.
+     *
+     * @return a new histogram with the same values recorded
+     */
+    public Histogram copy() {
+        return new Histogram().merge(this);
+    }
+
+    /**
+     * Returns the number of values recorded
+     *
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Returns the largest value recorded
+     *
+     * @return the largest value recorded, or {@code 0} if no values have been recorded
+     */
+    public long getMax() {
+        return this.count == 0 ? 0 : this.max;
+    }
+
+    /**
+     * Returns the mean of the values recorded
+     *
+     * @return the mean of the values recorded, or {@code 0} if no values have been recorded
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : this.sum / this.count;
+    }
+
+    /**
+     * Returns the smallest value recorded
+     *
+     * @return the smallest value recorded, or {@code 0} if no values have been recorded
+     */
+    public long getMin() {
+        return this.count == 0 ? 0 : this.min;
+    }
+
+    /**
+     * Returns the value at a given percentile.  The value returned is the largest value that is equivalent to the recorded value at that percentile, limited to the largest value recorded.
+     *
+     * @param percentile the percentile, between {@code 0} and {@code 100}
+     * @return the value at the percentile, or {@code 0} if no values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException(String.format("Percentile must be between 0 and 100: %f", percentile));
+        }
+
+        if (this.count == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * this.count));
+        long seen = 0;
+
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+
+            if (seen >= target) {
+                return Math.max(this.min, Math.min(this.max, highestEquivalentValue(i)));
+            }
+        }
+
+        return this.max;
+    }
+
+    /**
+     * Adds the values recorded by another histogram to this histogram
+     *
+     * @param histogram the histogram to merge
+     * @return this histogram
+     */
+    public Histogram merge(Histogram histogram) {
+        if (histogram.count == 0) {
+            return this;
+        }
+
+        ensureCapacity(histogram.counts.length);
+        for (int i = 0; i < histogram.counts.length; i++) {
+            this.counts[i] += histogram.counts[i];
+        }
+
+        this.count += histogram.count;
+        this.max = Math.max(this.max, histogram.max);
+        this.min = Math.min(this.min, histogram.min);
+        this.sum += histogram.sum;
+
+        return this;
+    }
+
+    /**
+     * Records a value
+     *
+     * @param value the value to record
+     * @return this histogram
+     */
+    public Histogram record(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(String.format("Value must be non-negative: %d", value));
+        }
+
+        int index = indexOf(value);
+        ensureCapacity(index + 1);
+
+        this.counts[index]++;
+        this.count++;
+        this.max = Math.max(this.max, value);
+        this.min = Math.min(this.min, value);
+        this.sum += value;
+
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Histogram{count=%d, min=%d, max=%d, mean=%f}", getCount(), getMin(), getMax(), getMean());
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF_COUNT + 1;
+        long mantissa = offset % SUB_BUCKET_HALF_COUNT + SUB_BUCKET_HALF_COUNT;
+
+        return ((mantissa + 1) << shift) - 1;
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        int mantissa = (int) (value >>> shift);
+
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF_COUNT + (mantissa - SUB_BUCKET_HALF_COUNT);
+    }
+
+    private void ensureCapacity(int length) {
+        if (this.counts.length < length) {
+            this.counts = Arrays.copyOf(this.counts, Math.max(length, this.counts.length + (this.counts.length >> 1)));
+        }
+    }
+
+}
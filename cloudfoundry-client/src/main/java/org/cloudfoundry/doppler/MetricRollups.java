@@ -0,0 +1,189 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Utilities for rolling up {@link Envelope}s into per-application metrics.  {@link ContainerMetric}s and {@link HttpStartStop}s are recorded into {@link Histogram}s as they arrive, so raw envelopes
+ * are never retained and the memory used depends only on the number of applications in a window.  {@link HttpStartStop}s are only counted from the router's ({@link PeerType#CLIENT}) side of a
+ * request so that each request is counted once.  All other envelopes are ignored.
+ */
+public final class MetricRollups {
+
+    private MetricRollups() {
+    }
+
+    /**
+     * Rolls up {@link Envelope}s over a sliding window.  The envelopes are recorded into tumbling panes of one {@code period} each, and every {@code period} the panes that make up the most recent
+     * {@code window} are merged into a rollup for each application.  The first rollups are emitted once a full window has elapsed, and the partial windows left when the source completes are not
+     * emitted.
+     *
+     * @param window the duration of the window.  Must be a multiple of {@code period}.
+     * @param period the duration between rollups
+     * @return a function from a {@link Flux} of {@link Envelope}s to the rollups of each window
+     */
+    public static Function<Flux<Envelope>, Flux<ApplicationRollup>> sliding(Duration window, Duration period) {
+        if (period.toMillis() < 1 || window.toMillis() < period.toMillis() || window.toMillis() % period.toMillis() != 0) {
+            throw new IllegalArgumentException("window must be a positive multiple of period");
+        }
+
+        int panes = (int) (window.toMillis() / period.toMillis());
+
+        return source -> source
+            .compose(panes(period))
+            .buffer(panes, 1)
+            .filter(buffer -> buffer.size() == panes)
+            .map(MetricRollups::merge)
+            .flatMapIterable(Pane::toRollups);
+    }
+
+    /**
+     * Rolls up {@link Envelope}s over a tumbling window.  Every {@code window}, a rollup is emitted for each application that was seen during that window.
+     *
+     * @param window the duration of the window
+     * @return a function from a {@link Flux} of {@link Envelope}s to the rollups of each window
+     */
+    public static Function<Flux<Envelope>, Flux<ApplicationRollup>> tumbling(Duration window) {
+        if (window.toMillis() < 1) {
+            throw new IllegalArgumentException("window must be positive");
+        }
+
+        return source -> source
+            .compose(panes(window))
+            .flatMapIterable(Pane::toRollups);
+    }
+
+    private static Pane merge(List<Pane> panes) {
+        Pane merged = new Pane();
+
+        panes.forEach(merged::merge);
+        return merged;
+    }
+
+    private static Function<Flux<Envelope>, Flux<Pane>> panes(Duration period) {
+        return source -> source
+            .window(period)
+            .concatMap(window -> window
+                .reduce(new Pane(), Pane::record)
+                .map(Pane::close));
+    }
+
+    private static final class Aggregate {
+
+        private final Histogram cpuPercentage = new Histogram();
+
+        private final Histogram diskBytes = new Histogram();
+
+        private final Histogram httpLatency = new Histogram();
+
+        private final Histogram memoryBytes = new Histogram();
+
+        private final Map<Integer, Long> statusCodes = new HashMap<>();
+
+        private Aggregate merge(Aggregate aggregate) {
+            this.cpuPercentage.merge(aggregate.cpuPercentage);
+            this.diskBytes.merge(aggregate.diskBytes);
+            this.httpLatency.merge(aggregate.httpLatency);
+            this.memoryBytes.merge(aggregate.memoryBytes);
+            aggregate.statusCodes.forEach((statusCode, count) -> this.statusCodes.merge(statusCode, count, Long::sum));
+
+            return this;
+        }
+
+        private ApplicationRollup toRollup(String applicationId, long timestamp) {
+            return ApplicationRollup.builder()
+                .applicationId(applicationId)
+                .cpuPercentage(this.cpuPercentage.copy())
+                .diskBytes(this.diskBytes.copy())
+                .httpLatency(this.httpLatency.copy())
+                .memoryBytes(this.memoryBytes.copy())
+                .statusCodes(this.statusCodes)
+                .timestamp(timestamp)
+                .build();
+        }
+
+    }
+
+    private static final class Pane {
+
+        private final Map<String, Aggregate> aggregates = new HashMap<>();
+
+        private long timestamp;
+
+        private Pane close() {
+            this.timestamp = Schedulers.timer().now(TimeUnit.MILLISECONDS);
+            return this;
+        }
+
+        private Aggregate getAggregate(String applicationId) {
+            return this.aggregates.computeIfAbsent(applicationId, k -> new Aggregate());
+        }
+
+        private Pane merge(Pane pane) {
+            pane.aggregates.forEach((applicationId, aggregate) -> getAggregate(applicationId).merge(aggregate));
+            this.timestamp = Math.max(this.timestamp, pane.timestamp);
+
+            return this;
+        }
+
+        private Pane record(Envelope envelope) {
+            Optional.ofNullable(envelope.getContainerMetric())
+                .ifPresent(this::record);
+
+            Optional.ofNullable(envelope.getHttpStartStop())
+                .filter(httpStartStop -> httpStartStop.getApplicationId() != null && PeerType.CLIENT == httpStartStop.getPeerType())
+                .ifPresent(this::record);
+
+            return this;
+        }
+
+        private void record(ContainerMetric containerMetric) {
+            Aggregate aggregate = getAggregate(containerMetric.getApplicationId());
+
+            aggregate.cpuPercentage.record(Math.max(0, Math.round(containerMetric.getCpuPercentage() * 100)));
+            aggregate.diskBytes.record(Math.max(0, containerMetric.getDiskBytes()));
+            aggregate.memoryBytes.record(Math.max(0, containerMetric.getMemoryBytes()));
+        }
+
+        private void record(HttpStartStop httpStartStop) {
+            Aggregate aggregate = getAggregate(httpStartStop.getApplicationId().toString());
+
+            aggregate.httpLatency.record(Math.max(0, httpStartStop.getStopTimestamp() - httpStartStop.getStartTimestamp()));
+            aggregate.statusCodes.merge(httpStartStop.getStatusCode(), 1L, Long::sum);
+        }
+
+        private List<ApplicationRollup> toRollups() {
+            List<ApplicationRollup> rollups = new ArrayList<>(this.aggregates.size());
+
+            this.aggregates.forEach((applicationId, aggregate) -> rollups.add(aggregate.toRollup(applicationId, this.timestamp)));
+            return rollups;
+        }
+
+    }
+
+}
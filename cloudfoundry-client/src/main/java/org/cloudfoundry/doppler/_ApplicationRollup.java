@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+/**
+ * Resource usage and HTTP traffic of an application, rolled up over a window of {@link Envelope}s.  See {@link MetricRollups}.  Each rollup emitted by {@link MetricRollups} has its own copy of
+ * its {@link Histogram}s, so they are not changed by later windows.
+ */
+@Value.Immutable
+abstract class _ApplicationRollup {
+
+    /**
+     * The ID of the application
+     */
+    abstract String getApplicationId();
+
+    /**
+     * The CPU used, in hundredths of a percent
+     */
+    abstract Histogram getCpuPercentage();
+
+    /**
+     * The bytes of disk used
+     */
+    abstract Histogram getDiskBytes();
+
+    /**
+     * The latency of HTTP requests, in nanoseconds
+     */
+    abstract Histogram getHttpLatency();
+
+    /**
+     * The bytes of memory used
+     */
+    abstract Histogram getMemoryBytes();
+
+    /**
+     * The number of HTTP responses with each status code
+     */
+    abstract Map<Integer, Long> getStatusCodes();
+
+    /**
+     * The UNIX timestamp (in milliseconds) at which the window closed
+     */
+    abstract Long getTimestamp();
+
+}
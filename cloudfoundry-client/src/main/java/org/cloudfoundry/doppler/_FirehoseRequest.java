@@ -17,18 +17,41 @@
 package org.cloudfoundry.doppler;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.cloudfoundry.Nullable;
 import org.immutables.value.Value;
 
+import java.util.Set;
+
 /**
  * The request payload for the Firehose endpoint
  */
 @Value.Immutable
 abstract class _FirehoseRequest {
 
+    /**
+     * The number of connections to open with the subscription id.  Doppler balances the events of a subscription across all of its connections.  Defaults to one.
+     */
+    @JsonIgnore
+    @Nullable
+    abstract Integer getConnections();
+
+    /**
+     * The types of event to receive.  Events of other types are discarded before they are decoded.  If empty, events of all types are received.
+     */
+    @JsonIgnore
+    abstract Set<EventType> getEventTypes();
+
     /**
      * The subscription id
      */
     @JsonIgnore
     abstract String getSubscriptionId();
 
+    @Value.Check
+    void check() {
+        if (getConnections() != null && getConnections() < 1) {
+            throw new IllegalStateException("Cannot build FirehoseRequest, connections must be at least 1");
+        }
+    }
+
 }
@@ -19,6 +19,8 @@ package org.cloudfoundry.doppler;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.immutables.value.Value;
 
+import java.util.Set;
+
 /**
  * The request payload for the Stream endpoint
  */
@@ -31,4 +33,10 @@ abstract class _StreamRequest {
     @JsonIgnore
     abstract String getApplicationId();
 
+    /**
+     * The types of event to receive.  Events of other types are discarded before they are decoded.  If empty, events of all types are received.
+     */
+    @JsonIgnore
+    abstract Set<EventType> getEventTypes();
+
 }
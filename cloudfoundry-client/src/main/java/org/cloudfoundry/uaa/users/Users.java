@@ -16,6 +16,7 @@
 
 package org.cloudfoundry.uaa.users;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
@@ -71,6 +72,15 @@ public interface Users {
      */
     Mono<ListUsersResponse> list(ListUsersRequest request);
 
+    /**
+     * Makes the <a href="http://docs.cloudfoundry.com/uaa/#list">List Users</a> request.  UAA sends the page metadata after the {@code resources} array, so resources cannot be emitted as they are
+     * parsed: each page is buffered in full and emitted as a single response containing all of its resources.
+     *
+     * @param request the List Users request
+     * @return the pages from the List Users request, one per response
+     */
+    Flux<ListUsersResponse> listStreaming(ListUsersRequest request);
+
     /**
      * Makes the <a href="http://docs.cloudfoundry.com/uaa/#lookup-user-ids-usernames">Lookup User IDs/Usernames</a> request
      *
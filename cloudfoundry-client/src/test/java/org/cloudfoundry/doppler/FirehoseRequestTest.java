@@ -20,6 +20,14 @@ import org.junit.Test;
 
 public final class FirehoseRequestTest {
 
+    @Test(expected = IllegalStateException.class)
+    public void invalidConnections() {
+        FirehoseRequest.builder()
+            .connections(0)
+            .subscriptionId("test-subscription-id")
+            .build();
+    }
+
     @Test(expected = IllegalStateException.class)
     public void noSubscriptionId() {
         FirehoseRequest.builder()
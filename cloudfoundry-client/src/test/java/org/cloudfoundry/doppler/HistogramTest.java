@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public final class HistogramTest {
+
+    @Test
+    public void copy() {
+        Histogram histogram = new Histogram().record(1);
+        Histogram copy = histogram.copy();
+
+        histogram.record(2);
+
+        assertThat(copy.getCount()).isEqualTo(1);
+        assertThat(copy.getMax()).isEqualTo(1);
+    }
+
+    @Test
+    public void empty() {
+        Histogram histogram = new Histogram();
+
+        assertThat(histogram.getCount()).isEqualTo(0);
+        assertThat(histogram.getMax()).isEqualTo(0);
+        assertThat(histogram.getMean()).isEqualTo(0);
+        assertThat(histogram.getMin()).isEqualTo(0);
+        assertThat(histogram.getValueAtPercentile(50)).isEqualTo(0);
+    }
+
+    @Test
+    public void merge() {
+        Histogram first = new Histogram();
+        Histogram second = new Histogram();
+
+        for (long i = 1; i <= 500; i++) {
+            first.record(i);
+            second.record(i + 500);
+        }
+
+        Histogram histogram = first.merge(second);
+
+        assertThat(histogram.getCount()).isEqualTo(1000);
+        assertThat(histogram.getMax()).isEqualTo(1000);
+        assertThat(histogram.getMin()).isEqualTo(1);
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(500L, within(16L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void recordNegative() {
+        new Histogram().record(-1);
+    }
+
+    @Test
+    public void valueAtPercentile() {
+        Histogram histogram = new Histogram();
+
+        for (long i = 1; i <= 1_000_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertThat(histogram.getMean()).isCloseTo(500_000_500.0, within(1.0));
+        assertThat(histogram.getValueAtPercentile(50)).isCloseTo(500_000_000L, within(16_000_000L));
+        assertThat(histogram.getValueAtPercentile(99)).isCloseTo(990_000_000L, within(31_000_000L));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(1_000_000_000L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueAtPercentileInvalid() {
+        new Histogram().getValueAtPercentile(101);
+    }
+
+}
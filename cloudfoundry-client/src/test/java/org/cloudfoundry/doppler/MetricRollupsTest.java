@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.doppler;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MetricRollupsTest {
+
+    private static final UUID APPLICATION_ID = UUID.fromString("1a95eadc-95c6-4675-aa07-8c02f80ea8a4");
+
+    @After
+    public void disableVirtualTime() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Before
+    public void enableVirtualTime() {
+        VirtualTimeScheduler.enable(true);
+    }
+
+    @Test
+    public void sliding() {
+        ScriptedSubscriber<Long> subscriber = ScriptedSubscriber.<Long>create()
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(5)))
+            .expectNext(200L)
+            .expectNext(300L)
+            .expectNext(400L)
+            .expectComplete();
+
+        Flux.interval(Duration.ofMillis(500), Duration.ofSeconds(1))
+            .take(4)
+            .map(i -> containerMetric(50.0, 100L * (i + 1)))
+            .compose(MetricRollups.sliding(Duration.ofSeconds(2), Duration.ofSeconds(1)))
+            .map(rollup -> {
+                assertThat(rollup.getMemoryBytes().getCount()).isEqualTo(2L);
+                return rollup.getMemoryBytes().getMax();
+            })
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void slidingInvalidPeriod() {
+        MetricRollups.sliding(Duration.ofSeconds(10), Duration.ofSeconds(3));
+    }
+
+    @Test
+    public void tumbling() {
+        List<ApplicationRollup> rollups = Flux.just(containerMetric(50.0, 100L), containerMetric(25.5, 300L), httpStartStop(PeerType.CLIENT, 200, 2_000_000L),
+            httpStartStop(PeerType.CLIENT, 503, 4_000_000L), httpStartStop(PeerType.SERVER, 200, 1_000_000L))
+            .compose(MetricRollups.tumbling(Duration.ofSeconds(10)))
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(rollups).hasSize(1);
+
+        ApplicationRollup rollup = rollups.get(0);
+        assertThat(rollup.getApplicationId()).isEqualTo(APPLICATION_ID.toString());
+        assertThat(rollup.getCpuPercentage().getMax()).isEqualTo(5000L);
+        assertThat(rollup.getCpuPercentage().getMin()).isEqualTo(2550L);
+        assertThat(rollup.getDiskBytes().getCount()).isEqualTo(2L);
+        assertThat(rollup.getHttpLatency().getCount()).isEqualTo(2L);
+        assertThat(rollup.getHttpLatency().getMax()).isEqualTo(4_000_000L);
+        assertThat(rollup.getMemoryBytes().getMax()).isEqualTo(300L);
+        assertThat(rollup.getStatusCodes())
+            .containsEntry(200, 1L)
+            .containsEntry(503, 1L);
+    }
+
+    private static Envelope containerMetric(Double cpuPercentage, Long memoryBytes) {
+        return Envelope.builder()
+            .containerMetric(ContainerMetric.builder()
+                .applicationId(APPLICATION_ID.toString())
+                .cpuPercentage(cpuPercentage)
+                .diskBytes(1L)
+                .instanceIndex(0)
+                .memoryBytes(memoryBytes)
+                .build())
+            .eventType(EventType.CONTAINER_METRIC)
+            .origin("test-origin")
+            .build();
+    }
+
+    private static Envelope httpStartStop(PeerType peerType, Integer statusCode, Long latency) {
+        return Envelope.builder()
+            .eventType(EventType.HTTP_START_STOP)
+            .httpStartStop(HttpStartStop.builder()
+                .applicationId(APPLICATION_ID)
+                .contentLength(0L)
+                .method(Method.GET)
+                .peerType(peerType)
+                .remoteAddress("test-remote-address")
+                .requestId(UUID.randomUUID())
+                .startTimestamp(1_000_000L)
+                .statusCode(statusCode)
+                .stopTimestamp(1_000_000L + latency)
+                .uri("test-uri")
+                .userAgent("test-user-agent")
+                .build())
+            .origin("test-origin")
+            .build();
+    }
+
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * A cache of name to id resolutions, shared between operations.  Concurrent resolutions of the same name share a single request, successful resolutions are retained for a time-to-live, and
+ * failed or empty resolutions are never retained.  Resolutions are held separately for each {@link CloudFoundryClient}, so that a cache shared between operations for different foundations or
+ * users never returns another's resolution, and the least recently used resolutions are evicted once the maximum number of entries is reached.  Operations that delete or rename a resource
+ * invalidate its entry.
+ */
+public final class ResolverCache {
+
+    private static final int DEFAULT_MAXIMUM_ENTRIES = 1_000;
+
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    private final Map<Key, Entry> entries;
+
+    private final Object monitor = new Object();
+
+    private final Duration ttl;
+
+    /**
+     * Creates a new instance with a time-to-live of one minute and a maximum of 1000 entries
+     */
+    public ResolverCache() {
+        this(DEFAULT_TTL);
+    }
+
+    /**
+     * Creates a new instance with a maximum of 1000 entries
+     *
+     * @param ttl the time-to-live of resolutions.  A {@link Duration#ZERO zero} time-to-live disables caching.
+     */
+    public ResolverCache(Duration ttl) {
+        this(ttl, DEFAULT_MAXIMUM_ENTRIES);
+    }
+
+    /**
+     * Creates a new instance
+     *
+     * @param ttl            the time-to-live of resolutions.  A {@link Duration#ZERO zero} time-to-live disables caching.
+     * @param maximumEntries the maximum number of resolutions to retain
+     */
+    public ResolverCache(Duration ttl, int maximumEntries) {
+        this.entries = new LinkedHashMap<Key, Entry>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 7214365215736385409L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maximumEntries;
+            }
+
+        };
+        this.ttl = ttl;
+    }
+
+    /**
+     * Invalidates a resolution for every {@link CloudFoundryClient}
+     *
+     * @param type  the type of resource
+     * @param scope the id of the resource the name is scoped to (e.g. the space id of an application), or {@code null} if the name is global
+     * @param name  the name of the resource
+     */
+    public void invalidate(Type type, String scope, String name) {
+        synchronized (this.monitor) {
+            this.entries.keySet().removeIf(key -> key.type == type && Objects.equals(key.scope, scope) && Objects.equals(key.name, name));
+        }
+    }
+
+    /**
+     * Resolves a name to an id, using a cached resolution if one exists
+     *
+     * @param cloudFoundryClient the client the resolution is made with
+     * @param type               the type of resource
+     * @param scope              the id of the resource the name is scoped to (e.g. the space id of an application), or {@code null} if the name is global
+     * @param name               the name of the resource
+     * @param resolver           the resolution to use if no cached resolution exists
+     * @return the id of the resource
+     */
+    public Mono<String> resolve(CloudFoundryClient cloudFoundryClient, Type type, String scope, String name, Supplier<Mono<String>> resolver) {
+        if (this.ttl.isZero()) {
+            return resolver.get();
+        }
+
+        Key key = new Key(cloudFoundryClient, type, scope, name);
+
+        return Mono.defer(() -> {
+            synchronized (this.monitor) {
+                return this.entries
+                    .compute(key, (k, entry) -> entry == null || entry.isExpired() ? new Entry(k, resolver.get()) : entry)
+                    .id;
+            }
+        });
+    }
+
+    /**
+     * The types of resource that names are resolved for
+     */
+    public enum Type {
+
+        APPLICATION,
+
+        DOMAIN,
+
+        ORGANIZATION,
+
+        SERVICE_INSTANCE,
+
+        SPACE
+
+    }
+
+    private final class Entry {
+
+        private final Instant expiration;
+
+        private final Mono<String> id;
+
+        private Entry(Key key, Mono<String> resolution) {
+            this.expiration = Instant.now().plus(ResolverCache.this.ttl);
+            this.id = resolution
+                .doOnSuccess(id -> {
+                    if (id == null) {
+                        remove(key);
+                    }
+                })
+                .doOnError(t -> remove(key))
+                .cache();
+        }
+
+        private boolean isExpired() {
+            return !Instant.now().isBefore(this.expiration);
+        }
+
+        private void remove(Key key) {
+            synchronized (ResolverCache.this.monitor) {
+                ResolverCache.this.entries.remove(key, this);
+            }
+        }
+
+    }
+
+    private static final class Key {
+
+        private final CloudFoundryClient cloudFoundryClient;
+
+        private final String name;
+
+        private final String scope;
+
+        private final Type type;
+
+        private Key(CloudFoundryClient cloudFoundryClient, Type type, String scope, String name) {
+            this.cloudFoundryClient = cloudFoundryClient;
+            this.name = name;
+            this.scope = scope;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            Key key = (Key) o;
+            return this.cloudFoundryClient == key.cloudFoundryClient && this.type == key.type && Objects.equals(this.scope, key.scope) && Objects.equals(this.name, key.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(this.cloudFoundryClient), this.type, this.scope, this.name);
+        }
+
+    }
+
+}
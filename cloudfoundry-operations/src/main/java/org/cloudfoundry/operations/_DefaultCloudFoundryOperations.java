@@ -48,6 +48,7 @@ import org.cloudfoundry.operations.spaces.Spaces;
 import org.cloudfoundry.operations.stacks.DefaultStacks;
 import org.cloudfoundry.operations.stacks.Stacks;
 import org.cloudfoundry.uaa.UaaClient;
+import org.cloudfoundry.util.ArtifactCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
@@ -55,9 +56,12 @@ import org.immutables.value.Value;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.Optional;
 
+import static org.cloudfoundry.util.tuple.TupleUtils.function;
+
 /**
  * The default implementation of the {@link CloudFoundryOperations} interface
  */
@@ -73,7 +77,9 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Applications applications() {
-        return new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getSpaceId());
+        return Optional.ofNullable(getArtifactCache())
+            .map(artifactCache -> new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), artifactCache, getEffectiveResolverCache(), getSpaceId()))
+            .orElseGet(() -> new DefaultApplications(getCloudFoundryClientPublisher(), getDopplerClientPublisher(), getEffectiveResolverCache(), getSpaceId()));
     }
 
     @Override
@@ -85,7 +91,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Domains domains() {
-        return new DefaultDomains(getCloudFoundryClientPublisher());
+        return new DefaultDomains(getCloudFoundryClientPublisher(), getEffectiveResolverCache());
     }
 
     @Override
@@ -97,13 +103,13 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Organizations organizations() {
-        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getUsername());
+        return new DefaultOrganizations(getCloudFoundryClientPublisher(), getEffectiveResolverCache(), getUsername());
     }
 
     @Override
     @Value.Derived
     public Routes routes() {
-        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultRoutes(getCloudFoundryClientPublisher(), getOrganizationId(), getEffectiveResolverCache(), getSpaceId());
     }
 
     @Override
@@ -115,7 +121,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Services services() {
-        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getSpaceId());
+        return new DefaultServices(getCloudFoundryClientPublisher(), getOrganizationId(), getEffectiveResolverCache(), getSpaceId());
     }
 
     @Override
@@ -127,7 +133,7 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Override
     @Value.Derived
     public Spaces spaces() {
-        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getUsername());
+        return new DefaultSpaces(getCloudFoundryClientPublisher(), getOrganizationId(), getEffectiveResolverCache(), getUsername());
     }
 
     @Override
@@ -136,6 +142,12 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
         return new DefaultStacks(getCloudFoundryClientPublisher());
     }
 
+    /**
+     * The cache of application artifacts to use when pushing.  Share a single instance between operations to reuse fingerprints and archives between pushes.
+     */
+    @Nullable
+    abstract ArtifactCache getArtifactCache();
+
     /**
      * The {@link CloudFoundryClient} to use for operations functionality
      */
@@ -162,6 +174,12 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
             .orElse(Mono.error(new IllegalStateException("DopplerClient must be set")));
     }
 
+    @Value.Derived
+    ResolverCache getEffectiveResolverCache() {
+        return Optional.ofNullable(getResolverCache())
+            .orElse(new ResolverCache(Duration.ZERO));
+    }
+
     /**
      * The organization to target
      */
@@ -171,12 +189,20 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Value.Derived
     Mono<String> getOrganizationId() {
         return Optional.ofNullable(getOrganization())
-            .map(organization -> getOrganization(getCloudFoundryClientPublisher(), organization)
-                .map(ResourceUtils::getId)
+            .map(organization -> getCloudFoundryClientPublisher()
+                .then(cloudFoundryClient -> getEffectiveResolverCache()
+                    .resolve(cloudFoundryClient, ResolverCache.Type.ORGANIZATION, null, organization, () -> getOrganization(getCloudFoundryClientPublisher(), organization)
+                        .map(ResourceUtils::getId)))
                 .cache())
             .orElse(Mono.error(new IllegalStateException("No organization targeted")));
     }
 
+    /**
+     * The (optional) cache of name to id resolutions.  If not set, names are resolved on every operation.  Share a single instance between operations to share resolutions between them.
+     */
+    @Nullable
+    abstract ResolverCache getResolverCache();
+
     /**
      * The space to target
      */
@@ -186,9 +212,11 @@ abstract class _DefaultCloudFoundryOperations implements CloudFoundryOperations
     @Value.Derived
     Mono<String> getSpaceId() {
         return Optional.ofNullable(getSpace())
-            .map(space -> getOrganizationId()
-                .then(organizationId -> getSpace(getCloudFoundryClientPublisher(), organizationId, space))
-                .map(ResourceUtils::getId)
+            .map(space -> Mono
+                .when(getCloudFoundryClientPublisher(), getOrganizationId())
+                .then(function((cloudFoundryClient, organizationId) -> getEffectiveResolverCache()
+                    .resolve(cloudFoundryClient, ResolverCache.Type.SPACE, organizationId, space, () -> getSpace(getCloudFoundryClientPublisher(), organizationId, space)
+                        .map(ResourceUtils::getId))))
                 .cache())
             .orElse(Mono.error(new IllegalStateException("No space targeted")));
     }
@@ -37,6 +37,7 @@ import org.cloudfoundry.client.v2.applications.GetApplicationResponse;
 import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -83,6 +84,8 @@ import org.cloudfoundry.doppler.EventType;
 import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
+import org.cloudfoundry.operations.ResolverCache;
+import org.cloudfoundry.util.ArtifactCache;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.DelayTimeoutException;
 import org.cloudfoundry.util.ExceptionUtils;
@@ -91,6 +94,7 @@ import org.cloudfoundry.util.FluentMap;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.OperationUtils;
 import org.cloudfoundry.util.PaginationUtils;
+import org.cloudfoundry.util.ResourceMatchingUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import org.cloudfoundry.util.SortingUtils;
 import reactor.core.publisher.Flux;
@@ -110,10 +114,12 @@ import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 import static org.cloudfoundry.util.DelayUtils.exponentialBackOff;
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
@@ -143,20 +149,41 @@ public final class DefaultApplications implements Applications {
 
     private final Mono<DopplerClient> dopplerClient;
 
-    private final Function<Path, InputStream> pathTransformer;
+    private final BiFunction<Path, Set<String>, InputStream> pathTransformer;
 
     private final RandomWords randomWords;
 
+    private final ResolverCache resolverCache;
+
+    private final BiFunction<CloudFoundryClient, Path, Mono<List<Resource>>> resourceMatcher;
+
     private final Mono<String> spaceId;
 
     public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Mono<String> spaceId) {
-        this(cloudFoundryClient, dopplerClient, FileUtils::toInputStream, spaceId, new WordListRandomWords());
+        this(cloudFoundryClient, dopplerClient, new ResolverCache(Duration.ZERO), spaceId);
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, ResolverCache resolverCache, Mono<String> spaceId) {
+        this(cloudFoundryClient, dopplerClient, FileUtils::toInputStream, resolverCache, ResourceMatchingUtils::getMatchedResources, spaceId, new WordListRandomWords());
+    }
+
+    public DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, ArtifactCache artifactCache, ResolverCache resolverCache, Mono<String> spaceId) {
+        this(cloudFoundryClient, dopplerClient, artifactCache::getArchive, resolverCache,
+            (cloudFoundryClient1, path) -> ResourceMatchingUtils.getMatchedResources(cloudFoundryClient1, path, artifactCache), spaceId, new WordListRandomWords());
     }
 
     DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, Function<Path, InputStream> pathTransformer, Mono<String> spaceId, RandomWords randomWords) {
+        this(cloudFoundryClient, dopplerClient, (path, excludedNames) -> pathTransformer.apply(path), new ResolverCache(Duration.ZERO),
+            (cloudFoundryClient1, path) -> Mono.just(Collections.emptyList()), spaceId, randomWords);
+    }
+
+    DefaultApplications(Mono<CloudFoundryClient> cloudFoundryClient, Mono<DopplerClient> dopplerClient, BiFunction<Path, Set<String>, InputStream> pathTransformer, ResolverCache resolverCache,
+                        BiFunction<CloudFoundryClient, Path, Mono<List<Resource>>> resourceMatcher, Mono<String> spaceId, RandomWords randomWords) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.dopplerClient = dopplerClient;
         this.pathTransformer = pathTransformer;
+        this.resolverCache = resolverCache;
+        this.resourceMatcher = resourceMatcher;
         this.spaceId = spaceId;
         this.randomWords = randomWords;
     }
@@ -167,8 +194,8 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId),
-                getApplicationIdFromOrgSpace(cloudFoundryClient, request.getTargetName(), spaceId, request.getTargetOrganization(), request.getTargetSpace())
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId),
+                getApplicationIdFromOrgSpace(cloudFoundryClient, this.resolverCache, request.getTargetName(), spaceId, request.getTargetOrganization(), request.getTargetSpace())
             )))
             .then(function((cloudFoundryClient, sourceApplicationId, targetApplicationId) -> copyBits(cloudFoundryClient, sourceApplicationId, targetApplicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, targetApplicationId)))))
@@ -181,13 +208,14 @@ public final class DefaultApplications implements Applications {
     public Mono<Void> delete(DeleteApplicationRequest request) {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .then(function((cloudFoundryClient, spaceId) -> getRoutesAndApplicationId(cloudFoundryClient, request, spaceId, Optional.ofNullable(request.getDeleteRoutes()).orElse(false))
+            .then(function((cloudFoundryClient, spaceId) -> getRoutesAndApplicationId(cloudFoundryClient, this.resolverCache, request, spaceId, Optional.ofNullable(request.getDeleteRoutes()).orElse(false))
                 .map(function((routes, applicationId) -> Tuples.of(cloudFoundryClient, routes, applicationId)))))
             .then(function((cloudFoundryClient, routes, applicationId) -> deleteRoutes(cloudFoundryClient, routes)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
             .then(function((cloudFoundryClient, applicationId) -> removeServiceBindings(cloudFoundryClient, applicationId)
                 .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-            .then(function(DefaultApplications::requestDeleteApplication));
+            .then(function(DefaultApplications::requestDeleteApplication))
+            .then(invalidateApplicationId(this.resolverCache, this.spaceId, request.getName()));
     }
 
     @Override
@@ -232,7 +260,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
@@ -251,7 +279,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function(DefaultApplications::requestApplicationEnvironment))
             .map(DefaultApplications::toApplicationEnvironments);
@@ -263,7 +291,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .flatMap(function((cloudFoundryClient, applicationId) -> requestEvents(applicationId, cloudFoundryClient)
                 .take(Optional.ofNullable(request.getMaxNumberOfEvents()).orElse(MAX_NUMBER_OF_RECENT_EVENTS))))
@@ -291,30 +319,33 @@ public final class DefaultApplications implements Applications {
     public Flux<LogMessage> logs(LogsRequest request) {
         return Mono
             .when(this.cloudFoundryClient, this.spaceId)
-            .then(function((cloudFoundryClient, spaceId) -> getApplicationId(cloudFoundryClient, request.getName(), spaceId)))
+            .then(function((cloudFoundryClient, spaceId) -> getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)))
             .flatMap(applicationId -> getLogs(this.dopplerClient, applicationId, request.getRecent()));
     }
 
     @Override
     public Mono<Void> push(PushApplicationRequest request) {
         if (request.getApplication() != null) {
-            return this.cloudFoundryClient
-                .then(cloudFoundryClient -> Mono.when(
-                    Mono.just(cloudFoundryClient),
-                    this.spaceId,
-                    getOptionalStackId(cloudFoundryClient, request.getStack())
-                ))
-                .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
-                    Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
-                    Mono.just(this.pathTransformer.apply(request.getApplication())),
-                    Mono.just(spaceId)
-                )))
-                .then(function((cloudFoundryClient, applicationId, inputStream, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
-                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, inputStream)))))
-                .then(function((cloudFoundryClient, applicationId, inputStream) -> uploadApplicationAndWait(cloudFoundryClient, applicationId, inputStream)
-                    .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
-                .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request)));
+            return Mono
+                .using(() -> FileUtils.normalize(request.getApplication()), application -> this.cloudFoundryClient
+                    .then(cloudFoundryClient -> Mono.when(
+                        Mono.just(cloudFoundryClient),
+                        this.spaceId,
+                        getOptionalStackId(cloudFoundryClient, request.getStack())
+                    ))
+                    .then(function((cloudFoundryClient, spaceId, stackId) -> Mono.when(
+                        Mono.just(cloudFoundryClient),
+                        getApplicationId(cloudFoundryClient, request, spaceId, stackId.orElse(null)),
+                        this.resourceMatcher.apply(cloudFoundryClient, application),
+                        Mono.just(spaceId)
+                    )))
+                    .then(function((cloudFoundryClient, applicationId, matchedResources, spaceId) -> prepareDomainsAndRoutes(cloudFoundryClient, request, applicationId, spaceId, this.randomWords)
+                        .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId, matchedResources)))))
+                    .then(function((cloudFoundryClient, applicationId, matchedResources) -> uploadApplicationAndWait(cloudFoundryClient, applicationId,
+                        this.pathTransformer.apply(application, getPaths(matchedResources)), matchedResources)
+                        .then(Mono.just(Tuples.of(cloudFoundryClient, applicationId)))))
+                    .then(function((cloudFoundryClient, applicationId) -> stopAndStartApplication(cloudFoundryClient, applicationId, request))),
+                    application -> FileUtils.close(request.getApplication(), application));
         } else if (request.getDockerImage() != null) {
             return this.cloudFoundryClient
                 .then(cloudFoundryClient -> Mono.when(
@@ -341,10 +372,10 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationName(cloudFoundryClient, applicationId, request.getNewName())))
-            .then();
+            .then(invalidateApplicationId(this.resolverCache, this.spaceId, request.getName()));
     }
 
     @Override
@@ -353,7 +384,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> restageApplication(cloudFoundryClient, request.getName(), applicationId, request.getStagingTimeout(), request.getStartupTimeout())));
     }
@@ -380,7 +411,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestTerminateApplicationInstance(cloudFoundryClient, applicationId, String.valueOf(request.getInstanceIndex()))));
     }
@@ -392,7 +423,7 @@ public final class DefaultApplications implements Applications {
             .filter(predicate((cloudFoundryClient, spaceId) -> areModifiersPresent(request)))
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
@@ -422,7 +453,7 @@ public final class DefaultApplications implements Applications {
             .when(this.cloudFoundryClient, this.spaceId)
             .then(function((cloudFoundryClient, spaceId) -> Mono.when(
                 Mono.just(cloudFoundryClient),
-                getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+                getApplicationId(cloudFoundryClient, this.resolverCache, request.getName(), spaceId)
             )))
             .then(function((cloudFoundryClient, applicationId) -> requestUpdateApplicationHealthCheckType(cloudFoundryClient, applicationId, request.getType())))
             .then();
@@ -593,9 +624,9 @@ public final class DefaultApplications implements Applications {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", application));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String application, String spaceId) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.APPLICATION, spaceId, application, () -> getApplication(cloudFoundryClient, application, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, PushApplicationRequest request, String spaceId, String stackId) {
@@ -608,12 +639,12 @@ public final class DefaultApplications implements Applications {
                 .map(ResourceUtils::getId));
     }
 
-    private static Mono<String> getApplicationIdFromOrgSpace(CloudFoundryClient cloudFoundryClient, String application, String spaceId, String organization, String space) {
+    private static Mono<String> getApplicationIdFromOrgSpace(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String application, String spaceId, String organization, String space) {
         return
             getSpaceOrganizationId(cloudFoundryClient, spaceId)
                 .then(organizationId -> organization != null ? getOrganizationId(cloudFoundryClient, organization) : Mono.just(organizationId))
                 .then(organizationId -> space != null ? getSpaceId(cloudFoundryClient, organizationId, space) : Mono.just(spaceId))
-                .then(spaceId1 -> getApplicationId(cloudFoundryClient, application, spaceId1));
+                .then(spaceId1 -> getApplicationId(cloudFoundryClient, resolverCache, application, spaceId1));
     }
 
     private static Mono<String> getApplicationIdWhere(CloudFoundryClient cloudFoundryClient, String application, String spaceId, Predicate<AbstractApplicationResource> predicate) {
@@ -740,6 +771,12 @@ public final class DefaultApplications implements Applications {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space %s not found", space));
     }
 
+    private static Set<String> getPaths(List<Resource> resources) {
+        return resources.stream()
+            .map(Resource::getPath)
+            .collect(Collectors.toSet());
+    }
+
     private static Mono<String> getPrivateDomainId(CloudFoundryClient cloudFoundryClient, String domain, String organizationId) {
         return requestPrivateDomain(cloudFoundryClient, domain, organizationId)
             .map(ResourceUtils::getId)
@@ -773,9 +810,9 @@ public final class DefaultApplications implements Applications {
             .map(SummaryApplicationResponse::getRoutes);
     }
 
-    private static Mono<Tuple2<Optional<List<Route>>, String>> getRoutesAndApplicationId(CloudFoundryClient cloudFoundryClient, DeleteApplicationRequest request, String spaceId,
-                                                                                         boolean deleteRoutes) {
-        return getApplicationId(cloudFoundryClient, request.getName(), spaceId)
+    private static Mono<Tuple2<Optional<List<Route>>, String>> getRoutesAndApplicationId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, DeleteApplicationRequest request,
+                                                                                         String spaceId, boolean deleteRoutes) {
+        return getApplicationId(cloudFoundryClient, resolverCache, request.getName(), spaceId)
             .then(applicationId -> getOptionalRoutes(cloudFoundryClient, deleteRoutes, applicationId)
                 .and(Mono.just(applicationId)));
     }
@@ -806,6 +843,12 @@ public final class DefaultApplications implements Applications {
             .map(getStackResponse -> getStackResponse.getEntity().getName());
     }
 
+    private static Mono<Void> invalidateApplicationId(ResolverCache resolverCache, Mono<String> spaceId, String application) {
+        return spaceId
+            .doOnNext(id -> resolverCache.invalidate(ResolverCache.Type.APPLICATION, id, application))
+            .then();
+    }
+
     private static boolean isIdentical(String s, String t) {
         return s == null ? t == null : s.equals(t);
     }
@@ -1007,6 +1050,7 @@ public final class DefaultApplications implements Applications {
             .flatMap(client -> client
                 .stream(StreamRequest.builder()
                     .applicationId(applicationId)
+                    .eventType(EventType.LOG_MESSAGE)
                     .build()));
     }
 
@@ -1188,12 +1232,13 @@ public final class DefaultApplications implements Applications {
         return requestUpdateApplication(cloudFoundryClient, applicationId, builder -> builder.state(state));
     }
 
-    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application) {
+    private static Mono<UploadApplicationResponse> requestUploadApplication(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, List<Resource> resources) {
         return cloudFoundryClient.applicationsV2()
             .upload(UploadApplicationRequest.builder()
                 .applicationId(applicationId)
                 .async(true)
                 .application(application)
+                .resources(resources)
                 .build());
     }
 
@@ -1356,8 +1401,8 @@ public final class DefaultApplications implements Applications {
             .collectList();
     }
 
-    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application) {
-        return requestUploadApplication(cloudFoundryClient, applicationId, application)
+    private static Mono<Void> uploadApplicationAndWait(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, List<Resource> resources) {
+        return requestUploadApplication(cloudFoundryClient, applicationId, application, resources)
             .then(job -> JobUtils.waitForCompletion(cloudFoundryClient, job));
     }
 
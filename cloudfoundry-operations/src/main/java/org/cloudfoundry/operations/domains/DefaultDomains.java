@@ -31,12 +31,14 @@ import org.cloudfoundry.client.v2.shareddomains.CreateSharedDomainResponse;
 import org.cloudfoundry.client.v2.shareddomains.ListSharedDomainsRequest;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainEntity;
 import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.PaginationUtils;
 import org.cloudfoundry.util.ResourceUtils;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.NoSuchElementException;
 
 import static org.cloudfoundry.util.tuple.TupleUtils.function;
@@ -45,8 +47,15 @@ public final class DefaultDomains implements Domains {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final ResolverCache resolverCache;
+
     public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient) {
+        this(cloudFoundryClient, new ResolverCache(Duration.ZERO));
+    }
+
+    public DefaultDomains(Mono<CloudFoundryClient> cloudFoundryClient, ResolverCache resolverCache) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.resolverCache = resolverCache;
     }
 
     public Mono<Void> create(CreateDomainRequest request) {
@@ -95,7 +104,8 @@ public final class DefaultDomains implements Domains {
                 getPrivateDomainId(cloudFoundryClient, request.getDomain()),
                 getOrganizationId(cloudFoundryClient, request.getOrganization())
             ))
-            .then(function(DefaultDomains::requestRemoveOrganizationPrivateDomainRequest));
+            .then(function((cloudFoundryClient, domainId, organizationId) -> requestRemoveOrganizationPrivateDomainRequest(cloudFoundryClient, domainId, organizationId)
+                .doOnSuccess(v -> this.resolverCache.invalidate(ResolverCache.Type.DOMAIN, organizationId, request.getDomain()))));
     }
 
     private static Mono<OrganizationResource> getOrganization(CloudFoundryClient cloudFoundryClient, String organization) {
@@ -39,6 +39,7 @@ import org.cloudfoundry.client.v2.organizations.UpdateOrganizationRequest;
 import org.cloudfoundry.client.v2.organizations.UpdateOrganizationResponse;
 import org.cloudfoundry.client.v2.spacequotadefinitions.SpaceQuotaDefinitionResource;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -48,6 +49,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple4;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -60,10 +62,17 @@ public final class DefaultOrganizations implements Organizations {
 
     private final Mono<CloudFoundryClient> cloudFoundryClient;
 
+    private final ResolverCache resolverCache;
+
     private final Mono<String> username;
 
     public DefaultOrganizations(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> username) {
+        this(cloudFoundryClient, new ResolverCache(Duration.ZERO), username);
+    }
+
+    public DefaultOrganizations(Mono<CloudFoundryClient> cloudFoundryClient, ResolverCache resolverCache, Mono<String> username) {
         this.cloudFoundryClient = cloudFoundryClient;
+        this.resolverCache = resolverCache;
         this.username = username;
     }
 
@@ -88,7 +97,8 @@ public final class DefaultOrganizations implements Organizations {
                 Mono.just(cloudFoundryClient),
                 getOrganizationId(cloudFoundryClient, request.getName())
             ))
-            .then(function(DefaultOrganizations::deleteOrganization));
+            .then(function(DefaultOrganizations::deleteOrganization))
+            .doOnSuccess(v -> this.resolverCache.invalidate(ResolverCache.Type.ORGANIZATION, null, request.getName()));
     }
 
     @Override
@@ -117,7 +127,8 @@ public final class DefaultOrganizations implements Organizations {
                 getOrganizationId(cloudFoundryClient, request.getName())
             ))
             .then(function((cloudFoundryClient, organizationId) -> requestUpdateOrganization(cloudFoundryClient, organizationId, request.getNewName())))
-            .then();
+            .then()
+            .doOnSuccess(v -> this.resolverCache.invalidate(ResolverCache.Type.ORGANIZATION, null, request.getName()));
     }
 
     private static Mono<String> createOrganization(CloudFoundryClient cloudFoundryClient, CreateOrganizationRequest request) {
@@ -36,6 +36,7 @@ import org.cloudfoundry.client.v2.shareddomains.SharedDomainResource;
 import org.cloudfoundry.client.v2.spaces.ListSpaceApplicationsRequest;
 import org.cloudfoundry.client.v2.spaces.ListSpaceRoutesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.OperationUtils;
@@ -45,6 +46,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -61,11 +63,18 @@ public final class DefaultRoutes implements Routes {
 
     private final Mono<String> organizationId;
 
+    private final ResolverCache resolverCache;
+
     private final Mono<String> spaceId;
 
     public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, new ResolverCache(Duration.ZERO), spaceId);
+    }
+
+    public DefaultRoutes(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, ResolverCache resolverCache, Mono<String> spaceId) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.organizationId = organizationId;
+        this.resolverCache = resolverCache;
         this.spaceId = spaceId;
     }
 
@@ -89,8 +98,8 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceId(cloudFoundryClient, organizationId, request.getSpace()),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getSpaceId(cloudFoundryClient, this.resolverCache, organizationId, request.getSpace()),
+                    getDomainId(cloudFoundryClient, this.resolverCache, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, spaceId, domainId) -> requestCreateRoute(cloudFoundryClient, domainId, request.getHost(), request.getPath(), spaceId)))
             .then();
@@ -103,7 +112,7 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getDomainId(cloudFoundryClient, this.resolverCache, organizationId, request.getDomain())
                 )))
             .then(function((cloudFoundryClient, domainId) -> Mono
                 .when(
@@ -156,8 +165,8 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getOrCreateRoute(cloudFoundryClient, organizationId, spaceId, request.getDomain(), request.getHost(), request.getPath()),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId)
+                    getOrCreateRoute(cloudFoundryClient, this.resolverCache, organizationId, spaceId, request.getDomain(), request.getHost(), request.getPath()),
+                    getApplicationId(cloudFoundryClient, this.resolverCache, request.getApplicationName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, routeId, applicationId) -> requestAssociateRoute(cloudFoundryClient, applicationId, routeId)))
             .then();
@@ -170,8 +179,8 @@ public final class DefaultRoutes implements Routes {
             .then(function((cloudFoundryClient, organizationId, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
-                    getDomainId(cloudFoundryClient, organizationId, request.getDomain())
+                    getApplicationId(cloudFoundryClient, this.resolverCache, request.getApplicationName(), spaceId),
+                    getDomainId(cloudFoundryClient, this.resolverCache, organizationId, request.getDomain())
                         .then(domainId -> getRouteId(cloudFoundryClient, request.getHost(), request.getDomain(), domainId, request.getPath()))
                 )))
             .then(function(DefaultRoutes::requestRemoveRouteFromApplication));
@@ -202,9 +211,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", application));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String application, String spaceId) {
-        return getApplication(cloudFoundryClient, application, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String application, String spaceId) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.APPLICATION, spaceId, application, () -> getApplication(cloudFoundryClient, application, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getApplicationNames(CloudFoundryClient cloudFoundryClient, String routeId) {
@@ -224,9 +233,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Domain %s does not exist", domain));
     }
 
-    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, String organizationId, String domain) {
-        return getDomain(cloudFoundryClient, organizationId, domain)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getDomainId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String organizationId, String domain) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.DOMAIN, organizationId, domain, () -> getDomain(cloudFoundryClient, organizationId, domain)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getDomainName(Map<String, String> domains, String domainId) {
@@ -246,8 +255,9 @@ public final class DefaultRoutes implements Routes {
             .map(ResourceUtils::getId);
     }
 
-    private static Mono<String> getOrCreateRoute(CloudFoundryClient cloudFoundryClient, String organizationId, String spaceId, String domain, String host, String path) {
-        return getDomainId(cloudFoundryClient, organizationId, domain)
+    private static Mono<String> getOrCreateRoute(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String organizationId, String spaceId, String domain, String host,
+                                                 String path) {
+        return getDomainId(cloudFoundryClient, resolverCache, organizationId, domain)
             .then(domainId -> getRoute(cloudFoundryClient, domainId, host, path)
                 .map(OperationUtils.<RouteResource, Resource<RouteEntity>>cast())
                 .otherwiseIfEmpty(requestCreateRoute(cloudFoundryClient, domainId, host, path, spaceId)))
@@ -287,9 +297,9 @@ public final class DefaultRoutes implements Routes {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space %s does not exist", space));
     }
 
-    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, String organizationId, String space) {
-        return getSpace(cloudFoundryClient, organizationId, space)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getSpaceId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String organizationId, String space) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.SPACE, organizationId, space, () -> getSpace(cloudFoundryClient, organizationId, space)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<String> getSpaceName(Map<String, String> spaces, String spaceId) {
@@ -61,6 +61,7 @@ import org.cloudfoundry.client.v2.userprovidedserviceinstances.CreateUserProvide
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.DeleteUserProvidedServiceInstanceRequest;
 import org.cloudfoundry.client.v2.userprovidedserviceinstances.UpdateUserProvidedServiceInstanceResponse;
 import org.cloudfoundry.util.DelayUtils;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
 import org.cloudfoundry.util.PaginationUtils;
@@ -90,12 +91,19 @@ public final class DefaultServices implements Services {
 
     private final Mono<String> organizationId;
 
+    private final ResolverCache resolverCache;
+
     private final Mono<String> spaceId;
 
     public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> spaceId) {
+        this(cloudFoundryClient, organizationId, new ResolverCache(Duration.ZERO), spaceId);
+    }
+
+    public DefaultServices(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, ResolverCache resolverCache, Mono<String> spaceId) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.spaceId = spaceId;
         this.organizationId = organizationId;
+        this.resolverCache = resolverCache;
     }
 
     @Override
@@ -105,8 +113,8 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getApplicationId(cloudFoundryClient, this.resolverCache, request.getApplicationName(), spaceId),
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> createServiceBinding(cloudFoundryClient, applicationId, serviceInstanceId, request.getParameters())))
             .then();
@@ -143,7 +151,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, serviceInstanceId) -> requestCreateServiceKey(cloudFoundryClient, serviceInstanceId, request.getServiceKeyName(), request.getParameters())))
             .then();
@@ -168,7 +176,7 @@ public final class DefaultServices implements Services {
                     getSpaceServiceInstance(cloudFoundryClient, request.getName(), spaceId)
                 )))
             .then(function(DefaultServices::deleteServiceInstance))
-            .then();
+            .then(invalidateServiceInstanceId(this.resolverCache, this.spaceId, request.getName()));
     }
 
     @Override
@@ -178,7 +186,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, serviceInstanceId) -> Mono
                 .when(
@@ -221,7 +229,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, serviceInstanceId) -> getServiceKey(cloudFoundryClient, serviceInstanceId, request.getServiceKeyName())))
             .map(DefaultServices::toServiceKey);
@@ -257,7 +265,7 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .flatMap(function((cloudFoundryClient, serviceInstanceId) -> requestListServiceInstanceServiceKeys(cloudFoundryClient, serviceInstanceId)))
             .map(DefaultServices::toServiceKey);
@@ -291,7 +299,7 @@ public final class DefaultServices implements Services {
                     getSpaceServiceInstance(cloudFoundryClient, request.getName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, serviceInstance) -> renameServiceInstance(cloudFoundryClient, serviceInstance, request.getNewName())))
-            .then();
+            .then(invalidateServiceInstanceId(this.resolverCache, this.spaceId, request.getName()));
     }
 
     @Override
@@ -301,8 +309,8 @@ public final class DefaultServices implements Services {
             .then(function((cloudFoundryClient, spaceId) -> Mono
                 .when(
                     Mono.just(cloudFoundryClient),
-                    getApplicationId(cloudFoundryClient, request.getApplicationName(), spaceId),
-                    getSpaceServiceInstanceId(cloudFoundryClient, request.getServiceInstanceName(), spaceId)
+                    getApplicationId(cloudFoundryClient, this.resolverCache, request.getApplicationName(), spaceId),
+                    getSpaceServiceInstanceId(cloudFoundryClient, this.resolverCache, request.getServiceInstanceName(), spaceId)
                 )))
             .then(function((cloudFoundryClient, applicationId, serviceInstanceId) -> Mono
                 .when(
@@ -393,9 +401,9 @@ public final class DefaultServices implements Services {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Application %s does not exist", applicationName));
     }
 
-    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, String applicationName, String spaceId) {
-        return getApplication(cloudFoundryClient, applicationName, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getApplicationId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String applicationName, String spaceId) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.APPLICATION, spaceId, applicationName, () -> getApplication(cloudFoundryClient, applicationName, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<List<String>> getBoundApplications(CloudFoundryClient cloudFoundryClient, String serviceInstanceId) {
@@ -502,9 +510,9 @@ public final class DefaultServices implements Services {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Service instance %s does not exist", serviceInstanceName));
     }
 
-    private static Mono<String> getSpaceServiceInstanceId(CloudFoundryClient cloudFoundryClient, String serviceInstanceName, String spaceId) {
-        return getSpaceServiceInstance(cloudFoundryClient, serviceInstanceName, spaceId)
-            .map(ResourceUtils::getId);
+    private static Mono<String> getSpaceServiceInstanceId(CloudFoundryClient cloudFoundryClient, ResolverCache resolverCache, String serviceInstanceName, String spaceId) {
+        return resolverCache.resolve(cloudFoundryClient, ResolverCache.Type.SERVICE_INSTANCE, spaceId, serviceInstanceName, () -> getSpaceServiceInstance(cloudFoundryClient, serviceInstanceName, spaceId)
+            .map(ResourceUtils::getId));
     }
 
     private static Mono<UnionServiceInstanceResource> getSpaceUserProvidedServiceInstance(CloudFoundryClient cloudFoundryClient, String serviceInstanceName, String spaceId) {
@@ -519,6 +527,12 @@ public final class DefaultServices implements Services {
             .map(ResourceUtils::getId);
     }
 
+    private static Mono<Void> invalidateServiceInstanceId(ResolverCache resolverCache, Mono<String> spaceId, String serviceInstanceName) {
+        return spaceId
+            .doOnNext(id -> resolverCache.invalidate(ResolverCache.Type.SERVICE_INSTANCE, id, serviceInstanceName))
+            .then();
+    }
+
     private static boolean isNotInProgress(String state) {
         return !state.equals("in progress");
     }
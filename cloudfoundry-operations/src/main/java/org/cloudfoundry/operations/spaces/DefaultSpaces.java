@@ -50,6 +50,7 @@ import org.cloudfoundry.client.v2.spaces.ListSpacesRequest;
 import org.cloudfoundry.client.v2.spaces.SpaceResource;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceRequest;
 import org.cloudfoundry.client.v2.spaces.UpdateSpaceResponse;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.operations.spaceadmin.SpaceQuota;
 import org.cloudfoundry.util.ExceptionUtils;
 import org.cloudfoundry.util.JobUtils;
@@ -59,6 +60,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -74,11 +76,18 @@ public final class DefaultSpaces implements Spaces {
 
     private final Mono<String> organizationId;
 
+    private final ResolverCache resolverCache;
+
     private final Mono<String> username;
 
     public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, Mono<String> username) {
+        this(cloudFoundryClient, organizationId, new ResolverCache(Duration.ZERO), username);
+    }
+
+    public DefaultSpaces(Mono<CloudFoundryClient> cloudFoundryClient, Mono<String> organizationId, ResolverCache resolverCache, Mono<String> username) {
         this.cloudFoundryClient = cloudFoundryClient;
         this.organizationId = organizationId;
+        this.resolverCache = resolverCache;
         this.username = username;
     }
 
@@ -141,7 +150,8 @@ public final class DefaultSpaces implements Spaces {
                     Mono.just(cloudFoundryClient),
                     getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
                 )))
-            .then(function(DefaultSpaces::deleteSpace));
+            .then(function(DefaultSpaces::deleteSpace))
+            .then(invalidateSpaceId(this.resolverCache, this.organizationId, request.getName()));
     }
 
     @Override
@@ -187,7 +197,7 @@ public final class DefaultSpaces implements Spaces {
                     getOrganizationSpaceId(cloudFoundryClient, organizationId, request.getName())
                 )))
             .then(function((cloudFoundryClient, spaceId) -> requestUpdateSpace(cloudFoundryClient, spaceId, request.getNewName())))
-            .then();
+            .then(invalidateSpaceId(this.resolverCache, this.organizationId, request.getName()));
     }
 
     @Override
@@ -320,6 +330,12 @@ public final class DefaultSpaces implements Spaces {
             .otherwise(NoSuchElementException.class, t -> ExceptionUtils.illegalArgument("Space quota definition %s does not exist", spaceQuota));
     }
 
+    private static Mono<Void> invalidateSpaceId(ResolverCache resolverCache, Mono<String> organizationId, String space) {
+        return organizationId
+            .doOnNext(id -> resolverCache.invalidate(ResolverCache.Type.SPACE, id, space))
+            .then();
+    }
+
     private static Mono<AssociateOrganizationUserByUsernameResponse> requestAssociateOrganizationUserByUsername(CloudFoundryClient cloudFoundryClient, String organizationId, String username) {
         return cloudFoundryClient.organizations()
             .associateUserByUsername(AssociateOrganizationUserByUsernameRequest.builder()
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.operations;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public final class ResolverCacheTest {
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class);
+
+    private final CloudFoundryClient otherCloudFoundryClient = mock(CloudFoundryClient.class);
+
+    private final AtomicInteger resolutions = new AtomicInteger();
+
+    @Test
+    public void disabled() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache(Duration.ZERO);
+
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+
+        assertThat(this.resolutions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void clients() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache();
+
+        resolve(resolverCache, this.cloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-1"), "test-organization-id-1");
+        resolve(resolverCache, this.otherCloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-2"), "test-organization-id-2");
+        resolve(resolverCache, this.cloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-3"), "test-organization-id-1");
+
+        assertThat(this.resolutions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void error() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache();
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectError(IllegalArgumentException.class);
+
+        resolverCache
+            .resolve(this.cloudFoundryClient, ResolverCache.Type.APPLICATION, "test-space-id", "test-application-name", () -> Mono.error(new IllegalArgumentException()))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+
+        assertThat(this.resolutions.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void evict() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache(Duration.ofMinutes(1), 1);
+
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+        resolve(resolverCache, "test-other-application-name", () -> resolution("test-other-application-id"), "test-other-application-id");
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+
+        assertThat(this.resolutions.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void invalidate() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache();
+
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id-1"), "test-application-id-1");
+        resolverCache.invalidate(ResolverCache.Type.APPLICATION, "test-space-id", "test-application-name");
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id-2"), "test-application-id-2");
+
+        assertThat(this.resolutions.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void invalidateClients() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache();
+
+        resolve(resolverCache, this.cloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-1"), "test-organization-id-1");
+        resolve(resolverCache, this.otherCloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-2"), "test-organization-id-2");
+        resolverCache.invalidate(ResolverCache.Type.ORGANIZATION, null, "test-organization-name");
+        resolve(resolverCache, this.cloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-3"), "test-organization-id-3");
+        resolve(resolverCache, this.otherCloudFoundryClient, "test-organization-name", () -> resolution("test-organization-id-4"), "test-organization-id-4");
+
+        assertThat(this.resolutions.get()).isEqualTo(4);
+    }
+
+    @Test
+    public void resolve() throws InterruptedException, TimeoutException {
+        ResolverCache resolverCache = new ResolverCache();
+
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+        resolve(resolverCache, "test-application-name", () -> resolution("test-application-id"), "test-application-id");
+        resolve(resolverCache, "test-other-application-name", () -> resolution("test-other-application-id"), "test-other-application-id");
+
+        assertThat(this.resolutions.get()).isEqualTo(2);
+    }
+
+    private static void resolve(ResolverCache resolverCache, CloudFoundryClient cloudFoundryClient, String name, Supplier<Mono<String>> resolver, String expected)
+        throws InterruptedException, TimeoutException {
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext(expected)
+            .expectComplete();
+
+        resolverCache
+            .resolve(cloudFoundryClient, ResolverCache.Type.ORGANIZATION, null, name, resolver)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    private void resolve(ResolverCache resolverCache, String name, Supplier<Mono<String>> resolver, String expected) throws InterruptedException, TimeoutException {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext(expected)
+            .expectComplete();
+
+        resolverCache
+            .resolve(this.cloudFoundryClient, ResolverCache.Type.APPLICATION, "test-space-id", name, resolver)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    private Mono<String> resolution(String id) {
+        return Mono.fromCallable(() -> {
+            this.resolutions.incrementAndGet();
+            return id;
+        });
+    }
+
+}
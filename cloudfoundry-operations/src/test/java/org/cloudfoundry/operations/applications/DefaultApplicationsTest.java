@@ -39,6 +39,7 @@ import org.cloudfoundry.client.v2.applications.InstanceStatistics;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsRequest;
 import org.cloudfoundry.client.v2.applications.ListApplicationServiceBindingsResponse;
 import org.cloudfoundry.client.v2.applications.RemoveApplicationServiceBindingRequest;
+import org.cloudfoundry.client.v2.applications.Resource;
 import org.cloudfoundry.client.v2.applications.RestageApplicationResponse;
 import org.cloudfoundry.client.v2.applications.Statistics;
 import org.cloudfoundry.client.v2.applications.SummaryApplicationRequest;
@@ -101,6 +102,7 @@ import org.cloudfoundry.doppler.LogMessage;
 import org.cloudfoundry.doppler.RecentLogsRequest;
 import org.cloudfoundry.doppler.StreamRequest;
 import org.cloudfoundry.operations.AbstractOperationsApiTest;
+import org.cloudfoundry.operations.ResolverCache;
 import org.cloudfoundry.util.DateUtils;
 import org.cloudfoundry.util.FluentMap;
 import org.junit.Before;
@@ -117,6 +119,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Queue;
@@ -733,6 +736,7 @@ public final class DefaultApplicationsTest {
         when(dopplerClient
             .stream(StreamRequest.builder()
                 .applicationId(applicationId)
+                .eventType(EventType.LOG_MESSAGE)
                 .build()))
             .thenReturn(Flux
                 .just(Envelope.builder()
@@ -1142,11 +1146,16 @@ public final class DefaultApplicationsTest {
     }
 
     private static void requestUpload(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, String jobId) {
+        requestUpload(cloudFoundryClient, applicationId, application, Collections.emptyList(), jobId);
+    }
+
+    private static void requestUpload(CloudFoundryClient cloudFoundryClient, String applicationId, InputStream application, List<Resource> resources, String jobId) {
         when(cloudFoundryClient.applicationsV2()
             .upload(UploadApplicationRequest.builder()
                 .applicationId(applicationId)
                 .async(true)
                 .application(application)
+                .resources(resources)
                 .build()))
             .thenReturn(Mono
                 .just(fill(UploadApplicationResponse.builder())
@@ -2837,6 +2846,59 @@ public final class DefaultApplicationsTest {
 
     }
 
+    public static final class PushMatchedResources extends AbstractOperationsApiTest<Void> {
+
+        private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
+
+        private final List<Resource> matchedResources = Collections.singletonList(Resource.builder()
+            .hash("test-hash")
+            .mode("744")
+            .path("test-path")
+            .size(1)
+            .build());
+
+        private final DefaultApplications applications = new DefaultApplications(Mono.just(this.cloudFoundryClient), Mono.just(this.dopplerClient), (path, excludedNames) -> {
+            assertThat(excludedNames).containsExactly("test-path");
+            return this.applicationBits;
+        }, new ResolverCache(Duration.ZERO), (cloudFoundryClient, path) -> Mono.just(this.matchedResources), Mono.just(TEST_SPACE_ID), new WordListRandomWords());
+
+        private final PushApplicationRequest pushApplicationRequest = PushApplicationRequest.builder()
+            .application(Paths.get("test-application"))
+            .domain("test-domain")
+            .name("test-name")
+            .build();
+
+        @Before
+        public void setUp() throws Exception {
+            requestApplicationsEmpty(this.cloudFoundryClient, "test-name", TEST_SPACE_ID);
+            requestCreateApplication(this.cloudFoundryClient, this.pushApplicationRequest, TEST_SPACE_ID, null, "test-application-id");
+            requestSpace(this.cloudFoundryClient, TEST_SPACE_ID, TEST_ORGANIZATION_ID);
+            requestPrivateDomain(this.cloudFoundryClient, "test-domain", TEST_ORGANIZATION_ID, "test-domain-id");
+            requestRoutesEmpty(this.cloudFoundryClient, "test-domain-id", "test-name", null);
+            requestCreateRoute(this.cloudFoundryClient, "test-domain-id", "test-name", null, TEST_SPACE_ID, "test-route-id");
+            requestAssociateRoute(this.cloudFoundryClient, "test-application-id", "test-route-id");
+            requestUpload(this.cloudFoundryClient, "test-application-id", this.applicationBits, this.matchedResources, "test-job-id");
+            requestJobSuccess(this.cloudFoundryClient, "test-job-id");
+            requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STOPPED");
+            requestUpdateApplicationState(this.cloudFoundryClient, "test-application-id", "STARTED");
+            requestGetApplication(this.cloudFoundryClient, "test-application-id");
+            requestApplicationInstancesRunning(this.cloudFoundryClient, "test-application-id");
+        }
+
+        @Override
+        protected ScriptedSubscriber<Void> expectations() {
+            return ScriptedSubscriber.<Void>create()
+                .expectComplete();
+        }
+
+        @Override
+        protected Mono<Void> invoke() {
+            return this.applications
+                .push(this.pushApplicationRequest);
+        }
+
+    }
+
     public static final class PushNewApplication extends AbstractOperationsApiTest<Void> {
 
         private final InputStream applicationBits = new ByteArrayInputStream("test-application".getBytes());
@@ -0,0 +1,380 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import reactor.core.Exceptions;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An on-disk, content-addressed cache of application artifacts, shared between pushes.  Files are fingerprinted with their SHA-1 hash, and the fingerprint is reused for as long as the file's
+ * modification time and size are unchanged.  Entries of compressed artifacts are instead fingerprinted against the modification time and size of the artifact containing them, as their own
+ * modification times are often fixed by build tools.  Archives are addressed by the names, modes, and hashes of their contents, so pushing the same bits again reuses the archive that was already
+ * built.  Fingerprints are persisted so that they survive between runs, fingerprints of files that no longer exist are discarded, and the least recently used archives that are not being read are evicted once their total size exceeds a maximum.
+ */
+public final class ArtifactCache {
+
+    private static final String ARCHIVE_SUFFIX = ".zip";
+
+    private static final String FINGERPRINTS = "fingerprints.properties";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final Path directory;
+
+    private final ConcurrentMap<String, Fingerprint> fingerprints = new ConcurrentHashMap<>();
+
+    private final Map<Path, Integer> inUse = new HashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final long maximumSize;
+
+    private final AtomicBoolean modified = new AtomicBoolean();
+
+    /**
+     * Creates a new instance
+     *
+     * @param directory   the directory to store fingerprints and archives in.  The directory is created if it does not exist.
+     * @param maximumSize the maximum total size, in bytes, of the archives to retain
+     */
+    public ArtifactCache(Path directory, long maximumSize) {
+        this.directory = directory;
+        this.maximumSize = maximumSize;
+
+        for (int i = 0; i < this.locks.length; i++) {
+            this.locks[i] = new Object();
+        }
+
+        load();
+    }
+
+    /**
+     * Returns the compressed contents of an application, excluding files with the given names.  If an archive with the same contents has already been built, it is reused rather than being built
+     * again.
+     *
+     * @param application   a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @param excludedNames the names, as returned by {@link FileUtils#getRelativePathName(Path, Path)}, of the files to exclude from the archive
+     * @return a {@link InputStream} containing the compressed contents of the {@code application}
+     */
+    public InputStream getArchive(Path application, Set<String> excludedNames) {
+        Path root = FileUtils.normalize(application);
+        Predicate<Path> filter = p -> !excludedNames.contains(FileUtils.getRelativePathName(root, p));
+
+        try {
+            String key = getArchiveKey(root, filter);
+            Path archive = this.directory.resolve(key + ARCHIVE_SUFFIX);
+
+            synchronized (this.locks[Math.floorMod(key.hashCode(), this.locks.length)]) {
+                Optional<InputStream> cached = open(archive);
+                if (cached.isPresent()) {
+                    return cached.get();
+                }
+
+                Path staging = Files.createTempFile(this.directory, null, null);
+                try {
+                    FileUtils.write(application, root, filter, staging);
+                    return store(staging, archive);
+                } finally {
+                    Files.deleteIfExists(staging);
+                }
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        } finally {
+            FileUtils.close(application, root);
+            save();
+        }
+    }
+
+    /**
+     * Returns the SHA-1 hash of a file, reusing the recorded fingerprint if the file's modification time and size are unchanged.  For an entry of a compressed artifact, the modification time and
+     * size of the artifact are used instead.
+     *
+     * @param path the {@link Path} of the file to hash
+     * @return the SHA-1 hash of the file
+     */
+    public String getHash(Path path) {
+        try {
+            String key = path.toUri().toString();
+            Path stamped = FileUtils.getArchive(path).orElse(path);
+            long lastModified = Files.getLastModifiedTime(stamped).toMillis();
+            long size = Files.size(stamped);
+
+            Fingerprint fingerprint = this.fingerprints.get(key);
+            if (fingerprint != null && fingerprint.lastModified == lastModified && fingerprint.size == size) {
+                return fingerprint.hash;
+            }
+
+            String hash = ResourceMatchingUtils.getHash(path);
+            this.fingerprints.put(key, new Fingerprint(hash, lastModified, size));
+            this.modified.set(true);
+
+            return hash;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    synchronized void save() {
+        prune();
+
+        if (!this.modified.compareAndSet(true, false)) {
+            return;
+        }
+
+        Properties properties = new Properties();
+        this.fingerprints.forEach((key, fingerprint) -> properties.setProperty(key, fingerprint.toString()));
+
+        try {
+            Path staging = Files.createTempFile(this.directory, null, null);
+
+            try {
+                try (OutputStream out = Files.newOutputStream(staging)) {
+                    properties.store(out, null);
+                }
+
+                Files.move(staging, this.directory.resolve(FINGERPRINTS), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(staging);
+            }
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static boolean exists(String key) {
+        String uri = key;
+
+        if (key.startsWith("jar:")) {
+            int separator = key.indexOf("!/");
+            if (separator < 0) {
+                return false;
+            }
+
+            uri = key.substring("jar:".length(), separator);
+        }
+
+        try {
+            return Files.exists(Paths.get(URI.create(uri)));
+        } catch (FileSystemNotFoundException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static long getLastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static long getSize(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private synchronized void evict(Path retained) throws IOException {
+        List<Path> archives;
+        try (Stream<Path> contents = Files.list(this.directory)) {
+            archives = contents
+                .filter(p -> p.getFileName().toString().endsWith(ARCHIVE_SUFFIX))
+                .sorted(Comparator.comparingLong(ArtifactCache::getLastModifiedTime).reversed())
+                .collect(Collectors.toList());
+        }
+
+        long size = 0;
+        for (Path archive : archives) {
+            size += getSize(archive);
+
+            if (size > this.maximumSize && !archive.equals(retained) && !this.inUse.containsKey(archive)) {
+                Files.deleteIfExists(archive);
+            }
+        }
+    }
+
+    private String getArchiveKey(Path root, Predicate<Path> filter) throws IOException {
+        List<Path> contents;
+        try (Stream<Path> walk = Files.walk(root)) {
+            contents = walk
+                .filter(filter)
+                .filter(p -> !p.equals(root))
+                .sorted(Comparator.comparing(p -> FileUtils.getRelativePathName(root, p)))
+                .collect(Collectors.toList());
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+
+            for (Path path : contents) {
+                String hash = Files.isRegularFile(path) ? getHash(path) : "";
+                digest.update(String.format("%s:%o:%s\n", FileUtils.getRelativePathName(root, path), FileUtils.getUnixMode(path), hash).getBytes(StandardCharsets.UTF_8));
+            }
+
+            return ResourceMatchingUtils.toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private void load() {
+        try {
+            Files.createDirectories(this.directory);
+
+            Path index = this.directory.resolve(FINGERPRINTS);
+            if (!Files.exists(index)) {
+                return;
+            }
+
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(index)) {
+                properties.load(in);
+            }
+
+            properties.stringPropertyNames()
+                .forEach(key -> Fingerprint.parse(properties.getProperty(key))
+                    .ifPresent(fingerprint -> this.fingerprints.put(key, fingerprint)));
+
+            prune();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private synchronized Optional<InputStream> open(Path archive) throws IOException {
+        if (!Files.exists(archive)) {
+            return Optional.empty();
+        }
+
+        Files.setLastModifiedTime(archive, FileTime.from(Instant.now()));
+        return Optional.of(read(archive));
+    }
+
+    private void prune() {
+        if (this.fingerprints.keySet().removeIf(key -> !exists(key))) {
+            this.modified.set(true);
+        }
+    }
+
+    private InputStream read(Path archive) throws IOException {
+        InputStream in = new ArchiveInputStream(archive);
+        this.inUse.merge(archive, 1, Integer::sum);
+        return in;
+    }
+
+    private synchronized void release(Path archive) {
+        this.inUse.computeIfPresent(archive, (k, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private synchronized InputStream store(Path staging, Path archive) throws IOException {
+        Files.move(staging, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        InputStream in = read(archive);
+
+        evict(archive);
+        return in;
+    }
+
+    private final class ArchiveInputStream extends FileInputStream {
+
+        private final Path archive;
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private ArchiveInputStream(Path archive) throws IOException {
+            super(archive.toFile());
+            this.archive = archive;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (this.closed.compareAndSet(false, true)) {
+                    release(this.archive);
+                }
+            }
+        }
+
+    }
+
+    private static final class Fingerprint {
+
+        private final String hash;
+
+        private final long lastModified;
+
+        private final long size;
+
+        private Fingerprint(String hash, long lastModified, long size) {
+            this.hash = hash;
+            this.lastModified = lastModified;
+            this.size = size;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d %d %s", this.lastModified, this.size, this.hash);
+        }
+
+        private static Optional<Fingerprint> parse(String s) {
+            String[] parts = s.split(" ");
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+
+            try {
+                return Optional.of(new Fingerprint(parts[2], Long.parseLong(parts[0]), Long.parseLong(parts[1])));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+    }
+
+}
@@ -26,6 +26,7 @@ import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -90,6 +91,27 @@ public final class DelayUtils {
                 .doOnSubscribe(logDelay(Duration.ZERO)), 1);
     }
 
+    /**
+     * Implements a single, jittered, exponential backoff delay.  Useful when the number of attempts is tracked by the caller, for example when attempts are reset after a success.
+     *
+     * @param minimum the minimum duration
+     * @param maximum the maximum duration
+     * @param jitter  the proportion, between {@code 0} and {@code 1}, of the delay that may be randomly subtracted from it
+     * @param attempt the number of consecutive attempts that have already failed
+     * @return a delayed {@link Mono}
+     */
+    public static Mono<Long> jitteredBackOff(Duration minimum, Duration maximum, double jitter, long attempt) {
+        return Mono
+            .defer(() -> {
+                Duration candidate = calculateDuration(minimum, maximum, attempt);
+                Duration delay = Duration.ofNanos((long) (candidate.toNanos() * (1 - jitter * ThreadLocalRandom.current().nextDouble())));
+
+                return Mono
+                    .delay(delay)
+                    .doOnSubscribe(logDelay(delay));
+            });
+    }
+
     private static Duration calculateDuration(Duration minimum, Duration maximum, Long iteration) {
         Duration candidate = minimum.multipliedBy((long) Math.pow(2, iteration));
         return min(candidate, maximum);
@@ -16,23 +16,35 @@
 
 package org.cloudfoundry.util;
 
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import reactor.core.Exceptions;
 
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.nio.file.attribute.PosixFilePermission;
+import java.util.Collections;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
 
 /**
  * Utilities for {@link FileSystem}s
@@ -56,6 +68,24 @@ public final class FileUtils {
     private FileUtils() {
     }
 
+    /**
+     * Closes the {@link FileSystem} that {@link #normalize(Path)} mounted for a {@link Path}, if it mounted one
+     *
+     * @param path the {@link Path} that was normalized
+     * @param root the normalized {@link Path}
+     */
+    public static void close(Path path, Path root) {
+        if (root.getFileSystem() == path.getFileSystem()) {
+            return;
+        }
+
+        try {
+            root.getFileSystem().close();
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
     /**
      * Returns a relative and normalized name for a {@link Path}.  This method ensures that directories have a single trailing slash in their name
      *
@@ -69,15 +99,36 @@ public final class FileUtils {
     }
 
     /**
-     * Returns a normalized {@link Path}.  In the case of directories, it returns the {@link Path} as it was passed in.  In the case of files, it returns a {@link Path} representing the root of a
-     * filesystem mounted using {@link FileSystems#newFileSystem}.
+     * Returns the POSIX permissions of a {@link Path} as a Unix mode.  If the {@link Path} does not have POSIX permissions, returns {@code 0744}.
+     *
+     * @param path the {@link Path} to get the mode for
+     * @return the Unix mode
+     */
+    public static int getUnixMode(Path path) {
+        try {
+            PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+
+            return Optional.ofNullable(view == null ? null : view.readAttributes())
+                .map(attributes -> attributes.permissions().stream()
+                    .map(PERMISSION_MODES::get)
+                    .collect(Collectors.summingInt(i -> i)))
+                .orElse(DEFAULT_PERMISSIONS);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    /**
+     * Returns a normalized {@link Path}.  In the case of files, it returns a {@link Path} representing the root of a filesystem mounted using {@link FileSystems#newFileSystem}, which should be
+     * closed with {@link #close(Path, Path)} once it is no longer needed.  Otherwise (e.g. for directories, or a {@link Path} that has already been normalized) it returns the {@link Path} as it
+     * was passed in.
      *
      * @param path the {@link Path} to normalized
      * @return the normalized path
      */
     public static Path normalize(Path path) {
         try {
-            return Files.isDirectory(path) ? path : FileSystems.newFileSystem(path, null).getPath("/");
+            return Files.isRegularFile(path) ? FileSystems.newFileSystem(path, null).getPath("/") : path;
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
@@ -95,8 +146,9 @@ public final class FileUtils {
     }
 
     /**
-     * Converts a the contents of a {@link Path} to a {@link InputStream}.  If the {@link Path} is a directory, compresses the full contents of the directory into the stream.  If the {@link Path}
-     * is a file, the contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root.  This allows both exploded and compressed artifacts to be used interchangeably.
+     * Converts a the contents of a {@link Path} to a {@link InputStream}.  If the {@link Path} is a directory, compresses the full contents of the directory into the stream, compressing
+     * entries in parallel.  If the {@link Path} is a file, the contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root, and its entries are copied into the
+     * stream without being recompressed.  This allows both exploded and compressed artifacts to be used interchangeably.
      *
      * @param path   a {@link Path} representing either a compressed <i>or</i> exploded artifact
      * @param filter a {@link Predicate} to filter the {@link Path}s that will be added to the {@link InputStream}
@@ -106,47 +158,126 @@ public final class FileUtils {
         Path root = normalize(path);
 
         try {
-            Path staging = Files.createTempFile(null, null);
+            return toInputStream(path, root, filter);
+        } finally {
+            close(path, root);
+        }
+    }
+
+    /**
+     * Converts a the contents of a {@link Path} to a {@link InputStream}, excluding files with the given names.  If the {@link Path} is a directory, compresses the full contents of the directory
+     * into the stream.  If the {@link Path} is a file, the contents of the file are examined using {@link FileSystems#newFileSystem} starting at the root.  This allows both exploded and compressed
+     * artifacts to be used interchangeably.
+     *
+     * @param path          a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @param excludedNames the names, as returned by {@link #getRelativePathName(Path, Path)}, of the files to exclude from the {@link InputStream}
+     * @return a {@link InputStream} containing the compressed contents of the {@code path}
+     */
+    public static InputStream toInputStream(Path path, Set<String> excludedNames) {
+        Path root = normalize(path);
+
+        try {
+            return toInputStream(path, root, p -> !excludedNames.contains(getRelativePathName(root, p)));
+        } finally {
+            close(path, root);
+        }
+    }
+
+    private static void compress(Path root, Predicate<Path> filter, ZipArchiveOutputStream out) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "cloudfoundry-compress");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-            try (Stream<Path> contents = Files.walk(root); ZipArchiveOutputStream out = new ZipArchiveOutputStream(staging.toFile())) {
+        try {
+            ParallelScatterZipCreator creator = new ParallelScatterZipCreator(executor);
+
+            try (Stream<Path> contents = Files.walk(root)) {
                 contents
                     .filter(filter)
-                    .forEach(p -> write(root, p, out));
+                    .filter(p -> !isSameFile(root, p))
+                    .forEach(p -> creator.addArchiveEntry(getArchiveEntry(root, p), () -> getInputStream(p)));
             }
 
-            return Files.newInputStream(staging);
-        } catch (IOException e) {
+            creator.writeTo(out);
+        } catch (ExecutionException | InterruptedException e) {
             throw Exceptions.propagate(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
-    private static int getUnixMode(Path path) throws IOException {
-        return Optional.ofNullable(Files.readAttributes(path, PosixFileAttributes.class))
-            .map(attributes -> attributes.permissions().stream()
-                .map(PERMISSION_MODES::get)
-                .collect(Collectors.summingInt(i -> i)))
-            .orElse(DEFAULT_PERMISSIONS);
-    }
+    private static void copy(Path path, Path root, Predicate<Path> filter, ZipArchiveOutputStream out) throws IOException {
+        try (ZipFile zipFile = new ZipFile(path.toFile())) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                Path entryPath = root.resolve(entry.getName());
 
-    private static void write(Path root, Path path, ZipArchiveOutputStream out) {
-        try {
-            if (Files.isSameFile(root, path)) {
-                return;
+                if (filter.test(entryPath)) {
+                    entry.setUnixMode(getUnixMode(entryPath));
+                    out.addRawArchiveEntry(entry, zipFile.getRawInputStream(entry));
+                }
             }
+        }
+    }
+
+    static Optional<Path> getArchive(Path path) {
+        if (path.getFileSystem() == FileSystems.getDefault()) {
+            return Optional.empty();
+        }
+
+        String location = path.toUri().getRawSchemeSpecificPart();
+        int separator = location.indexOf("!/");
 
+        return separator < 0 ? Optional.empty() : Optional.of(Paths.get(URI.create(location.substring(0, separator))));
+    }
+
+    private static ZipArchiveEntry getArchiveEntry(Path root, Path path) {
+        try {
             ZipArchiveEntry entry = new ZipArchiveEntry(getRelativePathName(root, path));
-            entry.setUnixMode(getUnixMode(path));
             entry.setLastModifiedTime(Files.getLastModifiedTime(path));
-            out.putArchiveEntry(entry);
+            entry.setMethod(ZipEntry.DEFLATED);
+            entry.setUnixMode(getUnixMode(path));
+            return entry;
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
 
-            if (Files.isRegularFile(path)) {
-                Files.copy(path, out);
-            }
+    private static InputStream getInputStream(Path path) {
+        try {
+            return Files.isRegularFile(path) ? Files.newInputStream(path) : new ByteArrayInputStream(new byte[0]);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static boolean isSameFile(Path root, Path path) {
+        try {
+            return Files.isSameFile(root, path);
+        } catch (IOException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
 
-            out.closeArchiveEntry();
+    private static InputStream toInputStream(Path path, Path root, Predicate<Path> filter) {
+        try {
+            Path staging = Files.createTempFile(null, null);
+            write(path, root, filter, staging);
+            return new FileInputStream(staging.toFile());
         } catch (IOException e) {
             throw Exceptions.propagate(e);
         }
     }
 
+    static void write(Path path, Path root, Predicate<Path> filter, Path destination) throws IOException {
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(destination.toFile())) {
+            if (root.getFileSystem() == FileSystems.getDefault()) {
+                compress(root, filter, out);
+            } else {
+                copy(getArchive(root).orElse(path), root, filter, out);
+            }
+        }
+    }
+
 }
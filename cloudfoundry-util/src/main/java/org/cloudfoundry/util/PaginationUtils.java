@@ -20,6 +20,7 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
 
 /**
@@ -27,6 +28,8 @@ import java.util.function.Function;
  */
 public final class PaginationUtils {
 
+    private static final int DEFAULT_CONCURRENCY = 8;
+
     private PaginationUtils() {
     }
 
@@ -41,9 +44,42 @@ public final class PaginationUtils {
     public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
         Function<Integer, Mono<U>> pageSupplier) {
 
+        return requestClientV2Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Once the first page has been received, up to {@code concurrency}
+     * additional pages are requested at a time and each page's resources are emitted as soon as the preceding pages have been emitted.  Cancelling the stream cancels any outstanding page requests.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v2.PaginatedResponse}s.
+     * @param concurrency  the maximum number of additional pages to request concurrently.  Pages are emitted in page order regardless of the order in which they are received.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2Resources(
+        Function<Integer, Mono<U>> pageSupplier, int concurrency) {
+
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV2AdditionalPages(pageSupplier))
+            .flatMap(requestClientV2AdditionalPages(pageSupplier, concurrency))
+            .flatMap(ResourceUtils::getResources);
+    }
+
+    /**
+     * Generate the stream of resources from a series of streamed responses obtained from the page supplier.  Each page is expected to be a stream of slices, each containing the page metadata and
+     * some of the page's resources, such as those returned by the {@code listStreaming} operations.  Resources are emitted in page order as soon as they are received and pages are requested one at
+     * a time, so that no more than a single page is in flight at once.
+     *
+     * @param pageSupplier a function from integers to {@link Flux}s of {@link org.cloudfoundry.client.v2.PaginatedResponse} slices.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v2.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    public static <T extends org.cloudfoundry.client.v2.Resource<?>, U extends org.cloudfoundry.client.v2.PaginatedResponse<T>> Flux<T> requestClientV2ResourcesStreaming(
+        Function<Integer, Flux<U>> pageSupplier) {
+
+        return requestSlices(pageSupplier, response -> Flux.range(2, getTotalPages(response.getTotalPages()) - 1))
             .flatMap(ResourceUtils::getResources);
     }
 
@@ -57,9 +93,40 @@ public final class PaginationUtils {
      */
     @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestClientV3Resources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Once the first page has been received, up to {@code concurrency}
+     * additional pages are requested at a time and each page's resources are emitted as soon as the preceding pages have been emitted.  Cancelling the stream cancels any outstanding page requests.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.client.v3.PaginatedResponse}s.
+     * @param concurrency  the maximum number of additional pages to request concurrently.  Pages are emitted in page order regardless of the order in which they are received.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3Resources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
         return pageSupplier
             .apply(1)
-            .flatMap(requestClientV3AdditionalPages(pageSupplier))
+            .flatMap(requestClientV3AdditionalPages(pageSupplier, concurrency))
+            .flatMapIterable(org.cloudfoundry.client.v3.PaginatedResponse::getResources);
+    }
+
+    /**
+     * Generate the stream of resources from a series of streamed responses obtained from the page supplier.  Each page is expected to be a stream of slices, each containing the page metadata and
+     * some of the page's resources, such as those returned by the {@code listStreaming} operations.  Resources are emitted in page order as soon as they are received and pages are requested one at
+     * a time, so that no more than a single page is in flight at once.
+     *
+     * @param pageSupplier a function from integers to {@link Flux}s of {@link org.cloudfoundry.client.v3.PaginatedResponse} slices.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.client.v3.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.client.v3.PaginatedResponse<T>> Flux<T> requestClientV3ResourcesStreaming(Function<Integer, Flux<U>> pageSupplier) {
+        return requestSlices(pageSupplier, response -> Flux.range(2, getTotalPages(response.getPagination().getTotalPages()) - 1))
             .flatMapIterable(org.cloudfoundry.client.v3.PaginatedResponse::getResources);
     }
 
@@ -73,44 +140,95 @@ public final class PaginationUtils {
      */
     @SuppressWarnings("rawtypes")
     public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier) {
+        return requestUaaResources(pageSupplier, DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Generate the stream of resources accumulated from a series of responses obtained from the page supplier.  Once the first page has been received, up to {@code concurrency}
+     * additional pages are requested at a time and each page's resources are emitted as soon as the preceding pages have been emitted.  Cancelling the stream cancels any outstanding page requests.
+     *
+     * @param pageSupplier a function from integers to {@link Mono}s of {@link org.cloudfoundry.uaa.PaginatedResponse}s.
+     * @param concurrency  the maximum number of additional pages to request concurrently.  Pages are emitted in page order regardless of the order in which they are received.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResources(Function<Integer, Mono<U>> pageSupplier, int concurrency) {
         return pageSupplier
             .apply(1)
-            .flatMap(requestUaaAdditionalPages(pageSupplier))
+            .flatMap(requestUaaAdditionalPages(pageSupplier, concurrency))
             .flatMapIterable(org.cloudfoundry.uaa.PaginatedResponse::getResources);
     }
 
-    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier) {
+    /**
+     * Generate the stream of resources from a series of streamed responses obtained from the page supplier.  Each page is expected to be a stream of slices, each containing the page metadata and
+     * some of the page's resources, such as those returned by the {@code listStreaming} operations.  Resources are emitted in page order as soon as they are received and pages are requested one at
+     * a time, so that no more than a single page is in flight at once.
+     *
+     * @param pageSupplier a function from integers to {@link Flux}s of {@link org.cloudfoundry.uaa.PaginatedResponse} slices.
+     * @param <T>          the type of resource in the list on each {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @param <U>          the type of {@link org.cloudfoundry.uaa.PaginatedResponse}.
+     * @return a stream of <code>T</code> objects.
+     */
+    @SuppressWarnings("rawtypes")
+    public static <T, U extends org.cloudfoundry.uaa.PaginatedResponse<T>> Flux<T> requestUaaResourcesStreaming(Function<Integer, Flux<U>> pageSupplier) {
+        return requestSlices(pageSupplier, response -> {
+            Integer totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
+
+            return Flux
+                .range(1, totalPages - 1)
+                .map(page -> 1 + (page * response.getItemsPerPage()));
+        })
+            .flatMapIterable(org.cloudfoundry.uaa.PaginatedResponse::getResources);
+    }
+
+    private static Integer getTotalPages(Integer totalPages) {
+        return Optional.ofNullable(totalPages).orElse(1);
+    }
+
+    private static <T> Function<T, Flux<T>> requestAdditionalPages(Function<Integer, Mono<T>> pageSupplier, Function<T, Integer> totalPagesSupplier, int concurrency) {
         return response -> {
-            Integer totalPages = Optional.ofNullable(totalPagesSupplier.apply(response)).orElse(1);
+            Integer totalPages = getTotalPages(totalPagesSupplier.apply(response));
 
             return Flux
                 .range(2, totalPages - 1)
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+                .flatMapSequential(pageSupplier, concurrency, 1)
+                .startWith(response);
         };
     }
 
-    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages());
+    private static <T extends org.cloudfoundry.client.v2.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV2AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getTotalPages(), concurrency);
+    }
+
+    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
+        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages(), concurrency);
     }
 
-    private static <T extends org.cloudfoundry.client.v3.PaginatedResponse<?>> Function<T, Flux<T>> requestClientV3AdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
-        return requestAdditionalPages(pageSupplier, response -> response.getPagination().getTotalPages());
+    private static <T> Flux<T> requestSlices(Function<Integer, Flux<T>> sliceSupplier, Function<T, Flux<Integer>> additionalPagesSupplier) {
+        return Flux.defer(() -> {
+            AtomicReference<T> first = new AtomicReference<>();
+
+            return sliceSupplier
+                .apply(1)
+                .doOnNext(slice -> first.compareAndSet(null, slice))
+                .concatWith(Flux.defer(() -> Optional.ofNullable(first.get())
+                    .map(additionalPagesSupplier)
+                    .orElse(Flux.empty())
+                    .concatMap(sliceSupplier)));
+        });
     }
 
-    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier) {
+    private static <T extends org.cloudfoundry.uaa.PaginatedResponse<?>> Function<T, Flux<T>> requestUaaAdditionalPages(Function<Integer, Mono<T>> pageSupplier, int concurrency) {
         return response -> {
             Integer totalPages = (response.getTotalResults() - 1) / response.getItemsPerPage() + 1;
 
             return Flux
                 .range(1, totalPages - 1)
                 .map(page -> 1 + (page * response.getItemsPerPage()))
-                .flatMap(pageSupplier)
-                .startWith(response)
-                .buffer()
-                .flatMapIterable(d -> d);
+                .flatMapSequential(pageSupplier, concurrency, 1)
+                .startWith(response);
         };
     }
 
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.Cancellation;
+import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.TimedScheduler;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded reorder buffer.  At most {@code capacity} elements are requested from upstream at a time, so the buffer never holds more than that.  Each element is held until it has been buffered
+ * for longer than the maximum skew, and is then emitted in order as soon as downstream demand allows.  Signals from upstream, downstream, and the timer are serialized through a single drain loop,
+ * so the buffer itself is only ever touched by one thread at a time.
+ */
+final class ReorderBuffer<T> implements Subscriber<T>, Subscription {
+
+    private final Subscriber<? super T> actual;
+
+    private final PriorityQueue<Timestamped<T>> buffer;
+
+    private final int capacity;
+
+    private final Queue<Timestamped<T>> incoming = new ConcurrentLinkedQueue<>();
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final long skew;
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private final TimedScheduler.TimedWorker worker = Schedulers.timer().createWorker();
+
+    private volatile boolean cancelled;
+
+    private volatile boolean done;
+
+    private Throwable error;
+
+    private Cancellation timer;
+
+    private long timerDeadline;
+
+    private Subscription upstream;
+
+    ReorderBuffer(Subscriber<? super T> actual, Comparator<T> comparator, long skew, int capacity) {
+        this.actual = actual;
+        this.buffer = new PriorityQueue<>((o1, o2) -> comparator.compare(o1.value, o2.value));
+        this.capacity = capacity;
+        this.skew = skew;
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        this.upstream.cancel();
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        this.error = t;
+        this.done = true;
+        drain();
+    }
+
+    @Override
+    public void onNext(T t) {
+        this.incoming.offer(new Timestamped<>(this.worker.now(TimeUnit.MILLISECONDS), t));
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        this.upstream = s;
+        this.actual.onSubscribe(this);
+        s.request(this.capacity);
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            this.actual.onError(new IllegalArgumentException(String.format("Request must be positive: %d", n)));
+            return;
+        }
+
+        addRequested(n);
+        drain();
+    }
+
+    private void addRequested(long n) {
+        for (; ; ) {
+            long current = this.requested.get();
+            long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+
+            if (this.requested.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    private void clear() {
+        this.buffer.clear();
+        this.incoming.clear();
+
+        if (this.timer != null) {
+            this.timer.dispose();
+        }
+        this.worker.shutdown();
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            if (this.cancelled) {
+                clear();
+                return;
+            }
+
+            boolean d = this.done;
+
+            Timestamped<T> candidate;
+            while ((candidate = this.incoming.poll()) != null) {
+                this.buffer.add(candidate);
+            }
+
+            long now = this.worker.now(TimeUnit.MILLISECONDS);
+            long r = this.requested.get();
+            long e = 0;
+
+            while (e != r) {
+                Timestamped<T> head = this.buffer.peek();
+
+                if (head == null || (!d && head.timestamp + this.skew > now)) {
+                    break;
+                }
+
+                this.buffer.poll();
+                this.actual.onNext(head.value);
+                e++;
+
+                if (this.cancelled) {
+                    clear();
+                    return;
+                }
+            }
+
+            if (e != 0) {
+                if (r != Long.MAX_VALUE) {
+                    this.requested.addAndGet(-e);
+                }
+
+                if (!d) {
+                    this.upstream.request(e);
+                }
+            }
+
+            if (d && this.buffer.isEmpty()) {
+                clear();
+
+                if (this.error != null) {
+                    this.actual.onError(this.error);
+                } else {
+                    this.actual.onComplete();
+                }
+
+                return;
+            }
+
+            schedule(now);
+
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void schedule(long now) {
+        Timestamped<T> head = this.buffer.peek();
+        if (head == null) {
+            return;
+        }
+
+        long deadline = head.timestamp + this.skew;
+        if (deadline <= now) {
+            return;
+        }
+
+        if (this.timer != null && this.timerDeadline > now && this.timerDeadline <= deadline) {
+            return;
+        }
+
+        if (this.timer != null) {
+            this.timer.dispose();
+        }
+
+        this.timerDeadline = deadline;
+        this.timer = this.worker.schedule(this::drain, deadline - now, TimeUnit.MILLISECONDS);
+    }
+
+    private static final class Timestamped<T> {
+
+        private final long timestamp;
+
+        private final T value;
+
+        private Timestamped(long timestamp, T value) {
+            this.timestamp = timestamp;
+            this.value = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.applications.Resource;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Utilities for matching application bits against those already known to Cloud Foundry
+ */
+public final class ResourceMatchingUtils {
+
+    private static final int CONCURRENCY = Runtime.getRuntime().availableProcessors();
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ResourceMatchingUtils() {
+    }
+
+    /**
+     * Returns the resources of an application that Cloud Foundry already has, and therefore do not need to be uploaded
+     *
+     * @param cloudFoundryClient the client to use to request matching resources
+     * @param application        a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @return the resources that matched
+     */
+    public static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application) {
+        return getMatchedResources(cloudFoundryClient, getResources(application));
+    }
+
+    /**
+     * Returns the resources of an application that Cloud Foundry already has, and therefore do not need to be uploaded, reusing the fingerprints recorded in an {@link ArtifactCache}
+     *
+     * @param cloudFoundryClient the client to use to request matching resources
+     * @param application        a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @param artifactCache      the cache of file fingerprints
+     * @return the resources that matched
+     */
+    public static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Path application, ArtifactCache artifactCache) {
+        return getMatchedResources(cloudFoundryClient, getResources(application, artifactCache));
+    }
+
+    /**
+     * Returns the resources of an application.  Each regular file is fingerprinted with its SHA-1 hash, size, and mode, and named relative to the root of the application.  Files are
+     * fingerprinted in parallel.
+     *
+     * @param application a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @return the resources of the application
+     */
+    public static Flux<Resource> getResources(Path application) {
+        return getResources(application, ResourceMatchingUtils::getHash);
+    }
+
+    /**
+     * Returns the resources of an application, reusing the fingerprints recorded in an {@link ArtifactCache} for files that have not changed since they were last fingerprinted
+     *
+     * @param application   a {@link Path} representing either a compressed <i>or</i> exploded artifact
+     * @param artifactCache the cache of file fingerprints
+     * @return the resources of the application
+     */
+    public static Flux<Resource> getResources(Path application, ArtifactCache artifactCache) {
+        return getResources(application, artifactCache::getHash)
+            .doOnComplete(artifactCache::save);
+    }
+
+    static String getHash(Path path) {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] buffer = new byte[8192];
+
+            int length;
+            while ((length = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, length);
+            }
+
+            return toHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw Exceptions.propagate(e);
+        }
+    }
+
+    private static List<Resource> filter(List<Resource> resources, Set<String> hashes) {
+        return resources.stream()
+            .filter(resource -> hashes.contains(resource.getHash()))
+            .collect(Collectors.toList());
+    }
+
+    private static Mono<List<Resource>> getMatchedResources(CloudFoundryClient cloudFoundryClient, Flux<Resource> resources) {
+        return resources
+            .collectList()
+            .then(localResources -> {
+                if (localResources.isEmpty()) {
+                    return Mono.just(Collections.<Resource>emptyList());
+                }
+
+                return requestListMatchingResources(cloudFoundryClient, localResources)
+                    .map(response -> response.getResources().stream()
+                        .map(org.cloudfoundry.client.v2.resourcematch.Resource::getHash)
+                        .collect(Collectors.toSet()))
+                    .map(hashes -> filter(localResources, hashes));
+            });
+    }
+
+    private static Resource getResource(Path root, Path path, Function<Path, String> hasher) throws IOException {
+        return Resource.builder()
+            .hash(hasher.apply(path))
+            .mode(Integer.toOctalString(FileUtils.getUnixMode(path)))
+            .path(FileUtils.getRelativePathName(root, path))
+            .size(Math.toIntExact(Files.size(path)))
+            .build();
+    }
+
+    private static Flux<Resource> getResources(Path application, Function<Path, String> hasher) {
+        return Flux
+            .using(() -> FileUtils.normalize(application), root -> Flux
+                .using(() -> Files.walk(root), Flux::fromStream, Stream::close)
+                .filter(Files::isRegularFile)
+                .flatMap(path -> Mono
+                    .fromCallable(() -> getResource(root, path, hasher))
+                    .subscribeOn(Schedulers.elastic()), CONCURRENCY), root -> FileUtils.close(application, root));
+    }
+
+    private static Mono<ListMatchingResourcesResponse> requestListMatchingResources(CloudFoundryClient cloudFoundryClient, List<Resource> resources) {
+        return cloudFoundryClient.resourceMatch()
+            .list(ListMatchingResourcesRequest.builder()
+                .resources(resources.stream()
+                    .map(resource -> org.cloudfoundry.client.v2.resourcematch.Resource.builder()
+                        .hash(resource.getHash())
+                        .mode(resource.getMode())
+                        .size(resource.getSize())
+                        .build())
+                    .collect(Collectors.toList()))
+                .build());
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+        }
+
+        return new String(chars);
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A k-way merge of sources that are each already sorted.  At most {@code prefetch} elements are requested from each source at a time, and an element is only emitted once every source that has
+ * not completed has an element available, so the smallest available element is always the smallest remaining one.  Signals from the sources and downstream are serialized through a single drain
+ * loop.
+ */
+final class SortedMerge<T> implements Subscription {
+
+    private final Subscriber<? super T> actual;
+
+    private final Comparator<T> comparator;
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    private final Inner[] inners;
+
+    private final int limit;
+
+    private final AtomicLong requested = new AtomicLong();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private volatile boolean cancelled;
+
+    @SuppressWarnings("unchecked")
+    SortedMerge(Subscriber<? super T> actual, Comparator<T> comparator, int sources, int prefetch) {
+        this.actual = actual;
+        this.comparator = comparator;
+        this.inners = new SortedMerge.Inner[sources];
+        this.limit = prefetch - (prefetch >> 2);
+
+        for (int i = 0; i < sources; i++) {
+            this.inners[i] = new Inner(prefetch);
+        }
+    }
+
+    @Override
+    public void cancel() {
+        this.cancelled = true;
+        cancelAll();
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            cancel();
+            this.actual.onError(new IllegalArgumentException(String.format("Request must be positive: %d", n)));
+            return;
+        }
+
+        for (; ; ) {
+            long current = this.requested.get();
+            long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+
+            if (this.requested.compareAndSet(current, next)) {
+                break;
+            }
+        }
+
+        drain();
+    }
+
+    void subscribe(List<? extends Publisher<T>> sources) {
+        this.actual.onSubscribe(this);
+
+        for (int i = 0; i < this.inners.length && !this.cancelled; i++) {
+            sources.get(i).subscribe(this.inners[i]);
+        }
+    }
+
+    private void cancelAll() {
+        for (Inner inner : this.inners) {
+            inner.cancel();
+        }
+    }
+
+    private void clear() {
+        for (Inner inner : this.inners) {
+            inner.queue.clear();
+        }
+    }
+
+    private void drain() {
+        if (this.wip.getAndIncrement() != 0) {
+            return;
+        }
+
+        int missed = 1;
+        do {
+            long r = this.requested.get();
+            long e = 0;
+
+            for (; ; ) {
+                if (this.cancelled) {
+                    clear();
+                    return;
+                }
+
+                Throwable t = this.error.get();
+                if (t != null) {
+                    cancelAll();
+                    clear();
+                    this.actual.onError(t);
+                    return;
+                }
+
+                Inner min = null;
+                boolean ready = true;
+                boolean empty = true;
+
+                for (Inner inner : this.inners) {
+                    boolean d = inner.done;
+                    T head = inner.queue.peek();
+
+                    if (head == null) {
+                        if (!d) {
+                            ready = false;
+                            empty = false;
+                        }
+                        continue;
+                    }
+
+                    empty = false;
+                    if (min == null || this.comparator.compare(head, min.queue.peek()) < 0) {
+                        min = inner;
+                    }
+                }
+
+                if (empty) {
+                    this.actual.onComplete();
+                    return;
+                }
+
+                if (!ready || min == null || e == r) {
+                    break;
+                }
+
+                this.actual.onNext(min.queue.poll());
+                min.replenish();
+                e++;
+            }
+
+            if (e != 0 && r != Long.MAX_VALUE) {
+                this.requested.addAndGet(-e);
+            }
+
+            missed = this.wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private final class Inner implements Subscriber<T> {
+
+        private final int prefetch;
+
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+
+        private volatile boolean done;
+
+        private int produced;
+
+        private volatile Subscription subscription;
+
+        private Inner(int prefetch) {
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onComplete() {
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            SortedMerge.this.error.compareAndSet(null, t);
+            this.done = true;
+            drain();
+        }
+
+        @Override
+        public void onNext(T t) {
+            this.queue.offer(t);
+            drain();
+        }
+
+        @Override
+        public void onSubscribe(Subscription s) {
+            this.subscription = s;
+
+            if (SortedMerge.this.cancelled) {
+                s.cancel();
+                return;
+            }
+
+            s.request(this.prefetch);
+        }
+
+        private void cancel() {
+            Subscription s = this.subscription;
+            if (s != null) {
+                s.cancel();
+            }
+        }
+
+        private void replenish() {
+            if (++this.produced == SortedMerge.this.limit) {
+                this.produced = 0;
+                this.subscription.request(SortedMerge.this.limit);
+            }
+        }
+
+    }
+
+}
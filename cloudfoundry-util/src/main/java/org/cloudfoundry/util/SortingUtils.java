@@ -16,18 +16,12 @@
 
 package org.cloudfoundry.util;
 
-import reactor.core.Cancellation;
-import reactor.core.publisher.DirectProcessor;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
-import reactor.util.function.Tuple2;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.function.Function;
 
 /**
@@ -35,12 +29,34 @@ import java.util.function.Function;
  */
 public final class SortingUtils {
 
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int DEFAULT_PREFETCH = 32;
+
     private SortingUtils() {
     }
 
+    /**
+     * Merges sources that are each already sorted into a single sorted {@link Flux}.  This merge should be used instead of collecting and sorting when the elements are known to be sorted within
+     * each source (for example, the log messages of a single application instance) so that only a few elements from each source are held at a time rather than the entire collection.
+     *
+     * @param comparator a {@link Comparator} that each of the sources is sorted by
+     * @param sources    the sorted sources
+     * @param <T>        The type of the elements to be merged
+     * @return a {@link Flux} providing the merged elements
+     */
+    public static <T> Flux<T> merge(Comparator<T> comparator, List<? extends Publisher<T>> sources) {
+        if (sources.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return Flux.from(subscriber -> new SortedMerge<T>(subscriber, comparator, sources.size(), DEFAULT_PREFETCH).subscribe(sources));
+    }
+
     /**
      * Sorts the elements of a {@link Flux} within a sliding time window.  This sorter should be used when element order may be scrambled, but that scrambling has a certain 'temporal locality' to it.
-     * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.
+     * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.  At most 8192 elements are
+     * held at a time.
      *
      * @param comparator a {@link Comparator} to use when sorting the elements within the window
      * @param timespan   the duration of the 'temporal locality'
@@ -48,42 +64,26 @@ public final class SortingUtils {
      * @return a {@link Flux} providing the sorted elements
      */
     public static <T> Function<Flux<T>, Flux<T>> timespan(Comparator<T> comparator, Duration timespan) {
-        return source -> {
-            Queue<Tuple2<Long, T>> accumulator = new PriorityQueue<>((o1, o2) -> comparator.compare(o1.getT2(), o2.getT2()));
-            Object monitor = new Object();
-
-            DirectProcessor<Void> d = DirectProcessor.create();
-
-            Cancellation cancellation = source
-                .timestamp()
-                .subscribe(e -> {
-                    synchronized (monitor) {
-                        accumulator.add(e);
-                    }
-                }, d::onError, d::onComplete);
-
-            return Flux
-                .interval(timespan)
-                .takeUntilOther(d)
-                .flatMap(n -> getItems(accumulator, comparator, timespan), null, () -> getItems(accumulator, comparator, Duration.ZERO))
-                .doOnCancel(cancellation::dispose);
-        };
+        return timespan(comparator, timespan, DEFAULT_CAPACITY);
     }
 
-    private static <T> Flux<T> getItems(Queue<Tuple2<Long, T>> accumulator, Object monitor, Duration timespan) {
-        List<T> items = new ArrayList<>();
-
-        synchronized (monitor) {
-            while (isBefore(accumulator.peek(), timespan)) {
-                items.add(accumulator.remove().getT2());
-            }
+    /**
+     * Sorts the elements of a {@link Flux} within a sliding time window.  This sorter should be used when element order may be scrambled, but that scrambling has a certain 'temporal locality' to it.
+     * This assumption means that sorting can be limited to elements that arrive temporally close to one another without risking a latecomer being sorted incorrectly.  Each element is emitted as
+     * soon as it is older than the {@code timespan}, and no more than {@code capacity} elements are held at a time; once that many are held, the source is backpressured.
+     *
+     * @param comparator a {@link Comparator} to use when sorting the elements within the window
+     * @param timespan   the duration of the 'temporal locality'
+     * @param capacity   the maximum number of elements to hold at a time
+     * @param <T>        The type of the elements to be sorted
+     * @return a {@link Flux} providing the sorted elements
+     */
+    public static <T> Function<Flux<T>, Flux<T>> timespan(Comparator<T> comparator, Duration timespan, int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
         }
 
-        return Flux.fromIterable(items);
-    }
-
-    private static <T> boolean isBefore(Tuple2<Long, T> candidate, Duration timespan) {
-        return candidate != null && (Duration.ZERO == timespan || Instant.ofEpochMilli(candidate.getT1()).isBefore(Instant.now().minus(timespan)));
+        return source -> Flux.<T>from(subscriber -> source.subscribe(new ReorderBuffer<>(subscriber, comparator, timespan.toMillis(), capacity)));
     }
 
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.CloudFoundryException;
+import org.cloudfoundry.client.v2.Resource;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEventResource;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsRequest;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsRequest;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ServiceUsageEventResource;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Utilities for Usage Events
+ */
+public final class UsageEventUtils {
+
+    private static final int MAXIMUM_BACKOFF_ITERATIONS = 16;
+
+    private static final int RESULTS_PER_PAGE = 100;
+
+    private static final Duration RETRY_TIMEOUT = Duration.ofMinutes(5);
+
+    private UsageEventUtils() {
+    }
+
+    /**
+     * Continuously tails the application usage events, emitting each event once, in order, starting after a given event.  A page of events is requested after the cursor and the cursor is advanced
+     * to the last event received.  If the page was full, the next page is requested immediately.  If the page was partially full, the next page is requested after the {@code minimum} delay.  If
+     * the page was empty, the delay grows exponentially from {@code minimum} to {@code maximum} until new events arrive.  A request that fails with anything other than a
+     * {@link CloudFoundryException} is retried with an exponential backoff from {@code minimum} to {@code maximum} for up to five minutes.  Callers wishing to resume after a restart should persist
+     * the id of the last event they processed and pass it as {@code afterApplicationUsageEventId}.
+     *
+     * @param cloudFoundryClient           the client to use to request application usage events
+     * @param afterApplicationUsageEventId the id of the event to start after.  If {@code null}, tailing starts from the first event.
+     * @param minimum                      the minimum delay between polls once all events have been received
+     * @param maximum                      the maximum delay between polls
+     * @return an infinite stream of application usage events
+     */
+    public static Flux<ApplicationUsageEventResource> tailApplicationUsageEvents(CloudFoundryClient cloudFoundryClient, String afterApplicationUsageEventId, Duration minimum, Duration maximum) {
+        return tail(cursor -> requestApplicationUsageEvents(cloudFoundryClient, cursor)
+            .flatMap(ResourceUtils::getResources), afterApplicationUsageEventId, minimum, maximum);
+    }
+
+    /**
+     * Continuously tails the service usage events, emitting each event once, in order, starting after a given event.  A page of events is requested after the cursor and the cursor is advanced to
+     * the last event received.  If the page was full, the next page is requested immediately.  If the page was partially full, the next page is requested after the {@code minimum} delay.  If the
+     * page was empty, the delay grows exponentially from {@code minimum} to {@code maximum} until new events arrive.  A request that fails with anything other than a {@link CloudFoundryException}
+     * is retried with an exponential backoff from {@code minimum} to {@code maximum} for up to five minutes.  Callers wishing to resume after a restart should persist the id of the last event they
+     * processed and pass it as {@code afterServiceUsageEventId}.
+     *
+     * @param cloudFoundryClient       the client to use to request service usage events
+     * @param afterServiceUsageEventId the id of the event to start after.  If {@code null}, tailing starts from the first event.
+     * @param minimum                  the minimum delay between polls once all events have been received
+     * @param maximum                  the maximum delay between polls
+     * @return an infinite stream of service usage events
+     */
+    public static Flux<ServiceUsageEventResource> tailServiceUsageEvents(CloudFoundryClient cloudFoundryClient, String afterServiceUsageEventId, Duration minimum, Duration maximum) {
+        return tail(cursor -> requestServiceUsageEvents(cloudFoundryClient, cursor)
+            .flatMap(ResourceUtils::getResources), afterServiceUsageEventId, minimum, maximum);
+    }
+
+    private static Mono<ListApplicationUsageEventsResponse> requestApplicationUsageEvents(CloudFoundryClient cloudFoundryClient, String afterApplicationUsageEventId) {
+        return cloudFoundryClient.applicationUsageEvents()
+            .list(ListApplicationUsageEventsRequest.builder()
+                .afterApplicationUsageEventId(afterApplicationUsageEventId)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build());
+    }
+
+    private static Mono<ListServiceUsageEventsResponse> requestServiceUsageEvents(CloudFoundryClient cloudFoundryClient, String afterServiceUsageEventId) {
+        return cloudFoundryClient.serviceUsageEvents()
+            .list(ListServiceUsageEventsRequest.builder()
+                .afterServiceUsageEventId(afterServiceUsageEventId)
+                .resultsPerPage(RESULTS_PER_PAGE)
+                .build());
+    }
+
+    private static <T extends Resource<?>> Flux<T> tail(Function<String, Flux<T>> eventsSupplier, String after, Duration minimum, Duration maximum) {
+        return Flux.defer(() -> {
+            AtomicReference<String> cursor = new AtomicReference<>(after);
+            AtomicInteger idleIterations = new AtomicInteger();
+            AtomicInteger received = new AtomicInteger();
+
+            return Flux
+                .defer(() -> eventsSupplier.apply(cursor.get()))
+                .retryWhen(transientErrors(minimum, maximum))
+                .doOnSubscribe(subscription -> received.set(0))
+                .doOnNext(event -> {
+                    cursor.set(ResourceUtils.getId(event));
+                    received.incrementAndGet();
+                })
+                .repeatWhen(cycles -> cycles
+                    .concatMap(cycle -> {
+                        if (received.get() >= RESULTS_PER_PAGE) {
+                            idleIterations.set(0);
+                            return Mono.just(0L);
+                        }
+
+                        if (received.get() > 0) {
+                            idleIterations.set(0);
+                        }
+
+                        return DelayUtils.jitteredBackOff(minimum, maximum, 0, Math.min(idleIterations.getAndIncrement(), MAXIMUM_BACKOFF_ITERATIONS));
+                    }));
+        });
+    }
+
+    private static Function<Flux<Throwable>, Publisher<?>> transientErrors(Duration minimum, Duration maximum) {
+        return errors -> DelayUtils.exponentialBackOffError(minimum, maximum, RETRY_TIMEOUT)
+            .apply(errors
+                .flatMap(error -> error instanceof CloudFoundryException ? Mono.<Throwable>error(error) : Mono.just(error)));
+    }
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class ArtifactCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void evict() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        ArtifactCache artifactCache = new ArtifactCache(directory, 0);
+
+        close(artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet()));
+        close(artifactCache.getArchive(createApplication("test-content-2"), Collections.emptySet()));
+
+        assertThat(countArchives(directory)).isEqualTo(1);
+    }
+
+    @Test
+    public void evictInUse() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        ArtifactCache artifactCache = new ArtifactCache(directory, 0);
+
+        try (InputStream in = artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet())) {
+            close(artifactCache.getArchive(createApplication("test-content-2"), Collections.emptySet()));
+            assertThat(countArchives(directory)).isEqualTo(2);
+            assertThat(in.read()).isNotEqualTo(-1);
+        }
+
+        close(artifactCache.getArchive(createApplication("test-content-3"), Collections.emptySet()));
+        assertThat(countArchives(directory)).isEqualTo(1);
+    }
+
+    @Test
+    public void getArchive() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+
+        close(artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet()));
+        close(artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet()));
+        close(artifactCache.getArchive(createApplication("test-content-1"), Collections.singleton("test-file")));
+
+        assertThat(countArchives(directory)).isEqualTo(2);
+    }
+
+    @Test
+    public void getArchiveFileInputStream() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+
+        try (InputStream in = artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet())) {
+            assertThat(in).as("archives can be sent as file regions").isInstanceOf(FileInputStream.class);
+        }
+
+        try (InputStream in = artifactCache.getArchive(createApplication("test-content-1"), Collections.emptySet())) {
+            assertThat(in).as("cached archives can be sent as file regions").isInstanceOf(FileInputStream.class);
+        }
+    }
+
+    @Test
+    public void getHash() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        Path application = createApplication("test-content-1");
+
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+        assertThat(artifactCache.getHash(application.resolve("test-file"))).isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+        artifactCache.save();
+
+        assertThat(directory.resolve("fingerprints.properties")).exists();
+        assertThat(new ArtifactCache(directory, Long.MAX_VALUE).getHash(application.resolve("test-file"))).isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+    }
+
+    @Test
+    public void getHashArchiveEntry() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        Path application = this.folder.newFile("test-application.zip").toPath();
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+
+        createArchive(application, "test-content-1");
+        setLastModifiedTime(application, Instant.parse("2016-01-01T00:00:00Z"));
+        assertThat(getArchiveEntryHash(artifactCache, application)).isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+
+        createArchive(application, "test-content-2");
+        setLastModifiedTime(application, Instant.parse("2016-01-01T00:00:00Z"));
+        assertThat(getArchiveEntryHash(artifactCache, application)).as("fingerprint reused while archive is unchanged").isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+
+        setLastModifiedTime(application, Instant.parse("2016-01-02T00:00:00Z"));
+        assertThat(getArchiveEntryHash(artifactCache, application)).isNotEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+    }
+
+    @Test
+    public void getHashReused() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        Path file = createApplication("test-content-1").resolve("test-file");
+        FileTime lastModified = Files.getLastModifiedTime(file);
+
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+        assertThat(artifactCache.getHash(file)).isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+        artifactCache.save();
+
+        Files.write(file, "test-content-2".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file, lastModified);
+
+        assertThat(artifactCache.getHash(file)).as("fingerprint reused").isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+        assertThat(new ArtifactCache(directory, Long.MAX_VALUE).getHash(file)).as("persisted fingerprint reused").isEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 60_000));
+        assertThat(artifactCache.getHash(file)).isNotEqualTo("5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+    }
+
+    @Test
+    public void pruneFingerprints() throws IOException {
+        Path directory = this.folder.newFolder().toPath();
+        Path application = createApplication("test-content-1");
+
+        ArtifactCache artifactCache = new ArtifactCache(directory, Long.MAX_VALUE);
+        artifactCache.getHash(application.resolve("test-file"));
+        artifactCache.save();
+        assertThat(loadFingerprints(directory)).hasSize(1);
+
+        Files.delete(application.resolve("test-file"));
+        new ArtifactCache(directory, Long.MAX_VALUE).save();
+        assertThat(loadFingerprints(directory)).isEmpty();
+    }
+
+    private static void close(InputStream in) throws IOException {
+        in.close();
+    }
+
+    private static long countArchives(Path directory) throws IOException {
+        try (Stream<Path> contents = Files.list(directory)) {
+            return contents
+                .filter(p -> p.getFileName().toString().endsWith(".zip"))
+                .count();
+        }
+    }
+
+    private static void createArchive(Path archive, String content) throws IOException {
+        try (OutputStream out = Files.newOutputStream(archive); ZipOutputStream zip = new ZipOutputStream(out)) {
+            ZipEntry entry = new ZipEntry("test-file");
+            entry.setTime(Instant.parse("2000-01-01T00:00:00Z").toEpochMilli());
+
+            zip.putNextEntry(entry);
+            zip.write(content.getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+    }
+
+    private static String getArchiveEntryHash(ArtifactCache artifactCache, Path archive) throws IOException {
+        try (FileSystem fileSystem = FileSystems.newFileSystem(archive, null)) {
+            return artifactCache.getHash(fileSystem.getPath("/test-file"));
+        }
+    }
+
+    private static Properties loadFingerprints(Path directory) throws IOException {
+        Properties properties = new Properties();
+
+        try (InputStream in = Files.newInputStream(directory.resolve("fingerprints.properties"))) {
+            properties.load(in);
+        }
+
+        return properties;
+    }
+
+    private static void setLastModifiedTime(Path path, Instant instant) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.from(instant));
+    }
+
+    private Path createApplication(String content) throws IOException {
+        Path application = this.folder.newFolder().toPath();
+        Files.write(application.resolve("test-file"), content.getBytes(StandardCharsets.UTF_8));
+        return application;
+    }
+
+}
@@ -173,4 +173,17 @@ public final class DelayUtilsTest {
         subscriber.verify(Duration.ofSeconds(5));
     }
 
+    @Test
+    public void jitteredBackOff() {
+        ScriptedSubscriber<Long> subscriber = ScriptedSubscriber.<Long>create()
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(4)))
+            .expectNext(0L)
+            .expectComplete();
+
+        DelayUtils.jitteredBackOff(Duration.ofSeconds(1), Duration.ofSeconds(5), 0.5, 2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.cloudfoundry.util;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class FileUtilsTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void closeArchive() throws IOException {
+        Path application = createArchive(this.folder.newFile("test-application.zip").toPath());
+
+        Path root = FileUtils.normalize(application);
+        assertThat(root.getFileSystem().isOpen()).isTrue();
+
+        FileUtils.close(application, root);
+        assertThat(root.getFileSystem().isOpen()).isFalse();
+    }
+
+    @Test
+    public void closeNormalized() throws IOException {
+        Path application = createArchive(this.folder.newFile("test-application.zip").toPath());
+
+        Path root = FileUtils.normalize(application);
+        try {
+            assertThat(FileUtils.normalize(root)).isSameAs(root);
+
+            FileUtils.close(root, FileUtils.normalize(root));
+            assertThat(root.getFileSystem().isOpen()).as("a file system is only closed by the caller that mounted it").isTrue();
+        } finally {
+            FileUtils.close(application, root);
+        }
+    }
+
+    @Test
+    public void normalizeDirectory() throws IOException {
+        Path application = this.folder.newFolder().toPath();
+
+        assertThat(FileUtils.normalize(application)).isSameAs(application);
+    }
+
+    @Test
+    public void toInputStreamArchive() throws IOException {
+        Path application = createArchive(this.folder.newFile("test-application.zip").toPath());
+
+        Map<String, ZipArchiveEntry> entries = new TreeMap<>();
+        Map<String, String> contents = new TreeMap<>();
+        read(FileUtils.toInputStream(application, Collections.singleton("test-excluded-file")), entries, contents);
+
+        assertThat(entries).containsOnlyKeys("test-directory/", "test-directory/test-nested-file", "test-file");
+        assertThat(contents)
+            .containsEntry("test-directory/test-nested-file", "test-content-1")
+            .containsEntry("test-file", "test-content-3");
+        assertThat(entries.get("test-directory/").isDirectory()).isTrue();
+        assertThat(entries.get("test-file").getMethod()).as("entries are copied without recompression").isEqualTo(ZipEntry.STORED);
+        assertThat(entries.values()).extracting(ZipArchiveEntry::getUnixMode).containsOnly(0744);
+    }
+
+    @Test
+    public void toInputStreamDirectory() throws IOException {
+        Path application = this.folder.newFolder().toPath();
+        Files.createDirectory(application.resolve("test-directory"));
+        Files.write(application.resolve("test-directory").resolve("test-nested-file"), "test-content-1".getBytes(StandardCharsets.UTF_8));
+        Files.write(application.resolve("test-excluded-file"), "test-content-2".getBytes(StandardCharsets.UTF_8));
+        Files.write(application.resolve("test-file"), "test-content-3".getBytes(StandardCharsets.UTF_8));
+        Files.setPosixFilePermissions(application.resolve("test-file"), PosixFilePermissions.fromString("rwxr-x---"));
+
+        Map<String, ZipArchiveEntry> entries = new TreeMap<>();
+        Map<String, String> contents = new TreeMap<>();
+        read(FileUtils.toInputStream(application, Collections.singleton("test-excluded-file")), entries, contents);
+
+        assertThat(entries).containsOnlyKeys("test-directory/", "test-directory/test-nested-file", "test-file");
+        assertThat(contents)
+            .containsEntry("test-directory/test-nested-file", "test-content-1")
+            .containsEntry("test-file", "test-content-3");
+        assertThat(entries.get("test-directory/").isDirectory()).isTrue();
+        assertThat(entries.get("test-file").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+        assertThat(entries.get("test-file").getUnixMode()).isEqualTo(0750);
+    }
+
+    @Test
+    public void toInputStreamNormalized() throws IOException {
+        Path application = createArchive(this.folder.newFile("test-application.zip").toPath());
+
+        Path root = FileUtils.normalize(application);
+        try {
+            Map<String, ZipArchiveEntry> entries = new TreeMap<>();
+            Map<String, String> contents = new TreeMap<>();
+            read(FileUtils.toInputStream(root, Collections.singleton("test-excluded-file")), entries, contents);
+
+            assertThat(entries).containsOnlyKeys("test-directory/", "test-directory/test-nested-file", "test-file");
+            assertThat(contents)
+                .containsEntry("test-directory/test-nested-file", "test-content-1")
+                .containsEntry("test-file", "test-content-3");
+            assertThat(entries.get("test-file").getMethod()).as("entries are copied from the containing archive").isEqualTo(ZipEntry.STORED);
+            assertThat(root.getFileSystem().isOpen()).isTrue();
+        } finally {
+            FileUtils.close(application, root);
+        }
+    }
+
+    private static Path createArchive(Path application) throws IOException {
+        try (ZipArchiveOutputStream out = new ZipArchiveOutputStream(application.toFile())) {
+            putEntry(out, "test-directory/", null, ZipEntry.DEFLATED);
+            putEntry(out, "test-directory/test-nested-file", "test-content-1", ZipEntry.DEFLATED);
+            putEntry(out, "test-excluded-file", "test-content-2", ZipEntry.DEFLATED);
+            putEntry(out, "test-file", "test-content-3", ZipEntry.STORED);
+        }
+
+        return application;
+    }
+
+    private static void putEntry(ZipArchiveOutputStream out, String name, String content, int method) throws IOException {
+        ZipArchiveEntry entry = new ZipArchiveEntry(name);
+        entry.setUnixMode(0755);
+
+        if (method == ZipEntry.STORED) {
+            byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(bytes);
+
+            entry.setCrc(crc.getValue());
+            entry.setSize(bytes.length);
+        }
+        entry.setMethod(method);
+
+        out.putArchiveEntry(entry);
+        if (content != null) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        out.closeArchiveEntry();
+    }
+
+    private void read(InputStream in, Map<String, ZipArchiveEntry> entries, Map<String, String> contents) throws IOException {
+        Path archive = this.folder.newFile().toPath();
+
+        try (InputStream source = in) {
+            Files.copy(source, archive, StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            for (ZipArchiveEntry entry : Collections.list(zipFile.getEntries())) {
+                entries.put(entry.getName(), entry);
+
+                if (!entry.isDirectory()) {
+                    try (InputStream entryIn = zipFile.getInputStream(entry); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+                        byte[] buffer = new byte[8192];
+                        int len;
+
+                        while ((len = entryIn.read(buffer)) != -1) {
+                            out.write(buffer, 0, len);
+                        }
+
+                        contents.put(entry.getName(), new String(out.toByteArray(), StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ import org.cloudfoundry.uaa.users.Name;
 import org.cloudfoundry.uaa.users.User;
 import org.cloudfoundry.uaa.users.Users;
 import org.junit.Test;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.subscriber.ScriptedSubscriber;
 
@@ -68,6 +69,22 @@ public final class PaginationUtilsTest {
         subscriber.verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesConcurrency() throws InterruptedException, TimeoutException {
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("1", "2", "3")
+            .expectComplete();
+
+        PaginationUtils
+            .requestClientV2Resources(page -> Mono
+                .delay(Duration.ofMillis(page == 2 ? 200 : 0))
+                .map(n -> listSpacesSlice(page, 3)), 2)
+            .map(resource -> resource.getEntity().getName())
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV2ResourcesEmpty() throws InterruptedException, TimeoutException {
         Spaces spaces = mock(Spaces.class, RETURNS_SMART_NULLS);
@@ -87,6 +104,19 @@ public final class PaginationUtilsTest {
         subscriber.verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestClientV2ResourcesStreaming() throws InterruptedException, TimeoutException {
+        ScriptedSubscriber<SpaceResource> subscriber = ScriptedSubscriber.<SpaceResource>create()
+            .expectNextCount(6)
+            .expectComplete();
+
+        PaginationUtils
+            .requestClientV2ResourcesStreaming(page -> Flux.just(listSpacesSlice(page, 3), listSpacesSlice(page, 3)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
     @Test
     public void requestClientV3Empty() throws InterruptedException, TimeoutException {
         Packages packages = mock(Packages.class, RETURNS_SMART_NULLS);
@@ -169,6 +199,39 @@ public final class PaginationUtilsTest {
         subscriber.verify(Duration.ofSeconds(1));
     }
 
+    @Test
+    public void requestUaaResourcesStreaming() throws InterruptedException, TimeoutException {
+        Users users = mock(Users.class, RETURNS_SMART_NULLS);
+
+        requestListUsersStreaming(users, 1, 100, 250);
+        requestListUsersStreaming(users, 101, 100, 250);
+        requestListUsersStreaming(users, 201, 100, 250);
+
+        ScriptedSubscriber<User> subscriber = ScriptedSubscriber.<User>create()
+            .expectNextCount(3)
+            .expectComplete();
+
+        PaginationUtils
+            .requestUaaResourcesStreaming(startIndex -> users
+                .listStreaming(ListUsersRequest.builder()
+                    .startIndex(startIndex)
+                    .build()))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    private static ListSpacesResponse listSpacesSlice(Integer page, Integer totalPages) {
+        return ListSpacesResponse.builder()
+            .resource(SpaceResource.builder()
+                .entity(SpaceEntity.builder()
+                    .name(page.toString())
+                    .build())
+                .build())
+            .totalPages(totalPages)
+            .build();
+    }
+
     private static void requestListPackages(Packages packages, Integer page, Integer totalPages) {
         when(packages
             .list(ListPackagesRequest.builder()
@@ -270,4 +333,33 @@ public final class PaginationUtilsTest {
                     .build()));
     }
 
+    private static void requestListUsersStreaming(Users users, Integer startIndex, Integer itemsPerPage, Integer totalResults) {
+        when(users
+            .listStreaming(ListUsersRequest.builder()
+                .startIndex(startIndex)
+                .build()))
+            .thenReturn(Flux
+                .just(ListUsersResponse.builder()
+                    .resource(User.builder()
+                        .active(true)
+                        .meta(Meta.builder()
+                            .created("test-created")
+                            .lastModified("test-last-modified")
+                            .version(0)
+                            .build())
+                        .id(startIndex.toString())
+                        .name(Name.builder()
+                            .build())
+                        .origin("test-origin")
+                        .passwordLastModified("test-password-last-modified")
+                        .verified(true)
+                        .userName("test-user-name")
+                        .zoneId("test-zone-id")
+                        .build())
+                    .itemsPerPage(itemsPerPage)
+                    .startIndex(startIndex)
+                    .totalResults(totalResults)
+                    .build()));
+    }
+
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesRequest;
+import org.cloudfoundry.client.v2.resourcematch.ListMatchingResourcesResponse;
+import org.cloudfoundry.client.v2.resourcematch.Resource;
+import org.cloudfoundry.client.v2.resourcematch.ResourceMatch;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class ResourceMatchingUtilsTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final ResourceMatch resourceMatch = mock(ResourceMatch.class, RETURNS_SMART_NULLS);
+
+    @Test
+    public void getMatchedResources() throws IOException {
+        when(this.cloudFoundryClient.resourceMatch()).thenReturn(this.resourceMatch);
+        requestListMatchingResources(this.resourceMatch, "5e749a1e6c7e612bd887fa8dd7924717f21ac0b9");
+
+        Path application = createApplication();
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-file-1:5e749a1e6c7e612bd887fa8dd7924717f21ac0b9:14")
+            .expectComplete();
+
+        ResourceMatchingUtils.getMatchedResources(this.cloudFoundryClient, application)
+            .flatMap(Flux::fromIterable)
+            .map(resource -> String.format("%s:%s:%d", resource.getPath(), resource.getHash(), resource.getSize()))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void getResources() throws IOException {
+        Path application = createApplication();
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-file-1:5e749a1e6c7e612bd887fa8dd7924717f21ac0b9:14")
+            .expectNext("test-file-2:e5f3ec9a459b5cbef5b6548e170ce17b0903d3a0:14")
+            .expectComplete();
+
+        ResourceMatchingUtils.getResources(application)
+            .map(resource -> String.format("%s:%s:%d", resource.getPath(), resource.getHash(), resource.getSize()))
+            .collectSortedList()
+            .flatMap(Flux::fromIterable)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    private static void requestListMatchingResources(ResourceMatch resourceMatch, String hash) {
+        when(resourceMatch
+            .list(any(ListMatchingResourcesRequest.class)))
+            .thenReturn(Mono
+                .just(ListMatchingResourcesResponse.builder()
+                    .resource(Resource.builder()
+                        .hash(hash)
+                        .size(14)
+                        .build())
+                    .build()));
+    }
+
+    private Path createApplication() throws IOException {
+        Path application = this.folder.newFolder().toPath();
+        Files.write(application.resolve("test-file-1"), "test-content-1".getBytes(StandardCharsets.UTF_8));
+        Files.write(application.resolve("test-file-2"), "test-content-2".getBytes(StandardCharsets.UTF_8));
+        return application;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public final class SortingUtilsTest {
+
+    @After
+    public void disableVirtualTime() throws Exception {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Before
+    public void enableVirtualTime() {
+        VirtualTimeScheduler.enable(true);
+    }
+
+    @Test
+    public void merge() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .expectNext(1, 2, 3, 4, 5, 6, 7)
+            .expectComplete();
+
+        SortingUtils.merge(Comparator.naturalOrder(), Arrays.asList(Flux.just(1, 4, 7), Flux.just(2, 3), Flux.<Integer>empty(), Flux.just(5, 6)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void mergeError() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .expectError(IllegalStateException.class);
+
+        SortingUtils.merge(Comparator.naturalOrder(), Arrays.asList(Flux.just(1, 2), Flux.<Integer>error(new IllegalStateException())))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespan() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .expectNext(1, 2, 3)
+            .expectComplete();
+
+        Flux.just(3, 1, 2)
+            .compose(SortingUtils.timespan(Comparator.naturalOrder(), Duration.ofSeconds(1)))
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespanCapacity() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext(1, 3)
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext(2)
+            .expectComplete();
+
+        Flux.just(3, 1, 2)
+            .concatWith(Flux.never())
+            .compose(SortingUtils.timespan(Comparator.naturalOrder(), Duration.ofSeconds(1), 2))
+            .take(3)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void timespanWatermark() {
+        ScriptedSubscriber<Integer> subscriber = ScriptedSubscriber.<Integer>create()
+            .then(() -> VirtualTimeScheduler.get().advanceTimeBy(Duration.ofSeconds(1)))
+            .expectNext(1, 2)
+            .expectComplete();
+
+        Flux.just(2, 1)
+            .concatWith(Flux.never())
+            .compose(SortingUtils.timespan(Comparator.naturalOrder(), Duration.ofSeconds(1)))
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(5));
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013-2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cloudfoundry.util;
+
+import org.cloudfoundry.client.CloudFoundryClient;
+import org.cloudfoundry.client.v2.CloudFoundryException;
+import org.cloudfoundry.client.v2.Metadata;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEventResource;
+import org.cloudfoundry.client.v2.applicationusageevents.ApplicationUsageEvents;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsRequest;
+import org.cloudfoundry.client.v2.applicationusageevents.ListApplicationUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsRequest;
+import org.cloudfoundry.client.v2.serviceusageevents.ListServiceUsageEventsResponse;
+import org.cloudfoundry.client.v2.serviceusageevents.ServiceUsageEventResource;
+import org.cloudfoundry.client.v2.serviceusageevents.ServiceUsageEvents;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.subscriber.ScriptedSubscriber;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.mockito.Mockito.RETURNS_SMART_NULLS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public final class UsageEventUtilsTest {
+
+    private final ApplicationUsageEvents applicationUsageEvents = mock(ApplicationUsageEvents.class, RETURNS_SMART_NULLS);
+
+    private final CloudFoundryClient cloudFoundryClient = mock(CloudFoundryClient.class, RETURNS_SMART_NULLS);
+
+    private final ServiceUsageEvents serviceUsageEvents = mock(ServiceUsageEvents.class, RETURNS_SMART_NULLS);
+
+    @Before
+    public void setUp() {
+        when(this.cloudFoundryClient.applicationUsageEvents()).thenReturn(this.applicationUsageEvents);
+        when(this.cloudFoundryClient.serviceUsageEvents()).thenReturn(this.serviceUsageEvents);
+    }
+
+    @Test
+    public void tailApplicationUsageEvents() {
+        requestListApplicationUsageEvents(this.applicationUsageEvents, null, applicationUsageEventsPage("test-event-id-1"));
+        requestListApplicationUsageEvents(this.applicationUsageEvents, "test-event-id-1", applicationUsageEventsPage("test-event-id-2"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-event-id-1", "test-event-id-2")
+            .expectComplete();
+
+        UsageEventUtils.tailApplicationUsageEvents(this.cloudFoundryClient, null, Duration.ofMillis(10), Duration.ofMillis(100))
+            .map(ResourceUtils::getId)
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void tailApplicationUsageEventsEmptyPage() {
+        requestListApplicationUsageEvents(this.applicationUsageEvents, null, applicationUsageEventsPage(), applicationUsageEventsPage(), applicationUsageEventsPage("test-event-id-1"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-event-id-1")
+            .expectComplete();
+
+        UsageEventUtils.tailApplicationUsageEvents(this.cloudFoundryClient, null, Duration.ofMillis(10), Duration.ofMillis(100))
+            .map(ResourceUtils::getId)
+            .take(1)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void tailApplicationUsageEventsRejected() {
+        requestListApplicationUsageEvents(this.applicationUsageEvents, null, Mono.error(new CloudFoundryException(10003, "test-description", "CF-NotAuthorized")));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectError(CloudFoundryException.class);
+
+        UsageEventUtils.tailApplicationUsageEvents(this.cloudFoundryClient, null, Duration.ofMillis(10), Duration.ofMillis(100))
+            .map(ResourceUtils::getId)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void tailApplicationUsageEventsTransientError() {
+        requestListApplicationUsageEvents(this.applicationUsageEvents, null, Mono.error(new IOException("test-failure")), applicationUsageEventsPage("test-event-id-1"));
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-event-id-1")
+            .expectComplete();
+
+        UsageEventUtils.tailApplicationUsageEvents(this.cloudFoundryClient, null, Duration.ofMillis(10), Duration.ofMillis(100))
+            .map(ResourceUtils::getId)
+            .take(1)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    @Test
+    public void tailServiceUsageEvents() {
+        requestListServiceUsageEvents(this.serviceUsageEvents, null, "test-event-id-1");
+        requestListServiceUsageEvents(this.serviceUsageEvents, "test-event-id-1", "test-event-id-2");
+
+        ScriptedSubscriber<String> subscriber = ScriptedSubscriber.<String>create()
+            .expectNext("test-event-id-1", "test-event-id-2")
+            .expectComplete();
+
+        UsageEventUtils.tailServiceUsageEvents(this.cloudFoundryClient, null, Duration.ofMillis(10), Duration.ofMillis(100))
+            .map(ResourceUtils::getId)
+            .take(2)
+            .subscribe(subscriber);
+
+        subscriber.verify(Duration.ofSeconds(1));
+    }
+
+    private static Mono<ListApplicationUsageEventsResponse> applicationUsageEventsPage(String... applicationUsageEventIds) {
+        ListApplicationUsageEventsResponse.Builder page = ListApplicationUsageEventsResponse.builder()
+            .totalPages(1);
+
+        for (String applicationUsageEventId : applicationUsageEventIds) {
+            page.resource(ApplicationUsageEventResource.builder()
+                .metadata(Metadata.builder()
+                    .id(applicationUsageEventId)
+                    .build())
+                .build());
+        }
+
+        return Mono.just(page.build());
+    }
+
+    @SafeVarargs
+    private static void requestListApplicationUsageEvents(ApplicationUsageEvents applicationUsageEvents, String afterApplicationUsageEventId,
+                                                          Mono<ListApplicationUsageEventsResponse> response, Mono<ListApplicationUsageEventsResponse>... responses) {
+        when(applicationUsageEvents
+            .list(ListApplicationUsageEventsRequest.builder()
+                .afterApplicationUsageEventId(afterApplicationUsageEventId)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(response, responses);
+    }
+
+    private static void requestListServiceUsageEvents(ServiceUsageEvents serviceUsageEvents, String afterServiceUsageEventId, String serviceUsageEventId) {
+        when(serviceUsageEvents
+            .list(ListServiceUsageEventsRequest.builder()
+                .afterServiceUsageEventId(afterServiceUsageEventId)
+                .resultsPerPage(100)
+                .build()))
+            .thenReturn(Mono
+                .just(ListServiceUsageEventsResponse.builder()
+                    .resource(ServiceUsageEventResource.builder()
+                        .metadata(Metadata.builder()
+                            .id(serviceUsageEventId)
+                            .build())
+                        .build())
+                    .totalPages(1)
+                    .build()));
+    }
+
+}